@@ -0,0 +1,21 @@
+#!/bin/sh
+# Build the application and the benchmarks, run JMH and write results/jmh-<timestamp>.json.
+# When results/baseline.json exists the run fails if any benchmark regressed by more than
+# MAX_REGRESSION percent (default 10). Extra arguments are passed to JMH, e.g. "FileHash".
+set -e
+
+cd "$(dirname "$0")"
+MAX_REGRESSION=${MAX_REGRESSION:-10}
+
+../mvnw -q -f ../pom.xml install -DskipTests
+../mvnw -q -f pom.xml package
+
+mkdir -p results
+RESULT="results/jmh-$(date +%Y%m%d-%H%M%S).json"
+java -jar target/benchmarks.jar -rf json -rff "$RESULT" "$@"
+echo "Results written to $RESULT"
+
+if [ -f results/baseline.json ]; then
+    java -cp target/benchmarks.jar com.educhain.document_system.benchmarks.RegressionCheck \
+        results/baseline.json "$RESULT" "$MAX_REGRESSION"
+fi
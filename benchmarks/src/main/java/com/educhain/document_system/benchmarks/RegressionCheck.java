@@ -0,0 +1,78 @@
+package com.educhain.document_system.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Compares two JMH JSON result files and exits with status 1 when any benchmark got slower
+ * than the allowed percentage (default 10%). Benchmarks missing from either file are ignored.
+ *
+ * Usage: java -cp benchmarks.jar com.educhain.document_system.benchmarks.RegressionCheck
+ *        baseline.json current.json [maxRegressionPercent]
+ */
+public final class RegressionCheck {
+
+    private RegressionCheck() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: RegressionCheck <baseline.json> <current.json> [maxRegressionPercent]");
+            System.exit(2);
+        }
+        double maxRegression = args.length > 2 ? Double.parseDouble(args[2]) : 10.0;
+
+        ObjectMapper mapper = new ObjectMapper();
+        Map<String, JsonNode> baseline = byKey(mapper.readTree(new File(args[0])));
+        Map<String, JsonNode> current = byKey(mapper.readTree(new File(args[1])));
+
+        int regressions = 0;
+        for (Map.Entry<String, JsonNode> entry : current.entrySet()) {
+            JsonNode before = baseline.get(entry.getKey());
+            if (before == null) {
+                continue;
+            }
+            double oldScore = before.path("primaryMetric").path("score").asDouble();
+            double newScore = entry.getValue().path("primaryMetric").path("score").asDouble();
+            String unit = entry.getValue().path("primaryMetric").path("scoreUnit").asText();
+            boolean higherIsBetter = "thrpt".equals(entry.getValue().path("mode").asText());
+
+            // Positive = slower
+            double change = oldScore == 0 ? 0 : (newScore - oldScore) / oldScore * 100;
+            if (higherIsBetter) {
+                change = -change;
+            }
+            boolean regressed = change > maxRegression;
+            if (regressed) {
+                regressions++;
+            }
+            System.out.printf("%-10s %-90s %12.3f -> %12.3f %-8s %+7.1f%%%n",
+                regressed ? "REGRESSED" : "ok", entry.getKey(), oldScore, newScore, unit, change);
+        }
+
+        if (regressions > 0) {
+            System.err.println(regressions + " benchmark(s) regressed by more than " + maxRegression + "%");
+            System.exit(1);
+        }
+    }
+
+    // Key each result by benchmark name plus its parameters
+    private static Map<String, JsonNode> byKey(JsonNode results) {
+        Map<String, JsonNode> byKey = new HashMap<>();
+        for (JsonNode result : results) {
+            StringBuilder key = new StringBuilder(result.path("benchmark").asText());
+            Iterator<Map.Entry<String, JsonNode>> params = result.path("params").fields();
+            while (params.hasNext()) {
+                Map.Entry<String, JsonNode> param = params.next();
+                key.append(' ').append(param.getKey()).append('=').append(param.getValue().asText());
+            }
+            byKey.put(key.toString(), result);
+        }
+        return byKey;
+    }
+}
@@ -0,0 +1,107 @@
+package com.educhain.document_system.controller;
+
+import com.educhain.document_system.model.DocumentPage;
+import com.educhain.document_system.model.DocumentSummary;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.MediaType;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Listing page encoding as JSON, CBOR and Smile through ListingResponseWriter: the server's
+ * write cost, and the client's cost to parse the page back. Payload sizes are printed once
+ * per trial, before the first warm-up iteration.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ListingEncodingBenchmark {
+
+    @Param({"200", "10000"})
+    private int rows;
+
+    @Param({"json", "cbor", "smile"})
+    private String format;
+
+    private ListingResponseWriter listingResponseWriter;
+    private MediaType mediaType;
+    private ObjectMapper reader;
+    private DocumentPage page;
+    private ByteArrayOutputStream out;
+    private byte[] encoded;
+
+    @Setup
+    public void setup() throws IOException {
+        // Same date handling as the application's mapper
+        ObjectMapper objectMapper = JsonMapper.builder()
+            .findAndAddModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+        listingResponseWriter = new ListingResponseWriter(objectMapper);
+
+        switch (format) {
+            case "cbor" -> {
+                mediaType = MediaType.APPLICATION_CBOR;
+                reader = new ObjectMapper(new CBORFactory());
+            }
+            case "smile" -> {
+                mediaType = ListingResponseWriter.APPLICATION_SMILE;
+                reader = new ObjectMapper(new SmileFactory());
+            }
+            default -> {
+                mediaType = MediaType.APPLICATION_JSON;
+                reader = new ObjectMapper();
+            }
+        }
+
+        List<DocumentSummary> documents = new ArrayList<>(rows);
+        LocalDateTime uploaded = LocalDateTime.of(2024, 3, 1, 12, 0);
+        for (int i = 0; i < rows; i++) {
+            documents.add(new DocumentSummary((long) (100000 - i), "transcript_" + i + ".pdf", "Transcript",
+                "Semester " + (i % 8 + 1) + " transcript", 180000L + i, uploaded.minusMinutes(i),
+                (long) (i % 40), "student" + (i % 40), "0x" + Long.toHexString(0x9e3779b97f4a7c15L * (i + 1))));
+        }
+        page = new DocumentPage(documents, "MjAyNC0wMy0wMVQxMjowMHwxMjM0NQ");
+        out = new ByteArrayOutputStream(rows * 512);
+
+        listingResponseWriter.documentPage(page, mediaType).writeTo(out);
+        encoded = out.toByteArray();
+        System.out.printf("%n%s, %d rows: %d bytes (%.1f per row)%n",
+            format, rows, encoded.length, (double) encoded.length / rows);
+    }
+
+    @Benchmark
+    public int write() throws IOException {
+        out.reset();
+        listingResponseWriter.documentPage(page, mediaType).writeTo(out);
+        return out.size();
+    }
+
+    @Benchmark
+    public JsonNode read() throws IOException {
+        return reader.readTree(encoded);
+    }
+}
@@ -0,0 +1,99 @@
+package com.educhain.document_system.controller;
+
+import com.educhain.document_system.model.DocumentPage;
+import com.educhain.document_system.model.DocumentSummary;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization of a listing page: the streaming ListingResponseWriter against building a
+ * Map per document and serializing the whole response tree, as the endpoint used to.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ListingSerializationBenchmark {
+
+    @Param({"50", "200"})
+    private int pageSize;
+
+    private ObjectMapper objectMapper;
+    private ListingResponseWriter listingResponseWriter;
+    private DocumentPage page;
+    private ByteArrayOutputStream out;
+
+    @Setup
+    public void setup() {
+        // Same date handling as the application's mapper
+        objectMapper = JsonMapper.builder()
+            .findAndAddModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+        listingResponseWriter = new ListingResponseWriter(objectMapper);
+
+        List<DocumentSummary> documents = new ArrayList<>(pageSize);
+        LocalDateTime uploaded = LocalDateTime.of(2024, 3, 1, 12, 0);
+        for (int i = 0; i < pageSize; i++) {
+            documents.add(new DocumentSummary((long) (100000 - i), "transcript_" + i + ".pdf", "Transcript",
+                "Semester " + (i % 8 + 1) + " transcript", 180000L + i, uploaded.minusMinutes(i),
+                (long) (i % 40), "student" + (i % 40), "0x" + Long.toHexString(0x9e3779b97f4a7c15L * (i + 1))));
+        }
+        page = new DocumentPage(documents, "MjAyNC0wMy0wMVQxMjowMHwxMjM0NQ");
+        out = new ByteArrayOutputStream(pageSize * 512);
+    }
+
+    @Benchmark
+    public int streamingWriter() throws IOException {
+        out.reset();
+        listingResponseWriter.documentPage(page).writeTo(out);
+        return out.size();
+    }
+
+    @Benchmark
+    public int mapTree() throws IOException {
+        out.reset();
+        List<Map<String, Object>> documents = new ArrayList<>();
+        for (DocumentSummary document : page.getDocuments()) {
+            Map<String, Object> row = new HashMap<>();
+            row.put("id", document.getId());
+            row.put("filename", document.getFilename());
+            row.put("documentType", document.getDocumentType());
+            row.put("description", document.getDescription());
+            row.put("fileSize", document.getFileSize());
+            row.put("uploadDate", document.getUploadDate());
+            row.put("studentId", document.getStudentId());
+            row.put("studentUsername", document.getStudentUsername());
+            row.put("blockchainTxHash", document.getBlockchainTxHash());
+            documents.add(row);
+        }
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("documents", documents);
+        response.put("nextCursor", page.getNextCursor());
+        objectMapper.writeValue(out, response);
+        return out.size();
+    }
+}
@@ -0,0 +1,120 @@
+package com.educhain.document_system.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ContentDefinedChunker on two documents generated from the same template: the second one has a
+ * few short fields (names, dates) inserted and replaced, which shifts everything after them.
+ * Measures finding the boundaries and hashing the chunks at upload, and prints the share of the
+ * second document's bytes already stored by the first, against fixed 8 KB blocks for comparison.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx1g")
+public class ContentDefinedChunkerBenchmark {
+
+    private static final int FIELDS = 10;
+    private static final int FIXED_BLOCK = 8 * 1024;
+
+    @Param({"1048576", "20971520"})
+    private int size;
+
+    private byte[] first;
+    private byte[] second;
+
+    @Setup
+    public void setup() throws NoSuchAlgorithmException {
+        Random random = new Random(42);
+        first = new byte[size];
+        random.nextBytes(first);
+
+        // The template in runs, each followed by a field of a different length
+        ByteArrayOutputStream out = new ByteArrayOutputStream(size + FIELDS * 64);
+        int run = size / FIELDS;
+        for (int position = 0; position < size; position += run) {
+            out.write(first, position, Math.min(run, size - position));
+            byte[] field = new byte[8 + random.nextInt(48)];
+            random.nextBytes(field);
+            out.writeBytes(field);
+        }
+        second = out.toByteArray();
+
+        System.out.printf("%n%d bytes: %.1f%% shared with content-defined chunks, %.1f%% with fixed blocks%n",
+            second.length,
+            100.0 * shared(first, ContentDefinedChunker.boundaries(first), second, ContentDefinedChunker.boundaries(second)) / second.length,
+            100.0 * shared(first, fixed(first.length), second, fixed(second.length)) / second.length);
+    }
+
+    @Benchmark
+    public int[] boundaries() {
+        return ContentDefinedChunker.boundaries(second);
+    }
+
+    @Benchmark
+    public byte[] boundariesAndHashes() throws NoSuchAlgorithmException {
+        int[] ends = ContentDefinedChunker.boundaries(second);
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        byte[] last = null;
+        int start = 0;
+        for (int end : ends) {
+            digest.update(second, start, end - start);
+            last = digest.digest();
+            start = end;
+        }
+        return last;
+    }
+
+    // Bytes of b in chunks that also occur in a
+    private static long shared(byte[] a, int[] aEnds, byte[] b, int[] bEnds) throws NoSuchAlgorithmException {
+        Set<ByteBuffer> stored = new HashSet<>();
+        int start = 0;
+        for (int end : aEnds) {
+            stored.add(ByteBuffer.wrap(sha256(a, start, end)));
+            start = end;
+        }
+        long shared = 0;
+        start = 0;
+        for (int end : bEnds) {
+            if (stored.contains(ByteBuffer.wrap(sha256(b, start, end)))) {
+                shared += end - start;
+            }
+            start = end;
+        }
+        return shared;
+    }
+
+    private static int[] fixed(int length) {
+        int[] ends = new int[(length + FIXED_BLOCK - 1) / FIXED_BLOCK];
+        for (int i = 0; i < ends.length; i++) {
+            ends[i] = Math.min(length, (i + 1) * FIXED_BLOCK);
+        }
+        return ends;
+    }
+
+    private static byte[] sha256(byte[] data, int from, int to) throws NoSuchAlgorithmException {
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        digest.update(data, from, to - from);
+        return digest.digest();
+    }
+}
@@ -0,0 +1,102 @@
+package com.educhain.document_system.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DeltaCodec on a reissued document: the new version keeps the previous one's bytes except for a
+ * few replaced, inserted and removed regions, like a corrected transcript whose unchanged PDF
+ * objects are written out identically. Measures encoding at upload and streaming reconstruction
+ * at download, and prints the delta size relative to the file.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx1g")
+public class DeltaCodecBenchmark {
+
+    private static final int EDITS = 20;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    @Param({"1048576", "20971520"})
+    private int size;
+
+    private byte[] previous;
+    private byte[] next;
+    private byte[] delta;
+    private Path previousFile;
+
+    @Setup
+    public void setup() throws IOException {
+        Random random = new Random(42);
+        previous = new byte[size];
+        random.nextBytes(previous);
+
+        // Copy the previous version in runs, with an edit between runs
+        ByteArrayOutputStream out = new ByteArrayOutputStream(size + EDITS * 512);
+        int position = 0;
+        int run = size / EDITS;
+        while (position < size) {
+            int length = Math.min(run, size - position);
+            out.write(previous, position, length);
+            position += length;
+            byte[] edit = new byte[random.nextInt(512)];
+            random.nextBytes(edit);
+            out.writeBytes(edit);
+            position += random.nextInt(256);
+        }
+        next = out.toByteArray();
+        delta = DeltaCodec.encode(previous, next);
+
+        previousFile = Files.createTempFile("delta-benchmark", ".bin");
+        Files.write(previousFile, previous);
+        System.out.printf("%n%d bytes: delta %d bytes (%.2f%% of the new version)%n",
+            next.length, delta.length, 100.0 * delta.length / next.length);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(previousFile);
+    }
+
+    @Benchmark
+    public byte[] encode() {
+        return DeltaCodec.encode(previous, next);
+    }
+
+    @Benchmark
+    public long reconstruct() throws IOException {
+        long total = 0;
+        byte[] buffer = new byte[BUFFER_SIZE];
+        try (InputStream in = DeltaCodec.decode(new ByteArrayInputStream(delta),
+                FileChannel.open(previousFile, StandardOpenOption.READ))) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                total += read;
+            }
+        }
+        return total;
+    }
+}
@@ -0,0 +1,67 @@
+package com.educhain.document_system.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DocumentService.calculateFileHash on upload-sized inputs, split into the SHA-256 digest
+ * and the per-byte Integer.toHexString encoding so the cost of each is visible.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FileHashBenchmark {
+
+    @Param({"1024", "1048576", "16777216"})
+    private int size;
+
+    private DocumentService documentService;
+    private byte[] data;
+    private byte[] digest;
+
+    @Setup
+    public void setup() throws NoSuchAlgorithmException {
+        documentService = new DocumentService();
+        data = new byte[size];
+        new Random(42).nextBytes(data);
+        digest = MessageDigest.getInstance("SHA-256").digest(data);
+    }
+
+    @Benchmark
+    public String calculateFileHash() {
+        return documentService.calculateFileHash(data);
+    }
+
+    @Benchmark
+    public byte[] digestOnly() throws NoSuchAlgorithmException {
+        return MessageDigest.getInstance("SHA-256").digest(data);
+    }
+
+    // Independent of size; reported per size only because of the shared @Param
+    @Benchmark
+    public String hexLoop() {
+        return DocumentService.toHexString(digest);
+    }
+
+    @Benchmark
+    public String hexFormat() {
+        return HexFormat.of().formatHex(digest);
+    }
+}
@@ -0,0 +1,82 @@
+package com.educhain.document_system.service;
+
+import com.educhain.document_system.model.VerificationResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import java.util.Base64;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Gemini request building (Base64 of the image plus String.format of the body) and
+ * parseGeminiResponse (regex markdown stripping and the double JSON parse).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GeminiBenchmark {
+
+    private static final String VERIFICATION_JSON =
+        "{\"documentType\": \"Transcript\", \"isValid\": true, \"confidence\": 0.92, " +
+        "\"reason\": \"Grades, course names and the institution name are present.\"}";
+
+    // Image size in bytes (the service accepts up to 10MB)
+    @Param({"262144", "4194304"})
+    private int imageSize;
+
+    private GeminiVerificationService service;
+    private byte[] image;
+    private String base64Image;
+    private String fencedResponse;
+    private String plainResponse;
+
+    @Setup
+    public void setup() {
+        service = new GeminiVerificationService();
+        image = new byte[imageSize];
+        new Random(42).nextBytes(image);
+        base64Image = Base64.getEncoder().encodeToString(image);
+        fencedResponse = apiResponse("```json\n" + VERIFICATION_JSON + "\n```");
+        plainResponse = apiResponse(VERIFICATION_JSON);
+    }
+
+    @Benchmark
+    public String buildRequest() {
+        return service.buildRequestBody(Base64.getEncoder().encodeToString(image), "Transcript", "image/png");
+    }
+
+    @Benchmark
+    public String buildRequestBodyOnly() {
+        return service.buildRequestBody(base64Image, "Transcript", "image/png");
+    }
+
+    @Benchmark
+    public VerificationResult parseFencedResponse() {
+        return service.parseGeminiResponse(fencedResponse, "Transcript");
+    }
+
+    @Benchmark
+    public VerificationResult parsePlainResponse() {
+        return service.parseGeminiResponse(plainResponse, "Transcript");
+    }
+
+    // Wrap the model text the way generateContent returns it
+    private static String apiResponse(String text) {
+        String escaped = text.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+        return "{\"candidates\":[{\"content\":{\"parts\":[{\"text\":\"" + escaped + "\"}],\"role\":\"model\"}," +
+               "\"finishReason\":\"STOP\",\"index\":0}],\"usageMetadata\":{\"promptTokenCount\":1290," +
+               "\"candidatesTokenCount\":48,\"totalTokenCount\":1338}}";
+    }
+}
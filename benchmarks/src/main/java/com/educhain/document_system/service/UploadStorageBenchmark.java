@@ -0,0 +1,147 @@
+package com.educhain.document_system.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.ReflectionUtils;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * The disk side of storing an upload through DurableFileWriter with fsync on: the whole file
+ * as one synced file (chunk store off, the default), against its content-defined chunks as one
+ * synced file each, all new (chunk store on, nothing deduplicated). Database work is left out.
+ * wholeFileConcurrent stores eight uploads at a time, which is where group commit matters.
+ * The files go under benchmark.dir (default target), which must be on the disk being measured;
+ * a tmpfs makes fsync free.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx1g")
+public class UploadStorageBenchmark {
+
+    @Param({"1048576", "20971520"})
+    private int size;
+
+    private Path directory;
+    private StorageVolumes volumes;
+    private DurableFileWriter writer;
+    private byte[] upload;
+    private int[] ends;
+    private final AtomicLong uploads = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        Path parent = Files.createDirectories(Path.of(System.getProperty("benchmark.dir", "target")));
+        directory = Files.createTempDirectory(parent, "upload-storage");
+
+        volumes = new StorageVolumes();
+        set(volumes, "volumeList", "");
+        set(volumes, "uploadDir", directory.resolve("uploads").toString());
+        set(volumes, "chunkDir", directory.resolve("chunks").toString());
+        set(volumes, "ioThreads", 4);
+        volumes.start();
+
+        writer = new DurableFileWriter(new SimpleMeterRegistry(), volumes);
+        set(writer, "fsyncEnabled", true);
+        set(writer, "groupWindowMs", 2L);
+        set(writer, "maxBatch", 64);
+
+        upload = new byte[size];
+        new Random(42).nextBytes(upload);
+        ends = ContentDefinedChunker.boundaries(upload);
+        System.out.printf("%n%d bytes: %d chunks%n", size, ends.length);
+    }
+
+    @TearDown(Level.Iteration)
+    public void clean() throws IOException {
+        delete(directory);
+        Files.createDirectories(directory);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        writer.stop();
+        volumes.stop();
+        delete(directory);
+    }
+
+    @Benchmark
+    public void wholeFile() throws IOException {
+        Path uploadsDirectory = Files.createDirectories(volumes.getVolumes().get(0).documents());
+        writer.writeNow(uploadsDirectory.resolve(uploads.incrementAndGet() + "_upload.bin"), upload);
+    }
+
+    // Eight uploads at a time, each waiting for its own file to be durable
+    @Benchmark
+    @Threads(8)
+    public void wholeFileConcurrent() throws IOException {
+        wholeFile();
+    }
+
+    @Benchmark
+    public void newChunks() throws IOException, NoSuchAlgorithmException {
+        // Chunk names spread over the prefix directories like chunk hashes do, unique per upload
+        byte[] nonce = ByteBuffer.allocate(Long.BYTES).putLong(uploads.incrementAndGet()).array();
+        List<CompletableFuture<Void>> writes = new ArrayList<>(ends.length);
+        int start = 0;
+        for (int end : ends) {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(nonce);
+            digest.update(upload, start, end - start);
+            String hash = HexFormat.of().formatHex(digest.digest());
+            Path path = volumes.forHash(hash).chunks().resolve(hash.substring(0, 2)).resolve(hash);
+            Files.createDirectories(path.getParent());
+            byte[] chunk = new byte[end - start];
+            System.arraycopy(upload, start, chunk, 0, chunk.length);
+            writes.add(writer.write(path, chunk));
+            start = end;
+        }
+        for (CompletableFuture<Void> write : writes) {
+            DurableFileWriter.await(write);
+        }
+    }
+
+    private static void set(Object target, String name, Object value) {
+        Field field = ReflectionUtils.findField(target.getClass(), name);
+        ReflectionUtils.makeAccessible(field);
+        ReflectionUtils.setField(field, target, value);
+    }
+
+    private static void delete(Path root) throws IOException {
+        try (Stream<Path> paths = Files.walk(root)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+}
@@ -0,0 +1,67 @@
+#!/bin/sh
+# Build the Docker image and measure application startup in three configurations:
+#   update          default profile (Hibernate ddl-auto=update), JDK class-data sharing only
+#   fast-start      Flyway migrations, no JDBC metadata at boot, JDK class-data sharing only
+#   fast-start+cds  as shipped: fast-start plus the application CDS archive
+# Needs Docker and a reachable MySQL (DATABASE_URL, DATABASE_USERNAME, DATABASE_PASSWORD).
+# RUNS (default 5) measured starts per configuration, after one unmeasured start.
+set -e
+
+cd "$(dirname "$0")/.."
+RUNS=${RUNS:-5}
+IMAGE=${IMAGE:-document-system:startup-benchmark}
+: "${DATABASE_URL:?DATABASE_URL must point at a MySQL database}"
+
+docker build -q -t "$IMAGE" . > /dev/null
+
+JAVA_BASE="-XX:+UseContainerSupport -XX:MaxRAMPercentage=75.0"
+MAIN=com.educhain.document_system.DocumentSystemApplication
+
+# Prints "<started seconds> <process seconds>" for one start
+start_once() {
+    profile=$1
+    share=$2
+    container=$(docker run -d --network host \
+        -e DATABASE_URL="$DATABASE_URL" \
+        -e DATABASE_USERNAME="${DATABASE_USERNAME:-root}" \
+        -e DATABASE_PASSWORD="${DATABASE_PASSWORD:-}" \
+        -e SPRING_PROFILES_ACTIVE="$profile" \
+        --entrypoint java "$IMAGE" $JAVA_BASE $share @classpath.args $MAIN)
+    line=""
+    for _ in $(seq 1 240); do
+        line=$(docker logs "$container" 2>&1 | grep -oE "Started DocumentSystemApplication in [0-9.]+ seconds \(process running for [0-9.]+\)" || true)
+        [ -n "$line" ] && break
+        if [ "$(docker inspect -f '{{.State.Running}}' "$container")" != "true" ]; then
+            docker logs "$container" >&2
+            break
+        fi
+        sleep 0.5
+    done
+    docker rm -f "$container" > /dev/null
+    [ -n "$line" ] || { echo "Application did not start" >&2; exit 1; }
+    echo "$line" | sed -E 's/.* in ([0-9.]+) seconds \(process running for ([0-9.]+)\)/\1 \2/'
+}
+
+measure() {
+    name=$1
+    profile=$2
+    share=$3
+    start_once "$profile" "$share" > /dev/null
+    results=""
+    for _ in $(seq 1 "$RUNS"); do
+        results="$results$(start_once "$profile" "$share")
+"
+    done
+    printf '%s' "$results" | sort -n | awk -v name="$name" '
+        { started[NR] = $1; process[NR] = $2 }
+        END {
+            mid = int((NR + 1) / 2)
+            printf "%-16s median %6.2fs (process %6.2fs)   min %6.2fs   max %6.2fs\n",
+                name, started[mid], process[mid], started[1], started[NR]
+        }'
+}
+
+echo "Startup time over $RUNS runs (Spring 'Started ... in', and time since JVM start):"
+measure "update" "default" "-Xshare:auto"
+measure "fast-start" "fast-start" "-Xshare:auto"
+measure "fast-start+cds" "fast-start" "-XX:SharedArchiveFile=app.jsa -Xshare:auto"
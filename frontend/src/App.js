@@ -138,11 +138,31 @@ const api = {
     formData.append('description', description);
     return api.request('/documents/upload', { method: 'POST', headers: {}, body: formData });
   },
-  getMyDocuments: () => api.request('/documents/my-documents'),
+  getMyDocuments: (cursor) => api.request(`/documents/my-documents${cursor ? `?cursor=${encodeURIComponent(cursor)}` : ''}`),
+  searchDocuments: (query) => api.request(`/documents/search?q=${encodeURIComponent(query)}`),
   downloadDocument: (documentId) => fetch(`${api.baseURL}/documents/download/${documentId}`, { credentials: 'include' }),
   verifyDocument: (documentId) => api.request(`/documents/verify/${documentId}`),
   getAllStudents: () => api.request('/documents/students'),
+  getStats: () => api.request('/documents/stats'),
   deleteDocument: (documentId) => api.request(`/documents/${documentId}`, { method: 'DELETE' }),
+  documentEvents: () => new EventSource(`${api.baseURL}/documents/events`, { withCredentials: true }),
+};
+
+// Keep a document list current from server-pushed events instead of re-fetching it
+const useDocumentEvents = (setDocuments) => {
+  useEffect(() => {
+    const source = api.documentEvents();
+    const upsert = (event) => {
+      const { document } = JSON.parse(event.data);
+      if (!document) return;
+      setDocuments((prev) => (prev.some((d) => d.id === document.id)
+        ? prev.map((d) => (d.id === document.id ? { ...d, ...document } : d))
+        : [document, ...prev]));
+    };
+    source.addEventListener('uploaded', upsert);
+    source.addEventListener('anchored', upsert);
+    return () => source.close();
+  }, [setDocuments]);
 };
 
 // Auth Provider
@@ -452,18 +472,26 @@ const Header = () => {
 const AdminDashboard = () => {
   const [activeTab, setActiveTab] = useState('documents');
   const [documents, setDocuments] = useState([]);
+  const [nextCursor, setNextCursor] = useState(null);
   const [students, setStudents] = useState([]);
+  const [stats, setStats] = useState(null);
   const [loading, setLoading] = useState(true);
 
   useEffect(() => {
     loadData();
   }, []);
 
+  useDocumentEvents(setDocuments);
+
   const loadData = async () => {
     try {
-      const [docsResponse, studentsResponse] = await Promise.all([api.getMyDocuments(), api.getAllStudents()]);
-      if (docsResponse.success) setDocuments(docsResponse.documents);
+      const [docsResponse, studentsResponse, statsResponse] = await Promise.all([api.getMyDocuments(), api.getAllStudents(), api.getStats()]);
+      if (docsResponse.success) {
+        setDocuments(docsResponse.documents);
+        setNextCursor(docsResponse.nextCursor);
+      }
       if (studentsResponse.success) setStudents(studentsResponse.students);
+      if (statsResponse.success) setStats(statsResponse.stats);
     } catch (error) {
       console.error('Failed to load data:', error);
     } finally {
@@ -471,6 +499,18 @@ const AdminDashboard = () => {
     }
   };
 
+  const loadMoreDocuments = async () => {
+    try {
+      const docsResponse = await api.getMyDocuments(nextCursor);
+      if (docsResponse.success) {
+        setDocuments((prev) => [...prev, ...docsResponse.documents]);
+        setNextCursor(docsResponse.nextCursor);
+      }
+    } catch (error) {
+      console.error('Failed to load more documents:', error);
+    }
+  };
+
   return (
     <div style={styles.body}>
       <Header />
@@ -489,7 +529,7 @@ const AdminDashboard = () => {
               </div>
               <div style={{ marginLeft: '1rem' }}>
                 <p style={{ fontSize: '14px', color: '#6b7280', marginBottom: '4px' }}>Total Documents</p>
-                <p style={{ fontSize: '24px', fontWeight: 'bold', color: '#111827' }}>{documents.length}</p>
+                <p style={{ fontSize: '24px', fontWeight: 'bold', color: '#111827' }}>{stats ? stats.total.documents : documents.length}</p>
               </div>
             </div>
           </div>
@@ -513,7 +553,7 @@ const AdminDashboard = () => {
               </div>
               <div style={{ marginLeft: '1rem' }}>
                 <p style={{ fontSize: '14px', color: '#6b7280', marginBottom: '4px' }}>Verified Documents</p>
-                <p style={{ fontSize: '24px', fontWeight: 'bold', color: '#111827' }}>{documents.filter((d) => d.blockchainTxHash).length}</p>
+                <p style={{ fontSize: '24px', fontWeight: 'bold', color: '#111827' }}>{stats ? stats.total.anchored : documents.filter((d) => d.blockchainTxHash).length}</p>
               </div>
             </div>
           </div>
@@ -559,7 +599,7 @@ const AdminDashboard = () => {
             </div>
           ) : (
             <>
-              {activeTab === 'documents' && <DocumentsList documents={documents} onRefresh={loadData} />}
+              {activeTab === 'documents' && <DocumentsList documents={documents} onRefresh={loadData} onLoadMore={nextCursor ? loadMoreDocuments : null} />}
               {activeTab === 'upload' && <UploadDocument students={students} onUpload={loadData} />}
               {activeTab === 'students' && <StudentsList students={students} />}
             </>
@@ -571,14 +611,30 @@ const AdminDashboard = () => {
 };
 
 // Documents List
-const DocumentsList = ({ documents, onRefresh }) => {
+const DocumentsList = ({ documents, onRefresh, onLoadMore }) => {
   const [searchTerm, setSearchTerm] = useState('');
+  const [searchResults, setSearchResults] = useState(null);
   const [verifying, setVerifying] = useState({});
 
-  const filteredDocuments = documents.filter(
-    (doc) =>
-      doc.filename.toLowerCase().includes(searchTerm.toLowerCase()) || doc.studentUsername.toLowerCase().includes(searchTerm.toLowerCase()) || doc.documentType.toLowerCase().includes(searchTerm.toLowerCase())
-  );
+  // Search runs server-side so it covers every document, not just the loaded pages
+  useEffect(() => {
+    const query = searchTerm.trim();
+    if (!query) {
+      setSearchResults(null);
+      return undefined;
+    }
+    const timer = setTimeout(async () => {
+      try {
+        const response = await api.searchDocuments(query);
+        if (response.success) setSearchResults(response.documents);
+      } catch (error) {
+        console.error('Search failed:', error);
+      }
+    }, 250);
+    return () => clearTimeout(timer);
+  }, [searchTerm]);
+
+  const filteredDocuments = searchResults !== null ? searchResults : documents;
 
   const handleDownload = async (documentId, filename) => {
     try {
@@ -692,6 +748,14 @@ const DocumentsList = ({ documents, onRefresh }) => {
             <p style={{ color: '#6b7280' }}>No documents found</p>
           </div>
         )}
+
+        {onLoadMore && searchResults === null && (
+          <div style={{ textAlign: 'center', padding: '1rem' }}>
+            <button onClick={onLoadMore} style={{ ...styles.button, backgroundColor: '#f3f4f6', color: '#374151' }}>
+              Load more
+            </button>
+          </div>
+        )}
       </div>
     </div>
   );
@@ -887,18 +951,24 @@ const StudentsList = ({ students }) => {
 // Student Dashboard
 const StudentDashboard = () => {
   const [documents, setDocuments] = useState([]);
+  const [nextCursor, setNextCursor] = useState(null);
+  const [stats, setStats] = useState(null);
   const [loading, setLoading] = useState(true);
 
   useEffect(() => {
     loadDocuments();
   }, []);
 
+  useDocumentEvents(setDocuments);
+
   const loadDocuments = async () => {
     try {
-      const response = await api.getMyDocuments();
+      const [response, statsResponse] = await Promise.all([api.getMyDocuments(), api.getStats()]);
       if (response.success) {
         setDocuments(response.documents);
+        setNextCursor(response.nextCursor);
       }
+      if (statsResponse.success) setStats(statsResponse.stats);
     } catch (error) {
       console.error('Failed to load documents:', error);
     } finally {
@@ -906,6 +976,18 @@ const StudentDashboard = () => {
     }
   };
 
+  const loadMoreDocuments = async () => {
+    try {
+      const response = await api.getMyDocuments(nextCursor);
+      if (response.success) {
+        setDocuments((prev) => [...prev, ...response.documents]);
+        setNextCursor(response.nextCursor);
+      }
+    } catch (error) {
+      console.error('Failed to load more documents:', error);
+    }
+  };
+
   const handleDownload = async (documentId, filename) => {
     try {
       const response = await api.downloadDocument(documentId);
@@ -947,7 +1029,7 @@ const StudentDashboard = () => {
               </div>
               <div style={{ marginLeft: '1rem' }}>
                 <p style={{ fontSize: '14px', color: '#6b7280', marginBottom: '4px' }}>Total Documents</p>
-                <p style={{ fontSize: '24px', fontWeight: 'bold', color: '#111827' }}>{documents.length}</p>
+                <p style={{ fontSize: '24px', fontWeight: 'bold', color: '#111827' }}>{stats ? stats.total.documents : documents.length}</p>
               </div>
             </div>
           </div>
@@ -959,7 +1041,7 @@ const StudentDashboard = () => {
               </div>
               <div style={{ marginLeft: '1rem' }}>
                 <p style={{ fontSize: '14px', color: '#6b7280', marginBottom: '4px' }}>Verified Documents</p>
-                <p style={{ fontSize: '24px', fontWeight: 'bold', color: '#111827' }}>{documents.filter((d) => d.blockchainTxHash).length}</p>
+                <p style={{ fontSize: '24px', fontWeight: 'bold', color: '#111827' }}>{stats ? stats.total.anchored : documents.filter((d) => d.blockchainTxHash).length}</p>
               </div>
             </div>
           </div>
@@ -987,6 +1069,14 @@ const StudentDashboard = () => {
               ))}
             </div>
           )}
+
+          {!loading && nextCursor && (
+            <div style={{ textAlign: 'center', padding: '1rem' }}>
+              <button onClick={loadMoreDocuments} style={{ ...styles.button, backgroundColor: '#f3f4f6', color: '#374151' }}>
+                Load more
+              </button>
+            </div>
+          )}
         </div>
       </div>
     </div>
@@ -0,0 +1,31 @@
+#!/usr/bin/env bash
+# Run the load test once on platform threads and once on virtual threads, then compare.
+# Usage: ./compare-execution-modes.sh [load test options...]
+set -euo pipefail
+cd "$(dirname "$0")"
+
+JAR=target/loadtest.jar
+if [ ! -f "$JAR" ]; then
+  echo "Build the load test first: ../mvnw package" >&2
+  exit 1
+fi
+
+for mode in platform virtual; do
+  echo "=== $mode ==="
+  java -jar "$JAR" "$@" --execution-mode="$mode" --out="loadtest-$mode.json"
+done
+
+python3 - <<'PY'
+import json
+
+reports = {mode: json.load(open(f"loadtest-{mode}.json")) for mode in ("platform", "virtual")}
+print()
+print(f"{'endpoint':<10} {'mode':<9} {'req/s':>9} {'errors':>8} {'p50':>9} {'p99':>9} {'p999':>9}")
+names = [e["endpoint"] for e in reports["platform"]["endpoints"]]
+for name in names:
+    for mode, report in reports.items():
+        for e in report["endpoints"]:
+            if e["endpoint"] == name:
+                print(f"{name:<10} {mode:<9} {e['throughputPerSecond']:>9.1f} {e['errors']:>8} "
+                      f"{e['p50Ms']:>9.1f} {e['p99Ms']:>9.1f} {e['p999Ms']:>9.1f}")
+PY
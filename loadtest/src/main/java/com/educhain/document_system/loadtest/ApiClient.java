@@ -0,0 +1,145 @@
+package com.educhain.document_system.loadtest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.CookieManager;
+import java.net.CookiePolicy;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * HTTP client for one simulated browser: its own cookie jar (and so its own session).
+ */
+public class ApiClient {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(120);
+    private static final Pattern DOCUMENT_ID = Pattern.compile("\\{\"id\":(\\d+)");
+    private static final Pattern USER_ID = Pattern.compile("\"userId\":(\\d+)");
+
+    // Status and body (null for downloads, which are drained instead)
+    public record Response(int status, String body) {
+
+        public boolean succeeded() {
+            return status / 100 == 2 && (body == null || body.contains("\"success\":true"));
+        }
+    }
+
+    private final HttpClient http;
+    private final String baseUrl;
+
+    public ApiClient(String baseUrl) {
+        this.baseUrl = baseUrl;
+        this.http = HttpClient.newBuilder()
+            .cookieHandler(new CookieManager(null, CookiePolicy.ACCEPT_ALL))
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+    }
+
+    public Response register(String username, String password, String role) throws IOException, InterruptedException {
+        return postForm("/api/auth/register", Map.of(
+            "username", username, "password", password, "role", role, "recaptchaToken", "loadtest"));
+    }
+
+    public Response login(String username, String password) throws IOException, InterruptedException {
+        return postForm("/api/auth/login", Map.of(
+            "username", username, "password", password, "recaptchaToken", "loadtest"));
+    }
+
+    public Response listDocuments(int limit) throws IOException, InterruptedException {
+        return send(request("/api/documents/my-documents?limit=" + limit).GET().build());
+    }
+
+    public Response verify(long documentId) throws IOException, InterruptedException {
+        return send(request("/api/documents/verify/" + documentId).GET().build());
+    }
+
+    // Reads the whole file but keeps none of it
+    public Response download(long documentId) throws IOException, InterruptedException {
+        HttpResponse<InputStream> response = http.send(
+            request("/api/documents/download/" + documentId).GET().build(),
+            HttpResponse.BodyHandlers.ofInputStream());
+        try (InputStream in = response.body()) {
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+        return new Response(response.statusCode(), null);
+    }
+
+    public Response upload(long studentId, String documentType, String filename, String contentType, byte[] content)
+            throws IOException, InterruptedException {
+        String boundary = "----loadtest" + UUID.randomUUID();
+        List<byte[]> parts = new ArrayList<>();
+        parts.add(formField(boundary, "studentId", String.valueOf(studentId)));
+        parts.add(formField(boundary, "documentType", documentType));
+        parts.add(formField(boundary, "description", "Load test upload"));
+        parts.add(("--" + boundary + "\r\nContent-Disposition: form-data; name=\"file\"; filename=\"" + filename
+            + "\"\r\nContent-Type: " + contentType + "\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+        parts.add(content);
+        parts.add(("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.UTF_8));
+
+        return send(request("/api/documents/upload")
+            .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+            .POST(HttpRequest.BodyPublishers.ofByteArrays(parts))
+            .build());
+    }
+
+    // Document ids in a listing response
+    public static List<Long> documentIds(String listingBody) {
+        List<Long> ids = new ArrayList<>();
+        Matcher matcher = DOCUMENT_ID.matcher(listingBody);
+        while (matcher.find()) {
+            ids.add(Long.parseLong(matcher.group(1)));
+        }
+        return ids;
+    }
+
+    // User id in a register or login response
+    public static long userId(String body) {
+        Matcher matcher = USER_ID.matcher(body);
+        if (!matcher.find()) {
+            throw new IllegalStateException("No userId in response: " + body);
+        }
+        return Long.parseLong(matcher.group(1));
+    }
+
+    private Response postForm(String path, Map<String, String> form) throws IOException, InterruptedException {
+        StringBuilder body = new StringBuilder();
+        for (Map.Entry<String, String> field : form.entrySet()) {
+            if (body.length() > 0) {
+                body.append('&');
+            }
+            body.append(URLEncoder.encode(field.getKey(), StandardCharsets.UTF_8))
+                .append('=')
+                .append(URLEncoder.encode(field.getValue(), StandardCharsets.UTF_8));
+        }
+        return send(request(path)
+            .header("Content-Type", "application/x-www-form-urlencoded")
+            .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+            .build());
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(REQUEST_TIMEOUT);
+    }
+
+    private Response send(HttpRequest request) throws IOException, InterruptedException {
+        HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+        return new Response(response.statusCode(), response.body());
+    }
+
+    private static byte[] formField(String boundary, String name, String value) {
+        return ("--" + boundary + "\r\nContent-Disposition: form-data; name=\"" + name + "\"\r\n\r\n" + value + "\r\n")
+            .getBytes(StandardCharsets.UTF_8);
+    }
+}
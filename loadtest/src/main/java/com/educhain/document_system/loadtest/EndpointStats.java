@@ -0,0 +1,59 @@
+package com.educhain.document_system.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histogram and error count for one endpoint. Recording is lock-free;
+ * reset() discards everything recorded so far (used at the end of warm-up).
+ */
+public class EndpointStats {
+
+    private static final long MAX_TRACKABLE_MICROS = 10L * 60 * 1000 * 1000;
+
+    private final String name;
+    private final Recorder recorder = new Recorder(MAX_TRACKABLE_MICROS, 3);
+    private final LongAdder errors = new LongAdder();
+
+    public EndpointStats(String name) {
+        this.name = name;
+    }
+
+    public void record(long micros, boolean success) {
+        recorder.recordValue(Math.min(micros, MAX_TRACKABLE_MICROS));
+        if (!success) {
+            errors.increment();
+        }
+    }
+
+    public void reset() {
+        recorder.reset();
+        errors.reset();
+    }
+
+    // Snapshot as a report row; measuredSeconds is the length of the measurement window
+    public Map<String, Object> summarize(double measuredSeconds) {
+        Histogram histogram = recorder.getIntervalHistogram();
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("endpoint", name);
+        row.put("requests", histogram.getTotalCount());
+        row.put("errors", errors.sum());
+        row.put("throughputPerSecond", round(histogram.getTotalCount() / measuredSeconds));
+        row.put("p50Ms", millis(histogram.getValueAtPercentile(50)));
+        row.put("p99Ms", millis(histogram.getValueAtPercentile(99)));
+        row.put("p999Ms", millis(histogram.getValueAtPercentile(99.9)));
+        row.put("maxMs", millis(histogram.getMaxValue()));
+        return row;
+    }
+
+    private static double millis(long micros) {
+        return round(micros / 1000.0);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+}
@@ -0,0 +1,168 @@
+package com.educhain.document_system.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.HexFormat;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * In-process stand-ins for Gemini generateContent, reCAPTCHA siteverify and an Ethereum
+ * JSON-RPC node, on one local HTTP server. Each answers after a delay drawn from its
+ * UpstreamProfile and fails with HTTP 500 at the configured rate.
+ */
+public class FakeUpstreams implements AutoCloseable {
+
+    public static final String GEMINI_PATH = "/v1beta/models/fake:generateContent";
+    public static final String SITEVERIFY_PATH = "/recaptcha/api/siteverify";
+    public static final String RPC_PATH = "/rpc";
+
+    // The prompt names the document type the uploader selected
+    private static final Pattern SELECTED_TYPE = Pattern.compile("determine if it is a valid ([^.]+)\\.");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicLong blockNumber = new AtomicLong(1);
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    public FakeUpstreams(UpstreamProfile gemini, UpstreamProfile recaptcha, UpstreamProfile rpc) throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 1024);
+        // Handlers sleep to simulate latency, so every call gets its own thread
+        executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "fake-upstream");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.createContext(GEMINI_PATH, exchange -> handle(exchange, gemini, this::geminiResponse));
+        server.createContext(SITEVERIFY_PATH, exchange -> handle(exchange, recaptcha, body -> siteverifyResponse()));
+        server.createContext(RPC_PATH, exchange -> handle(exchange, rpc, this::rpcResponse));
+        server.start();
+    }
+
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private interface Responder {
+        String respond(String requestBody) throws IOException;
+    }
+
+    private void handle(HttpExchange exchange, UpstreamProfile profile, Responder responder) throws IOException {
+        try (exchange) {
+            String requestBody;
+            try (InputStream in = exchange.getRequestBody()) {
+                requestBody = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            }
+            Thread.sleep(profile.nextDelayMillis());
+
+            int status = 200;
+            String response;
+            if (profile.nextIsError()) {
+                status = 500;
+                response = "{\"error\":{\"code\":500,\"message\":\"Injected failure\"}}";
+            } else {
+                response = responder.respond(requestBody);
+            }
+
+            byte[] bytes = response.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(status, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Always confirms the type the uploader selected, wrapped in a markdown fence like the real model
+    private String geminiResponse(String requestBody) {
+        Matcher matcher = SELECTED_TYPE.matcher(requestBody);
+        String type = matcher.find() ? matcher.group(1) : "Other";
+        String verification = "```json\n{\"documentType\": \"" + type + "\", \"isValid\": true, " +
+            "\"confidence\": 0.93, \"reason\": \"Load test stand-in\"}\n```";
+
+        ObjectNode root = objectMapper.createObjectNode();
+        ObjectNode candidate = root.putArray("candidates").addObject();
+        candidate.putObject("content").putArray("parts").addObject().put("text", verification);
+        candidate.put("finishReason", "STOP");
+        return root.toString();
+    }
+
+    private String siteverifyResponse() {
+        return "{\"success\":true,\"challenge_ts\":\"2024-01-01T00:00:00Z\",\"hostname\":\"localhost\",\"score\":0.9}";
+    }
+
+    // Enough of the Ethereum JSON-RPC surface for web3j clients; supports batches
+    private String rpcResponse(String requestBody) throws IOException {
+        JsonNode request = objectMapper.readTree(requestBody);
+        if (request.isArray()) {
+            ArrayNode responses = objectMapper.createArrayNode();
+            for (JsonNode call : request) {
+                responses.add(rpcCall(call));
+            }
+            return responses.toString();
+        }
+        return rpcCall(request).toString();
+    }
+
+    private ObjectNode rpcCall(JsonNode call) {
+        ObjectNode response = objectMapper.createObjectNode();
+        response.put("jsonrpc", "2.0");
+        response.set("id", call.path("id"));
+
+        String method = call.path("method").asText();
+        switch (method) {
+            case "web3_clientVersion" -> response.put("result", "FakeGanache/loadtest");
+            case "net_version" -> response.put("result", "1337");
+            case "eth_chainId" -> response.put("result", "0x539");
+            case "eth_blockNumber" -> response.put("result", "0x" + Long.toHexString(blockNumber.incrementAndGet()));
+            case "eth_gasPrice" -> response.put("result", "0x4a817c800");
+            case "eth_estimateGas" -> response.put("result", "0x5208");
+            case "eth_getTransactionCount" -> response.put("result", "0x0");
+            case "eth_getBalance" -> response.put("result", "0x56bc75e2d63100000");
+            case "eth_call" -> response.put("result", "0x" + "0".repeat(63) + "1");
+            case "eth_sendTransaction", "eth_sendRawTransaction" -> response.put("result", randomHash());
+            case "eth_getTransactionReceipt" -> {
+                ObjectNode receipt = response.putObject("result");
+                receipt.put("transactionHash", call.path("params").path(0).asText(randomHash()));
+                receipt.put("blockNumber", "0x" + Long.toHexString(blockNumber.get()));
+                receipt.put("status", "0x1");
+                receipt.put("gasUsed", "0x5208");
+                receipt.putArray("logs");
+            }
+            default -> {
+                ObjectNode error = response.putObject("error");
+                error.put("code", -32601);
+                error.put("message", "Method not found: " + method);
+            }
+        }
+        return response;
+    }
+
+    private static String randomHash() {
+        byte[] hash = new byte[32];
+        ThreadLocalRandom.current().nextBytes(hash);
+        return "0x" + HexFormat.of().formatHex(hash);
+    }
+}
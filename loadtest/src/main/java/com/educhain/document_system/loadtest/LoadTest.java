@@ -0,0 +1,229 @@
+package com.educhain.document_system.loadtest;
+
+import ch.vorburger.mariadb4j.DB;
+import ch.vorburger.mariadb4j.DBConfigurationBuilder;
+import com.educhain.document_system.DocumentSystemApplication;
+import com.educhain.document_system.loadtest.LoadTestOptions.Operation;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * End-to-end load test. Starts fake Gemini / siteverify / JSON-RPC upstreams and (unless
+ * --db-url is given) an embedded MariaDB, boots the application against them, seeds users and
+ * documents, then runs a closed-loop mix of login, list, download, verify and upload traffic.
+ * Prints throughput and p50/p99/p999 per endpoint and writes them to --out as JSON.
+ *
+ * Example: java -jar target/loadtest.jar --users=100 --admins=10 --duration=2m --gemini=lognormal:1500:0.7,errors=0.05
+ */
+public class LoadTest {
+
+    private static final String PASSWORD = "loadtest";
+    private static final int SEED_THREADS = 8;
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        Path workDir = Files.createTempDirectory("document-system-loadtest");
+
+        DB database = null;
+        String dbUrl = options.dbUrl;
+        if (dbUrl.isEmpty()) {
+            DBConfigurationBuilder config = DBConfigurationBuilder.newBuilder();
+            config.setPort(0);
+            config.setDataDir(workDir.resolve("mariadb").toString());
+            if ("root".equals(System.getProperty("user.name"))) {
+                // mysqld refuses to run as root unless told to (e.g. in a container)
+                config.addArg("--user=root");
+            }
+            database = DB.newEmbeddedDB(config.build());
+            database.start();
+            // The driver creates the database: createDB() runs the bundled mysql client, which needs
+            // libncurses5 (missing on current distributions), and getURL() is a jdbc:mariadb URL
+            // the application's MySQL driver rejects
+            dbUrl = "jdbc:mysql://localhost:" + database.getConfiguration().getPort()
+                + "/loadtest?useSSL=false&createDatabaseIfNotExist=true";
+        }
+
+        try (FakeUpstreams upstreams = new FakeUpstreams(options.gemini, options.recaptcha, options.rpc)) {
+            System.out.println("Gemini:    " + options.gemini);
+            System.out.println("reCAPTCHA: " + options.recaptcha);
+            System.out.println("RPC:       " + options.rpc);
+
+            ConfigurableApplicationContext app = SpringApplication.run(DocumentSystemApplication.class,
+                applicationArgs(options, dbUrl, upstreams.baseUrl(), workDir));
+            try {
+                int port = ((WebServerApplicationContext) app).getWebServer().getPort();
+                Map<String, Object> report = run(options, "http://127.0.0.1:" + port);
+                new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(new File(options.out), report);
+                System.out.println("Report written to " + options.out);
+            } finally {
+                app.close();
+            }
+        } finally {
+            if (database != null) {
+                database.stop();
+            }
+        }
+    }
+
+    // Command line arguments outrank application.properties
+    private static String[] applicationArgs(LoadTestOptions options, String dbUrl, String upstreams, Path workDir) {
+        return new String[] {
+            "--server.port=0",
+            "--management.server.port=-1",
+            "--spring.datasource.url=" + dbUrl,
+            "--spring.datasource.username=" + options.dbUsername,
+            "--spring.datasource.password=" + options.dbPassword,
+            "--spring.jpa.hibernate.ddl-auto=update",
+            "--file.upload-dir=" + workDir.resolve("uploads") + File.separator,
+            "--search.index-dir=" + workDir.resolve("search-index") + File.separator,
+            "--recaptcha.verify.url=" + upstreams + FakeUpstreams.SITEVERIFY_PATH,
+            "--gemini.api.url=" + upstreams + FakeUpstreams.GEMINI_PATH,
+            "--gemini.api.key=loadtest",
+            "--blockchain.rpc.url=" + upstreams + FakeUpstreams.RPC_PATH,
+            "--extraction.ocr.command=",
+            "--app.execution-mode=" + options.executionMode,
+            // The client talks plain HTTP
+            "--server.servlet.session.cookie.secure=false",
+            "--logging.level.root=WARN",
+            "--logging.level.com.educhain=WARN"
+        };
+    }
+
+    private static Map<String, Object> run(LoadTestOptions options, String baseUrl) throws Exception {
+        String runId = Long.toString(System.currentTimeMillis(), 36);
+
+        // Users: the first `admins` virtual users are admins, the rest students
+        ApiClient setup = new ApiClient(baseUrl);
+        List<String> usernames = new ArrayList<>();
+        List<Long> studentIds = new ArrayList<>();
+        for (int i = 0; i < options.users; i++) {
+            boolean admin = i < options.admins;
+            String username = (admin ? "admin-" : "student-") + runId + "-" + i;
+            ApiClient.Response response = setup.register(username, PASSWORD, admin ? "ADMIN" : "STUDENT");
+            if (!response.succeeded()) {
+                throw new IllegalStateException("Registering " + username + " failed: " + response.body());
+            }
+            usernames.add(username);
+            if (!admin) {
+                studentIds.add(ApiClient.userId(response.body()));
+            }
+        }
+        if (studentIds.isEmpty()) {
+            throw new IllegalArgumentException("--users must be larger than --admins");
+        }
+
+        seedDocuments(options, baseUrl, usernames.get(0), studentIds);
+
+        Map<Operation, EndpointStats> stats = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new EndpointStats(operation.name().toLowerCase()));
+        }
+
+        long warmupEnd = System.nanoTime() + options.warmup.toNanos();
+        long end = warmupEnd + options.duration.toNanos();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < options.users; i++) {
+            VirtualUser user = new VirtualUser(baseUrl, usernames.get(i), PASSWORD, i < options.admins, studentIds,
+                options, stats, () -> System.nanoTime() < end);
+            Thread thread = new Thread(user, "virtual-user-" + i);
+            threads.add(thread);
+            thread.start();
+        }
+
+        System.out.printf("Warming up for %ds with %d users...%n", options.warmup.toSeconds(), options.users);
+        sleepUntil(warmupEnd);
+        stats.values().forEach(EndpointStats::reset);
+        long measureStart = System.nanoTime();
+        System.out.printf("Measuring for %ds...%n", options.duration.toSeconds());
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        double measuredSeconds = (System.nanoTime() - measureStart) / 1e9;
+
+        List<Map<String, Object>> endpoints = new ArrayList<>();
+        for (EndpointStats endpoint : stats.values()) {
+            endpoints.add(endpoint.summarize(measuredSeconds));
+        }
+        printTable(endpoints);
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("executionMode", options.executionMode);
+        report.put("javaVersion", Runtime.version().toString());
+        report.put("users", options.users);
+        report.put("admins", options.admins);
+        report.put("measuredSeconds", Math.round(measuredSeconds * 10) / 10.0);
+        report.put("mix", options.mix);
+        report.put("uploadSizeBytes", options.uploadSize);
+        report.put("gemini", options.gemini.toString());
+        report.put("recaptcha", options.recaptcha.toString());
+        report.put("rpc", options.rpc.toString());
+        report.put("endpoints", endpoints);
+        return report;
+    }
+
+    // Pre-load documents so listings, downloads and verifications have something to work on
+    private static void seedDocuments(LoadTestOptions options, String baseUrl, String admin, List<Long> studentIds)
+            throws Exception {
+        if (options.seedDocuments <= 0) {
+            return;
+        }
+        System.out.printf("Seeding %d documents...%n", options.seedDocuments);
+        ExecutorService pool = Executors.newFixedThreadPool(SEED_THREADS);
+        try {
+            List<Future<?>> uploads = new ArrayList<>();
+            for (int t = 0; t < SEED_THREADS; t++) {
+                int thread = t;
+                uploads.add(pool.submit(() -> {
+                    ApiClient client = new ApiClient(baseUrl);
+                    if (!client.login(admin, PASSWORD).succeeded()) {
+                        throw new IllegalStateException("Seeding login failed");
+                    }
+                    byte[] content = new byte[options.uploadSize];
+                    for (int i = thread; i < options.seedDocuments; i += SEED_THREADS) {
+                        ThreadLocalRandom.current().nextBytes(content);
+                        long studentId = studentIds.get(i % studentIds.size());
+                        client.upload(studentId, "General", "seed-" + i + ".png", "image/png", content);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> upload : uploads) {
+                upload.get();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static void printTable(List<Map<String, Object>> endpoints) {
+        System.out.printf("%n%-10s %10s %8s %10s %10s %10s %10s %10s%n",
+            "endpoint", "requests", "errors", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms");
+        for (Map<String, Object> row : endpoints) {
+            System.out.printf("%-10s %10d %8d %10.1f %10.1f %10.1f %10.1f %10.1f%n",
+                row.get("endpoint"), row.get("requests"), row.get("errors"), row.get("throughputPerSecond"),
+                row.get("p50Ms"), row.get("p99Ms"), row.get("p999Ms"), row.get("maxMs"));
+        }
+    }
+
+    private static void sleepUntil(long nanoTime) throws InterruptedException {
+        long remaining;
+        while ((remaining = nanoTime - System.nanoTime()) > 0) {
+            Thread.sleep(Math.max(1, remaining / 1_000_000));
+        }
+    }
+}
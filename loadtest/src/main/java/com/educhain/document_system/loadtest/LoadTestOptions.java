@@ -0,0 +1,105 @@
+package com.educhain.document_system.loadtest;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Command line options, all in --name=value form. Durations accept ms, s and m suffixes.
+ */
+public class LoadTestOptions {
+
+    // Operations a virtual user can perform
+    public enum Operation {
+        LOGIN, LIST, DOWNLOAD, VERIFY, UPLOAD
+    }
+
+    int users = 50;
+    int admins = 5;
+    Duration duration = Duration.ofSeconds(60);
+    Duration warmup = Duration.ofSeconds(10);
+    Duration thinkTime = Duration.ZERO;
+    Map<Operation, Integer> mix = parseMix("login:5,list:45,download:20,verify:20,upload:10");
+    int uploadSize = 256 * 1024;
+    double geminiShare = 0.5;
+    int seedDocuments = 200;
+
+    UpstreamProfile gemini = UpstreamProfile.parse("lognormal:800:0.5,errors=0.01");
+    UpstreamProfile recaptcha = UpstreamProfile.parse("lognormal:120:0.4");
+    UpstreamProfile rpc = UpstreamProfile.parse("lognormal:40:0.5");
+
+    // Empty = start an embedded MariaDB
+    String dbUrl = "";
+    String dbUsername = "root";
+    String dbPassword = "";
+
+    // platform or virtual, passed to the application as app.execution-mode
+    String executionMode = "platform";
+
+    String out = "loadtest-report.json";
+
+    public static LoadTestOptions parse(String[] args) {
+        LoadTestOptions options = new LoadTestOptions();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got " + arg);
+            }
+            String name = arg.substring(2, arg.indexOf('='));
+            String value = arg.substring(arg.indexOf('=') + 1);
+            switch (name) {
+                case "users" -> options.users = Integer.parseInt(value);
+                case "admins" -> options.admins = Integer.parseInt(value);
+                case "duration" -> options.duration = parseDuration(value);
+                case "warmup" -> options.warmup = parseDuration(value);
+                case "think" -> options.thinkTime = parseDuration(value);
+                case "mix" -> options.mix = parseMix(value);
+                case "upload-size" -> options.uploadSize = Integer.parseInt(value);
+                case "gemini-share" -> options.geminiShare = Double.parseDouble(value);
+                case "seed-documents" -> options.seedDocuments = Integer.parseInt(value);
+                case "gemini" -> options.gemini = UpstreamProfile.parse(value);
+                case "recaptcha" -> options.recaptcha = UpstreamProfile.parse(value);
+                case "rpc" -> options.rpc = UpstreamProfile.parse(value);
+                case "db-url" -> options.dbUrl = value;
+                case "db-username" -> options.dbUsername = value;
+                case "db-password" -> options.dbPassword = value;
+                case "execution-mode" -> options.executionMode = value;
+                case "out" -> options.out = value;
+                default -> throw new IllegalArgumentException("Unknown option --" + name);
+            }
+        }
+        if (options.admins < 1 || options.admins > options.users) {
+            throw new IllegalArgumentException("--admins must be between 1 and --users");
+        }
+        if (options.uploadSize < Long.BYTES) {
+            // Each upload is made unique by an 8-byte counter at its start
+            throw new IllegalArgumentException("--upload-size must be at least " + Long.BYTES);
+        }
+        if (!options.executionMode.equals("platform") && !options.executionMode.equals("virtual")) {
+            throw new IllegalArgumentException("--execution-mode must be platform or virtual");
+        }
+        return options;
+    }
+
+    static Duration parseDuration(String value) {
+        if (value.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+        }
+        if (value.endsWith("s")) {
+            return Duration.ofSeconds(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        if (value.endsWith("m")) {
+            return Duration.ofMinutes(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        return Duration.ofSeconds(Long.parseLong(value));
+    }
+
+    // "list:45,upload:10,..." as relative weights
+    static Map<Operation, Integer> parseMix(String value) {
+        Map<Operation, Integer> mix = new LinkedHashMap<>();
+        for (String entry : value.split(",")) {
+            String[] parts = entry.trim().split(":");
+            mix.put(Operation.valueOf(parts[0].toUpperCase()), Integer.parseInt(parts[1]));
+        }
+        return mix;
+    }
+}
@@ -0,0 +1,99 @@
+package com.educhain.document_system.loadtest;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Latency and failure behaviour of one fake upstream, parsed from a spec such as
+ * "lognormal:800:0.5,errors=0.02,stalls=0.001".
+ *
+ * Latency: fixed:MS | uniform:MIN_MS:MAX_MS | lognormal:MEDIAN_MS:SIGMA.
+ * errors = share of calls answered with HTTP 500, stalls = share held for stallMs (default 30000)
+ * before answering, to exercise client timeouts.
+ */
+public final class UpstreamProfile {
+
+    private enum Distribution {
+        FIXED, UNIFORM, LOGNORMAL
+    }
+
+    private final Distribution distribution;
+    private final double first;
+    private final double second;
+    private final double errorRate;
+    private final double stallRate;
+    private final long stallMillis;
+
+    private UpstreamProfile(Distribution distribution, double first, double second,
+                            double errorRate, double stallRate, long stallMillis) {
+        this.distribution = distribution;
+        this.first = first;
+        this.second = second;
+        this.errorRate = errorRate;
+        this.stallRate = stallRate;
+        this.stallMillis = stallMillis;
+    }
+
+    public static UpstreamProfile parse(String spec) {
+        String[] parts = spec.split(",");
+        String[] latency = parts[0].trim().split(":");
+
+        Distribution distribution;
+        double first;
+        double second = 0;
+        try {
+            distribution = Distribution.valueOf(latency[0].toUpperCase());
+            first = Double.parseDouble(latency[1]);
+            if (distribution != Distribution.FIXED) {
+                second = Double.parseDouble(latency[2]);
+            }
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Invalid latency spec: " + parts[0]);
+        }
+
+        double errorRate = 0;
+        double stallRate = 0;
+        long stallMillis = 30000;
+        for (int i = 1; i < parts.length; i++) {
+            String[] option = parts[i].trim().split("=", 2);
+            if (option.length != 2) {
+                throw new IllegalArgumentException("Invalid upstream option: " + parts[i]);
+            }
+            switch (option[0]) {
+                case "errors" -> errorRate = Double.parseDouble(option[1]);
+                case "stalls" -> stallRate = Double.parseDouble(option[1]);
+                case "stallMs" -> stallMillis = Long.parseLong(option[1]);
+                default -> throw new IllegalArgumentException("Unknown upstream option: " + option[0]);
+            }
+        }
+        return new UpstreamProfile(distribution, first, second, errorRate, stallRate, stallMillis);
+    }
+
+    // Delay before answering this call
+    public long nextDelayMillis() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (stallRate > 0 && random.nextDouble() < stallRate) {
+            return stallMillis;
+        }
+        double delay = switch (distribution) {
+            case FIXED -> first;
+            case UNIFORM -> first + random.nextDouble() * (second - first);
+            case LOGNORMAL -> first * Math.exp(second * random.nextGaussian());
+        };
+        return Math.max(0, Math.round(delay));
+    }
+
+    // Whether this call should fail
+    public boolean nextIsError() {
+        return errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate;
+    }
+
+    @Override
+    public String toString() {
+        String latency = switch (distribution) {
+            case FIXED -> "fixed " + first + "ms";
+            case UNIFORM -> "uniform " + first + "-" + second + "ms";
+            case LOGNORMAL -> "lognormal median " + first + "ms sigma " + second;
+        };
+        return latency + ", errors " + errorRate + ", stalls " + stallRate;
+    }
+}
@@ -0,0 +1,136 @@
+package com.educhain.document_system.loadtest;
+
+import com.educhain.document_system.loadtest.LoadTestOptions.Operation;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.BooleanSupplier;
+
+/**
+ * One simulated user in a closed loop: pick an operation from the mix, run it, record its
+ * latency, think, repeat. Admins also upload; students only see their own documents.
+ */
+public class VirtualUser implements Runnable {
+
+    private static final int LIST_LIMIT = 50;
+
+    private final ApiClient client;
+    private final String username;
+    private final String password;
+    private final boolean admin;
+    private final List<Long> studentIds;
+    private final LoadTestOptions options;
+    private final Map<Operation, EndpointStats> stats;
+    private final BooleanSupplier running;
+    private final Operation[] weightedOperations;
+    private final byte[] uploadContent;
+    private long uploads;
+
+    // Documents this user has seen in its listings
+    private List<Long> knownDocuments = new ArrayList<>();
+
+    public VirtualUser(String baseUrl, String username, String password, boolean admin, List<Long> studentIds,
+                       LoadTestOptions options, Map<Operation, EndpointStats> stats, BooleanSupplier running) {
+        this.client = new ApiClient(baseUrl);
+        this.username = username;
+        this.password = password;
+        this.admin = admin;
+        this.studentIds = studentIds;
+        this.options = options;
+        this.stats = stats;
+        this.running = running;
+        this.weightedOperations = weightedOperations(options.mix, admin);
+        this.uploadContent = new byte[options.uploadSize];
+        ThreadLocalRandom.current().nextBytes(uploadContent);
+    }
+
+    @Override
+    public void run() {
+        timed(Operation.LOGIN);
+        timed(Operation.LIST);
+        while (running.getAsBoolean()) {
+            Operation operation = weightedOperations[ThreadLocalRandom.current().nextInt(weightedOperations.length)];
+            if ((operation == Operation.DOWNLOAD || operation == Operation.VERIFY) && knownDocuments.isEmpty()) {
+                operation = Operation.LIST;
+            }
+            timed(operation);
+            think();
+        }
+    }
+
+    private void timed(Operation operation) {
+        long start = System.nanoTime();
+        boolean success;
+        try {
+            success = execute(operation);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } catch (Exception e) {
+            success = false;
+        }
+        stats.get(operation).record((System.nanoTime() - start) / 1000, success);
+    }
+
+    private boolean execute(Operation operation) throws Exception {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        switch (operation) {
+            case LOGIN:
+                return client.login(username, password).succeeded();
+            case LIST: {
+                ApiClient.Response response = client.listDocuments(LIST_LIMIT);
+                if (response.succeeded()) {
+                    knownDocuments = ApiClient.documentIds(response.body());
+                }
+                return response.succeeded();
+            }
+            case DOWNLOAD:
+                return client.download(knownDocuments.get(random.nextInt(knownDocuments.size()))).succeeded();
+            case VERIFY:
+                return client.verify(knownDocuments.get(random.nextInt(knownDocuments.size()))).succeeded();
+            case UPLOAD: {
+                long studentId = studentIds.get(random.nextInt(studentIds.size()));
+                // Non-General uploads go through Gemini verification
+                String documentType = random.nextDouble() < options.geminiShare ? "Transcript" : "General";
+                // File hashes are unique, so each upload needs different bytes
+                ByteBuffer.wrap(uploadContent).putLong(0, ++uploads);
+                return client.upload(studentId, documentType, "loadtest.png", "image/png", uploadContent).succeeded();
+            }
+            default:
+                throw new IllegalArgumentException("Unknown operation " + operation);
+        }
+    }
+
+    private void think() {
+        long millis = options.thinkTime.toMillis();
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            // Exponential think time around the configured mean
+            Thread.sleep((long) (-millis * Math.log(1 - ThreadLocalRandom.current().nextDouble())));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static Operation[] weightedOperations(Map<Operation, Integer> mix, boolean admin) {
+        List<Operation> operations = new ArrayList<>();
+        Map<Operation, Integer> weights = new EnumMap<>(mix);
+        if (!admin) {
+            weights.remove(Operation.UPLOAD);
+        }
+        for (Map.Entry<Operation, Integer> weight : weights.entrySet()) {
+            for (int i = 0; i < weight.getValue(); i++) {
+                operations.add(weight.getKey());
+            }
+        }
+        if (operations.isEmpty()) {
+            operations.add(Operation.LIST);
+        }
+        return operations.toArray(new Operation[0]);
+    }
+}
@@ -3,13 +3,18 @@ package com.educhain.document_system;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 @SpringBootApplication
+@EnableScheduling
 public class DocumentSystemApplication {
 
+    private static final Logger log = LoggerFactory.getLogger(DocumentSystemApplication.class);
+
     public static void main(String[] args) {
         SpringApplication.run(DocumentSystemApplication.class, args);
-        System.out.println("EduChain Document System Started Successfully!");
-        System.out.println("Access at: http://localhost:8080");
+        log.info("EduChain Document System started");
     }
 }
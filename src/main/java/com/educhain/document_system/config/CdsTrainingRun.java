@@ -0,0 +1,28 @@
+package com.educhain.document_system.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Training run for the class-data sharing archive built into the Docker image: with
+ * app.cds-training=true the application exits as soon as the context has started, so the
+ * JVM (-XX:ArchiveClassesAtExit) records every class loaded during startup. Startup-time
+ * listeners that need the database (ApplicationReadyEvent) never run.
+ */
+@Component
+@ConditionalOnProperty(name = "app.cds-training", havingValue = "true")
+public class CdsTrainingRun implements ApplicationListener<ApplicationStartedEvent> {
+
+    private static final Logger log = LoggerFactory.getLogger(CdsTrainingRun.class);
+
+    @Override
+    public void onApplicationEvent(ApplicationStartedEvent event) {
+        log.info("CDS training run complete after {} ms, exiting", event.getTimeTaken().toMillis());
+        System.exit(SpringApplication.exit(event.getApplicationContext()));
+    }
+}
@@ -0,0 +1,36 @@
+package com.educhain.document_system.config;
+
+import org.apache.coyote.ProtocolHandler;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+
+/**
+ * app.execution-mode=virtual (Java 21+): Tomcat handles each request on its own virtual
+ * thread, and streamed responses are written from virtual threads too, so requests blocked on
+ * disk, JDBC, Gemini, reCAPTCHA or the RPC node no longer hold a platform thread. Concurrency
+ * towards each upstream is bounded by UpstreamLimiter instead of the Tomcat pool size.
+ * The default, platform, keeps Tomcat's thread pool.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.execution-mode", havingValue = "virtual")
+public class ExecutionModeConfig {
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadRequestExecutor() {
+        return protocolHandler -> protocolHandler.setExecutor(VirtualThreads.newPerTaskExecutor("http-virtual-"));
+    }
+
+    // Replaces Boot's pooled applicationTaskExecutor, which MVC uses for async request processing
+    @Bean(name = TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+    public AsyncTaskExecutor applicationTaskExecutor(TaskDecorator taskDecorator) {
+        TaskExecutorAdapter executor = new TaskExecutorAdapter(VirtualThreads.newPerTaskExecutor("task-virtual-"));
+        executor.setTaskDecorator(taskDecorator);
+        return executor;
+    }
+}
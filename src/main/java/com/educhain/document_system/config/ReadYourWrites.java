@@ -0,0 +1,35 @@
+package com.educhain.document_system.config;
+
+/**
+ * Per-thread read-your-writes state for replica routing: whether this thread must read from
+ * the primary, and whether it has written to the primary during the current request.
+ */
+public final class ReadYourWrites {
+
+    private static final ThreadLocal<Boolean> PRIMARY_FORCED = ThreadLocal.withInitial(() -> false);
+    private static final ThreadLocal<Boolean> WROTE = ThreadLocal.withInitial(() -> false);
+
+    private ReadYourWrites() {
+    }
+
+    public static boolean isPrimaryForced() {
+        return PRIMARY_FORCED.get();
+    }
+
+    public static void setPrimaryForced(boolean forced) {
+        PRIMARY_FORCED.set(forced);
+    }
+
+    public static boolean hasWritten() {
+        return WROTE.get();
+    }
+
+    public static void markWrite() {
+        WROTE.set(true);
+    }
+
+    public static void clear() {
+        PRIMARY_FORCED.remove();
+        WROTE.remove();
+    }
+}
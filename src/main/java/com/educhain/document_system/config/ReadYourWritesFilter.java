@@ -0,0 +1,64 @@
+package com.educhain.document_system.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.web.filter.OncePerRequestFilter;
+import java.io.IOException;
+
+/**
+ * Read-your-writes for replica routing: once a session has written to the primary (upload,
+ * delete, ...), its reads stay on the primary until the replica has had time to catch up -
+ * the configured window, or the replica's current lag if that is longer.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    static final String LAST_WRITE_ATTRIBUTE = "replica.lastWriteAt";
+
+    private final ReplicaLagMonitor lagMonitor;
+    private final long windowMillis;
+
+    public ReadYourWritesFilter(ReplicaLagMonitor lagMonitor, long windowMillis) {
+        this.lagMonitor = lagMonitor;
+        this.windowMillis = windowMillis;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        HttpSession session = request.getSession(false);
+        ReadYourWrites.setPrimaryForced(session != null && wroteRecently(session));
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            if (ReadYourWrites.hasWritten()) {
+                // Login creates the session during the request
+                HttpSession current = request.getSession(false);
+                if (current != null) {
+                    try {
+                        current.setAttribute(LAST_WRITE_ATTRIBUTE, System.currentTimeMillis());
+                    } catch (IllegalStateException e) {
+                        // Session invalidated by this request (logout)
+                    }
+                }
+            }
+            ReadYourWrites.clear();
+        }
+    }
+
+    private boolean wroteRecently(HttpSession session) {
+        Object lastWrite;
+        try {
+            lastWrite = session.getAttribute(LAST_WRITE_ATTRIBUTE);
+        } catch (IllegalStateException e) {
+            return false;
+        }
+        if (!(lastWrite instanceof Long)) {
+            return false;
+        }
+        long window = Math.max(windowMillis, lagMonitor.getLagSeconds() * 1000 + 1000);
+        return System.currentTimeMillis() - (Long) lastWrite < window;
+    }
+}
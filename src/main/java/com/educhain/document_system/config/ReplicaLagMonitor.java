@@ -0,0 +1,81 @@
+package com.educhain.document_system.config;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Polls the replica's replication status. The replica is only used while it is reachable,
+ * replicating, and no more than maxLagSeconds behind the primary.
+ */
+public class ReplicaLagMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    private final DataSource replicaDataSource;
+    private final long maxLagSeconds;
+    private final boolean lagCheckEnabled;
+
+    // Unused until the first check has passed
+    private volatile boolean replicaUsable = false;
+    private volatile long lagSeconds = -1;
+
+    public ReplicaLagMonitor(DataSource replicaDataSource, long maxLagSeconds, boolean lagCheckEnabled) {
+        this.replicaDataSource = replicaDataSource;
+        this.maxLagSeconds = maxLagSeconds;
+        this.lagCheckEnabled = lagCheckEnabled;
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replica.lag-check-interval-ms:5000}")
+    public void checkLag() {
+        try (Connection connection = replicaDataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            if (!lagCheckEnabled) {
+                // Reachability only (e.g. two independent local instances)
+                statement.execute("SELECT 1");
+                lagSeconds = 0;
+                replicaUsable = true;
+                return;
+            }
+            try (ResultSet status = statement.executeQuery("SHOW REPLICA STATUS")) {
+                if (!status.next()) {
+                    // Not configured as a replica
+                    markUnusable(-1);
+                    return;
+                }
+                Object lag = status.getObject("Seconds_Behind_Source");
+                if (lag == null) {
+                    // Replication threads stopped
+                    markUnusable(-1);
+                    return;
+                }
+                lagSeconds = ((Number) lag).longValue();
+                replicaUsable = lagSeconds <= maxLagSeconds;
+            }
+        } catch (SQLException e) {
+            if (replicaUsable) {
+                log.warn("Replica unavailable, routing reads to primary: {}", e.getMessage());
+            }
+            markUnusable(-1);
+        }
+    }
+
+    public boolean isReplicaUsable() {
+        return replicaUsable;
+    }
+
+    // Last observed lag in seconds, -1 when unknown
+    public long getLagSeconds() {
+        return lagSeconds;
+    }
+
+    private void markUnusable(long lag) {
+        lagSeconds = lag;
+        replicaUsable = false;
+    }
+}
@@ -0,0 +1,36 @@
+package com.educhain.document_system.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Sends read-only transactions to the replica while it is healthy and the current session
+ * has not written recently; everything else goes to the primary. Must sit behind a
+ * LazyConnectionDataSourceProxy so the lookup happens after the transaction is set up.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public static final String PRIMARY = "primary";
+    public static final String REPLICA = "replica";
+
+    private final ReplicaLagMonitor lagMonitor;
+
+    public ReplicaRoutingDataSource(ReplicaLagMonitor lagMonitor) {
+        this.lagMonitor = lagMonitor;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        boolean readOnly = TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+        if (!readOnly) {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                ReadYourWrites.markWrite();
+            }
+            return PRIMARY;
+        }
+        if (ReadYourWrites.isPrimaryForced() || !lagMonitor.isReplicaUsable()) {
+            return PRIMARY;
+        }
+        return REPLICA;
+    }
+}
@@ -0,0 +1,47 @@
+package com.educhain.document_system.config;
+
+import com.educhain.document_system.service.FlightRecorderService;
+import com.educhain.document_system.service.RequestTrace;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import java.io.IOException;
+
+/**
+ * Times every API request and collects its external calls and disk operations; requests over
+ * the threshold are handed to the FlightRecorderService. Streamed responses (exports) are
+ * expected to be long and are not reported.
+ */
+@Component
+public class SlowRequestFilter extends OncePerRequestFilter {
+
+    @Autowired
+    private FlightRecorderService flightRecorderService;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long start = System.nanoTime();
+        RequestTrace.start();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            long duration = System.nanoTime() - start;
+            if (request.isAsyncStarted()) {
+                RequestTrace.stop();
+            } else {
+                flightRecorderService.requestFinished(request.getMethod(), request.getRequestURI(),
+                    response.getStatus(), duration, RequestTrace.stop());
+            }
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package com.educhain.document_system.config;
+
+import com.educhain.document_system.service.StorageVolumes;
+import com.educhain.document_system.service.UpstreamLimiter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.filter.OncePerRequestFilter;
+import java.io.IOException;
+import java.nio.file.FileStore;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Admission control for uploads. Before the multipart body is read, an upload must fit within
+ * the in-flight byte budget, leave enough free disk (for the multipart temp file and the stored
+ * copy) and find the Gemini, database and blockchain queues below their limits; otherwise it
+ * gets 503 with Retry-After. Tomcat closes the connection after a 503 instead of draining the
+ * body, and clients sending Expect: 100-continue never send it at all.
+ */
+@Component
+public class UploadAdmissionFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(UploadAdmissionFilter.class);
+
+    private static final String UPLOAD_PATH = "/api/documents/upload";
+
+    @Autowired
+    private UpstreamLimiter upstreamLimiter;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private StorageVolumes storageVolumes;
+
+    @Value("${spring.servlet.multipart.location:}")
+    private String multipartLocation;
+
+    // Uploads without Content-Length are assumed to be this large
+    @Value("${spring.servlet.multipart.max-request-size:50MB}")
+    private DataSize maxRequestSize;
+
+    @Value("${upload.admission.max-in-flight-bytes:512MB}")
+    private DataSize maxInFlightBytes;
+
+    @Value("${upload.admission.min-free-disk:1GB}")
+    private DataSize minFreeDisk;
+
+    @Value("${upload.admission.max-gemini-queue:32}")
+    private int maxGeminiQueue;
+
+    @Value("${upload.admission.max-blockchain-queue:32}")
+    private int maxBlockchainQueue;
+
+    @Value("${upload.admission.max-db-pending:10}")
+    private int maxDbPending;
+
+    @Value("${upload.admission.retry-after-seconds:10}")
+    private int retryAfterSeconds;
+
+    private final AtomicLong inFlightBytes = new AtomicLong();
+    private final MeterRegistry meterRegistry;
+
+    public UploadAdmissionFilter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("upload.admission.in_flight_bytes", inFlightBytes, AtomicLong::get)
+            .description("Bytes of admitted uploads that are still being processed")
+            .baseUnit("bytes")
+            .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"POST".equals(request.getMethod()) || !UPLOAD_PATH.equals(request.getRequestURI());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long contentLength = request.getContentLengthLong();
+        long size = contentLength >= 0 ? contentLength : maxRequestSize.toBytes();
+
+        String rejection = checkDownstream();
+        if (rejection == null && !reserve(size)) {
+            rejection = "in_flight_bytes";
+        }
+        if (rejection != null) {
+            reject(response, rejection);
+            return;
+        }
+
+        try {
+            String diskRejection = checkDisk(size);
+            if (diskRejection != null) {
+                reject(response, diskRejection);
+                return;
+            }
+            chain.doFilter(request, response);
+        } finally {
+            inFlightBytes.addAndGet(-size);
+        }
+    }
+
+    // Current admission state, for the admin dashboard
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("inFlightBytes", inFlightBytes.get());
+        status.put("maxInFlightBytes", maxInFlightBytes.toBytes());
+        status.put("geminiQueue", upstreamLimiter.getQueueLength(UpstreamLimiter.Upstream.GEMINI));
+        status.put("blockchainQueue", upstreamLimiter.getQueueLength(UpstreamLimiter.Upstream.BLOCKCHAIN));
+        status.put("dbPending", primaryPoolPending());
+        return status;
+    }
+
+    private String checkDownstream() {
+        if (upstreamLimiter.getQueueLength(UpstreamLimiter.Upstream.GEMINI) >= maxGeminiQueue) {
+            return "gemini_queue";
+        }
+        if (upstreamLimiter.getQueueLength(UpstreamLimiter.Upstream.BLOCKCHAIN) >= maxBlockchainQueue) {
+            return "blockchain_queue";
+        }
+        if (primaryPoolPending() >= maxDbPending) {
+            return "db_pending";
+        }
+        return null;
+    }
+
+    // Claim part of the in-flight budget; a single upload larger than the budget is still let through alone
+    private boolean reserve(long size) {
+        long limit = maxInFlightBytes.toBytes();
+        while (true) {
+            long current = inFlightBytes.get();
+            if (current > 0 && current + size > limit) {
+                return false;
+            }
+            if (inFlightBytes.compareAndSet(current, current + size)) {
+                return true;
+            }
+        }
+    }
+
+    // Every admitted upload may still need its full size on each volume it is written to
+    private String checkDisk(long size) {
+        try {
+            Set<FileStore> stores = new LinkedHashSet<>();
+            for (StorageVolumes.Volume volume : storageVolumes.getVolumes()) {
+                stores.add(fileStore(volume.documents()));
+                stores.add(fileStore(volume.chunks()));
+            }
+            stores.add(fileStore(Paths.get(multipartLocation.isEmpty()
+                ? System.getProperty("java.io.tmpdir") : multipartLocation)));
+            long needed = inFlightBytes.get() + minFreeDisk.toBytes();
+            for (FileStore store : stores) {
+                if (store.getUsableSpace() < needed) {
+                    return "disk_space";
+                }
+            }
+            return null;
+        } catch (IOException e) {
+            log.warn("Could not check free disk space for uploads: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    // The nearest existing ancestor's file store (the upload directory is created on first upload)
+    private FileStore fileStore(Path path) throws IOException {
+        Path existing = path.toAbsolutePath();
+        while (existing != null && !Files.exists(existing)) {
+            existing = existing.getParent();
+        }
+        return Files.getFileStore(existing != null ? existing : path.toAbsolutePath().getRoot());
+    }
+
+    // Threads waiting for a connection to the primary (writes never use the replica pool)
+    private double primaryPoolPending() {
+        return meterRegistry.find("hikaricp.connections.pending").gauges().stream()
+            .filter(gauge -> !"replica".equals(gauge.getId().getTag("pool")))
+            .mapToDouble(Gauge::value)
+            .max()
+            .orElse(0);
+    }
+
+    private void reject(HttpServletResponse response, String reason) throws IOException {
+        meterRegistry.counter("upload.admission.rejected", "reason", reason).increment();
+        log.info("Upload rejected by admission control: {}", reason);
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("success", false);
+        body.put("message", "The server is busy, please retry the upload in a few seconds");
+        body.put("reason", reason);
+
+        response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), body);
+    }
+}
@@ -1,15 +1,34 @@
 package com.educhain.document_system.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 import org.springframework.web.filter.CorsFilter;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import java.util.List;
 
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
     
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    // CBOR and Smile for clients that ask for them in Accept; added after JSON so JSON stays the default
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(new MappingJackson2CborHttpMessageConverter(objectMapper.copyWith(new CBORFactory())));
+        converters.add(new MappingJackson2SmileHttpMessageConverter(objectMapper.copyWith(new SmileFactory())));
+    }
+    
     @Bean
     public CorsFilter corsFilter() {
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
@@ -26,4 +45,20 @@ public class WebConfig implements WebMvcConfigurer {
         source.registerCorsConfiguration("/**", config);
         return new CorsFilter(source);
     }
+    
+    // Carry the read-your-writes decision into async work (streamed responses run on the task executor)
+    @Bean
+    public TaskDecorator readYourWritesTaskDecorator() {
+        return task -> {
+            boolean primaryForced = ReadYourWrites.isPrimaryForced() || ReadYourWrites.hasWritten();
+            return () -> {
+                ReadYourWrites.setPrimaryForced(primaryForced);
+                try {
+                    task.run();
+                } finally {
+                    ReadYourWrites.clear();
+                }
+            };
+        };
+    }
 }
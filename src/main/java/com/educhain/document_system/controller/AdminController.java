@@ -0,0 +1,176 @@
+package com.educhain.document_system.controller;
+
+
+import com.educhain.document_system.config.UploadAdmissionFilter;
+import com.educhain.document_system.model.User;
+import com.educhain.document_system.service.CacheStatisticsService;
+import com.educhain.document_system.service.FlightRecorderService;
+import com.educhain.document_system.service.StorageRebalancer;
+import com.educhain.document_system.service.StorageReconciliationService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import jakarta.servlet.http.HttpSession;
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin")
+public class AdminController {
+
+    @Autowired
+    private CacheStatisticsService cacheStatisticsService;
+
+    @Autowired
+    private FlightRecorderService flightRecorderService;
+
+    @Autowired
+    private UploadAdmissionFilter uploadAdmissionFilter;
+
+    @Autowired
+    private StorageReconciliationService storageReconciliationService;
+
+    @Autowired
+    private StorageRebalancer storageRebalancer;
+
+    // Second-level and query cache hit ratios (Admin only)
+    @GetMapping("/cache-stats")
+    public ResponseEntity<Map<String, Object>> getCacheStats(HttpSession session) {
+        Map<String, Object> response = new HashMap<>();
+
+        try {
+            if (!isAdmin(session)) {
+                response.put("success", false);
+                response.put("message", "Access denied");
+                return ResponseEntity.ok(response);
+            }
+
+            response.put("success", true);
+            response.put("cache", cacheStatisticsService.getCacheStatistics());
+
+        } catch (Exception e) {
+            response.put("success", false);
+            response.put("message", "Failed to load cache statistics: " + e.getMessage());
+        }
+
+        return ResponseEntity.ok(response);
+    }
+
+    // Recent requests over the slow-request threshold, with their time breakdown (Admin only)
+    @GetMapping("/slow-requests")
+    public ResponseEntity<Map<String, Object>> getSlowRequests(HttpSession session) {
+        Map<String, Object> response = new HashMap<>();
+
+        if (!isAdmin(session)) {
+            response.put("success", false);
+            response.put("message", "Access denied");
+            return ResponseEntity.ok(response);
+        }
+
+        response.put("success", true);
+        response.put("thresholdMs", flightRecorderService.getSlowRequestThresholdMs());
+        response.put("requests", flightRecorderService.getRecentSlowRequests());
+        return ResponseEntity.ok(response);
+    }
+
+    // In-flight upload bytes and downstream queue depths used for upload admission (Admin only)
+    @GetMapping("/upload-admission")
+    public ResponseEntity<Map<String, Object>> getUploadAdmission(HttpSession session) {
+        Map<String, Object> response = new HashMap<>();
+
+        if (!isAdmin(session)) {
+            response.put("success", false);
+            response.put("message", "Access denied");
+            return ResponseEntity.ok(response);
+        }
+
+        response.put("success", true);
+        response.put("admission", uploadAdmissionFilter.getStatus());
+        return ResponseEntity.ok(response);
+    }
+
+    // Orphan files and dangling rows found by the last storage reconciliation run (Admin only)
+    @GetMapping("/storage-reconciliation")
+    public ResponseEntity<Map<String, Object>> getStorageReconciliation(HttpSession session) {
+        Map<String, Object> response = new HashMap<>();
+
+        if (!isAdmin(session)) {
+            response.put("success", false);
+            response.put("message", "Access denied");
+            return ResponseEntity.ok(response);
+        }
+
+        response.put("success", true);
+        response.put("report", storageReconciliationService.getLastReport());
+        return ResponseEntity.ok(response);
+    }
+
+    // Run the next storage reconciliation slice now (Admin only)
+    @PostMapping("/storage-reconciliation")
+    public ResponseEntity<Map<String, Object>> runStorageReconciliation(HttpSession session) {
+        Map<String, Object> response = new HashMap<>();
+
+        if (!isAdmin(session)) {
+            response.put("success", false);
+            response.put("message", "Access denied");
+            return ResponseEntity.ok(response);
+        }
+
+        try {
+            Map<String, Object> report = storageReconciliationService.reconcile();
+            if (report == null) {
+                response.put("success", false);
+                response.put("message", "A reconciliation run is already in progress");
+                return ResponseEntity.ok(response);
+            }
+            response.put("success", true);
+            response.put("report", report);
+        } catch (Exception e) {
+            response.put("success", false);
+            response.put("message", "Reconciliation failed: " + e.getMessage());
+        }
+        return ResponseEntity.ok(response);
+    }
+
+    // Progress of the running volume rebalancing pass, or the report of the last one (Admin only)
+    @GetMapping("/storage-rebalance")
+    public ResponseEntity<Map<String, Object>> getStorageRebalance(HttpSession session) {
+        Map<String, Object> response = new HashMap<>();
+
+        if (!isAdmin(session)) {
+            response.put("success", false);
+            response.put("message", "Access denied");
+            return ResponseEntity.ok(response);
+        }
+
+        response.put("success", true);
+        response.put("status", storageRebalancer.getStatus());
+        return ResponseEntity.ok(response);
+    }
+
+    // Start moving files to the volumes that own them, e.g. after adding a volume (Admin only)
+    @PostMapping("/storage-rebalance")
+    public ResponseEntity<Map<String, Object>> runStorageRebalance(HttpSession session) {
+        Map<String, Object> response = new HashMap<>();
+
+        if (!isAdmin(session)) {
+            response.put("success", false);
+            response.put("message", "Access denied");
+            return ResponseEntity.ok(response);
+        }
+
+        if (!storageRebalancer.start()) {
+            response.put("success", false);
+            response.put("message", "A rebalancing pass is already in progress");
+            return ResponseEntity.ok(response);
+        }
+        response.put("success", true);
+        response.put("message", "Rebalancing started");
+        return ResponseEntity.ok(response);
+    }
+
+    private boolean isAdmin(HttpSession session) {
+        User currentUser = (User) session.getAttribute("user");
+        return currentUser != null && currentUser.getRole() == User.Role.ADMIN;
+    }
+}
@@ -3,21 +3,33 @@ package com.educhain.document_system.controller;
 
 import com.educhain. document_system.service.GeminiVerificationService;
 import com. educhain.document_system.model.VerificationResult;
+import com.educhain.document_system.model.ContentSearchHit;
 import com.educhain.document_system.model.Document;
+import com.educhain.document_system.model.DocumentCursor;
+import com.educhain.document_system.model.DocumentEvent;
+import com.educhain.document_system.model.DocumentField;
+import com.educhain.document_system.model.DocumentFilter;
+import com.educhain.document_system.model.DocumentPage;
+import com.educhain.document_system.model.DocumentSummary;
 import com.educhain.document_system.model.User;
+import com.educhain.document_system.service.DocumentEventHub;
+import com.educhain.document_system.service.DocumentExportService;
 import com.educhain.document_system.service.DocumentService;
+import com.educhain.document_system.service.OperationMetrics;
 import com.educhain.document_system.service.UserService;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.FileSystemResource;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.core.io.Resource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import jakarta.servlet.http.HttpSession;
-import java.io.File;
-import java.time.format.DateTimeFormatter;
+import java.time.LocalDate;
 import java.util.*;
 
 @RestController
@@ -30,6 +42,18 @@ public class DocumentController {
     @Autowired
     private UserService userService;
     
+    @Autowired
+    private ListingResponseWriter listingResponseWriter;
+    
+    @Autowired
+    private DocumentExportService documentExportService;
+    
+    @Autowired
+    private OperationMetrics operationMetrics;
+    
+    @Autowired
+    private DocumentEventHub documentEventHub;
+    
     // Upload document (Admin only)
     @Autowired
 private GeminiVerificationService geminiVerificationService; // Add this at the top with other @Autowired
@@ -40,24 +64,32 @@ public ResponseEntity<Map<String, Object>> uploadDocument(
         @RequestParam("studentId") Long studentId,
         @RequestParam(value = "documentType", defaultValue = "General") String documentType,
         @RequestParam(value = "description", defaultValue = "") String description,
+        @RequestParam(value = "previousVersionId", required = false) Long previousVersionId,
         HttpSession session) {
     
     Map<String, Object> response = new HashMap<>();
+    Timer.Sample timer = operationMetrics.start();
+    String outcome = "success";
     
     try {
         // Check if user is admin
         User currentUser = (User) session.getAttribute("user");
         if (currentUser == null || currentUser.getRole() != User.Role.ADMIN) {
+            outcome = "denied";
             response.put("success", false);
             response.put("message", "Access denied!  Admin only.");
             return ResponseEntity.ok(response);
         }
         
         // ✅ NEW: AI VERIFICATION FOR NON-GENERAL DOCUMENTS
+        VerificationResult verificationResult = null;
         if (!documentType.equalsIgnoreCase("General")) {
-            VerificationResult verificationResult = geminiVerificationService.verifyDocument(file, documentType);
+            Timer.Sample stage = operationMetrics.start();
+            verificationResult = geminiVerificationService.verifyDocument(file, documentType);
+            operationMetrics.stage(stage, OperationMetrics.UPLOAD, "gemini");
             
             if (! verificationResult.isVerified()) {
+                outcome = "rejected";
                 response.put("success", false);
                 response.put("verified", false);
                 response.put("message", verificationResult.getMessage());
@@ -76,24 +108,38 @@ public ResponseEntity<Map<String, Object>> uploadDocument(
         User student = userService.getUserById(studentId);
         
         // Upload document
-        Document document = documentService. uploadDocument(file, student, documentType, description);
+        Document document = documentService.uploadDocument(file, student, documentType, description, previousVersionId);
+        if (verificationResult != null) {
+            documentEventHub.publish(DocumentEvent.aiVerified(DocumentSummary.from(document), verificationResult));
+        }
         
         response.put("success", true);
         response.put("message", "Document uploaded successfully!");
         response.put("documentId", document.getId());
         response.put("filename", document.getFilename());
+        response.put("versionNumber", document.getVersionNumber());
         
     } catch (Exception e) {
+        outcome = "error";
         response.put("success", false);
         response.put("message", "Upload failed: " + e.getMessage());
+    } finally {
+        operationMetrics.complete(timer, OperationMetrics.UPLOAD, outcome);
     }
     
     return ResponseEntity.ok(response);
 }
     
-    // Get documents for current user
-    @GetMapping("/my-documents")
-    public ResponseEntity<Map<String, Object>> getMyDocuments(HttpSession session) {
+    // Largest batch accepted by /batch
+    private static final int MAX_BATCH_IDS = 100;
+    
+    // Selected fields of several documents at once, e.g. /batch?ids=1,2,3&fields=filename,blockchainTxHash
+    @GetMapping("/batch")
+    public ResponseEntity<Map<String, Object>> getDocumentBatch(
+            @RequestParam("ids") List<Long> ids,
+            @RequestParam(value = "fields", required = false) String fields,
+            HttpSession session) {
+        
         Map<String, Object> response = new HashMap<>();
         
         try {
@@ -104,71 +150,274 @@ public ResponseEntity<Map<String, Object>> uploadDocument(
                 return ResponseEntity.ok(response);
             }
             
-            List<Document> documents;
+            if (ids.isEmpty() || ids.size() > MAX_BATCH_IDS) {
+                response.put("success", false);
+                response.put("message", "Between 1 and " + MAX_BATCH_IDS + " ids are allowed");
+                return ResponseEntity.badRequest().body(response);
+            }
+            
+            Set<DocumentField> selected;
+            try {
+                selected = DocumentField.parse(fields);
+            } catch (IllegalArgumentException e) {
+                response.put("success", false);
+                response.put("message", e.getMessage());
+                return ResponseEntity.badRequest().body(response);
+            }
+            
+            // Students only get their own documents; the others are reported as missing
+            Long ownerId = currentUser.getRole() == User.Role.STUDENT ? currentUser.getId() : null;
+            List<Map<String, Object>> documents = documentService.getDocumentFields(ids, ownerId, selected);
+            
+            Set<Object> found = new HashSet<>();
+            for (Map<String, Object> document : documents) {
+                found.add(document.get(DocumentField.ID.getJsonName()));
+            }
+            List<Long> missing = new ArrayList<>();
+            for (Long id : new LinkedHashSet<>(ids)) {
+                if (!found.contains(id)) {
+                    missing.add(id);
+                }
+            }
+            
+            response.put("success", true);
+            response.put("documents", documents);
+            response.put("missingIds", missing);
+            
+        } catch (Exception e) {
+            response.put("success", false);
+            response.put("message", "Failed to load documents: " + e.getMessage());
+        }
+        
+        return ResponseEntity.ok(response);
+    }
+    
+    // Live document events (uploaded, verified, anchored, integrity) as Server-Sent Events
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> documentEvents(HttpSession session) {
+        User currentUser = (User) session.getAttribute("user");
+        if (currentUser == null) {
+            return ResponseEntity.status(401).build();
+        }
+        
+        SseEmitter emitter = documentEventHub.subscribe(currentUser);
+        if (emitter == null) {
+            return ResponseEntity.status(503).header(HttpHeaders.RETRY_AFTER, "30").build();
+        }
+        
+        // Keep reverse proxies from buffering the stream
+        return ResponseEntity.ok()
+            .header("X-Accel-Buffering", "no")
+            .header(HttpHeaders.CACHE_CONTROL, "no-cache")
+            .body(emitter);
+    }
+    
+    // Page size bounds for the document listing
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 200;
+    
+    // Get documents for current user, one keyset page at a time
+    @GetMapping("/my-documents")
+    public ResponseEntity<StreamingResponseBody> getMyDocuments(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", defaultValue = "" + DEFAULT_PAGE_SIZE) int limit,
+            @RequestParam(value = "studentId", required = false) Long studentId,
+            @RequestParam(value = "documentType", required = false) String documentType,
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            HttpSession session) {
+        try {
+            User currentUser = (User) session.getAttribute("user");
+            if (currentUser == null) {
+                return streamedFailure("Not logged in");
+            }
             
+            DocumentFilter filter = new DocumentFilter(studentId, documentType, from, to);
             if (currentUser.getRole() == User.Role.STUDENT) {
                 // Students see only their documents
-                documents = documentService.getDocumentsByStudent(currentUser);
-            } else {
-                // Admins see all documents
-                documents = documentService.getAllDocuments();
+                filter.setStudentId(currentUser.getId());
             }
             
-            // Convert to response format
-            List<Map<String, Object>> documentList = new ArrayList<>();
-            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
-            
-            for (Document doc : documents) {
-                Map<String, Object> docMap = new HashMap<>();
-                docMap.put("id", doc.getId());
-                docMap.put("filename", doc.getFilename());
-                docMap.put("documentType", doc.getDocumentType());
-                docMap.put("description", doc.getDescription());
-                docMap.put("fileSize", doc.getFileSize());
-                docMap.put("uploadDate", doc.getUploadDate().format(formatter));
-                docMap.put("studentUsername", doc.getStudent().getUsername());
-                docMap.put("studentId", doc.getStudent().getId());
-                docMap.put("blockchainTxHash", doc.getBlockchainTxHash());
-                documentList.add(docMap);
+            int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+            DocumentCursor after = cursor != null && !cursor.isEmpty() ? DocumentCursor.decode(cursor) : null;
+            DocumentPage page = documentService.getDocumentPage(filter, after, pageSize);
+            
+            // JSON, or CBOR/Smile for clients that ask for them
+            MediaType mediaType = listingResponseWriter.negotiate(accept);
+            return ResponseEntity.ok()
+                .contentType(mediaType)
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(listingResponseWriter.documentPage(page, mediaType));
+            
+        } catch (Exception e) {
+            return streamedFailure("Failed to load documents: " + e.getMessage());
+        }
+    }
+    
+    // Dashboard statistics from incrementally maintained counters
+    @GetMapping("/stats")
+    public ResponseEntity<Map<String, Object>> getStatistics(HttpSession session) {
+        Map<String, Object> response = new HashMap<>();
+        
+        try {
+            User currentUser = (User) session.getAttribute("user");
+            if (currentUser == null) {
+                response.put("success", false);
+                response.put("message", "Not logged in");
+                return ResponseEntity.ok(response);
             }
             
+            // Students only see their own totals
+            Long studentId = currentUser.getRole() == User.Role.STUDENT ? currentUser.getId() : null;
+            
             response.put("success", true);
-            response.put("documents", documentList);
+            response.put("stats", documentService.getStatistics(studentId));
             
         } catch (Exception e) {
             response.put("success", false);
-            response.put("message", "Failed to load documents: " + e.getMessage());
+            response.put("message", "Failed to load statistics: " + e.getMessage());
         }
         
         return ResponseEntity.ok(response);
     }
     
+    // Search documents by filename, description, type or student
+    @GetMapping("/search")
+    public ResponseEntity<StreamingResponseBody> searchDocuments(
+            @RequestParam("q") String query,
+            @RequestParam(value = "limit", defaultValue = "20") int limit,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            HttpSession session) {
+        try {
+            User currentUser = (User) session.getAttribute("user");
+            if (currentUser == null) {
+                return streamedFailure("Not logged in");
+            }
+            
+            // Students only search their own documents
+            Long studentId = currentUser.getRole() == User.Role.STUDENT ? currentUser.getId() : null;
+            int resultLimit = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+            List<DocumentSummary> results = documentService.searchDocuments(query, studentId, resultLimit);
+            
+            MediaType mediaType = listingResponseWriter.negotiate(accept);
+            return ResponseEntity.ok()
+                .contentType(mediaType)
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(listingResponseWriter.documents(results, mediaType));
+            
+        } catch (Exception e) {
+            return streamedFailure("Search failed: " + e.getMessage());
+        }
+    }
+    
+    // Search the text inside documents (PDF text, OCR'd images)
+    @GetMapping("/content-search")
+    public ResponseEntity<StreamingResponseBody> searchDocumentContent(
+            @RequestParam("q") String query,
+            @RequestParam(value = "limit", defaultValue = "20") int limit,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            HttpSession session) {
+        try {
+            User currentUser = (User) session.getAttribute("user");
+            if (currentUser == null) {
+                return streamedFailure("Not logged in");
+            }
+            
+            // Students only search their own documents
+            Long studentId = currentUser.getRole() == User.Role.STUDENT ? currentUser.getId() : null;
+            int resultLimit = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+            List<ContentSearchHit> hits = documentService.searchDocumentContent(query, studentId, resultLimit);
+            
+            MediaType mediaType = listingResponseWriter.negotiate(accept);
+            return ResponseEntity.ok()
+                .contentType(mediaType)
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(listingResponseWriter.contentHits(hits, mediaType));
+            
+        } catch (Exception e) {
+            return streamedFailure("Search failed: " + e.getMessage());
+        }
+    }
+    
+    // Bulk export of metadata (NDJSON/CSV) or metadata plus files (zip), streamed to the client
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportDocuments(
+            @RequestParam(value = "format", defaultValue = "zip") String format,
+            @RequestParam(value = "studentId", required = false) Long studentId,
+            @RequestParam(value = "documentType", required = false) String documentType,
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            HttpSession session) {
+        try {
+            User currentUser = (User) session.getAttribute("user");
+            if (currentUser == null) {
+                return streamedFailure("Not logged in");
+            }
+            
+            DocumentFilter filter = new DocumentFilter(studentId, documentType, from, to);
+            if (currentUser.getRole() == User.Role.STUDENT) {
+                // Students export only their documents
+                filter.setStudentId(currentUser.getId());
+            }
+            
+            DocumentExportService.Format exportFormat = DocumentExportService.Format.valueOf(format.toUpperCase());
+            MediaType contentType = switch (exportFormat) {
+                case NDJSON -> MediaType.parseMediaType("application/x-ndjson");
+                case CSV -> MediaType.parseMediaType("text/csv; charset=UTF-8");
+                case ZIP -> MediaType.parseMediaType("application/zip");
+            };
+            String filename = "documents-export." + exportFormat.name().toLowerCase();
+            
+            return ResponseEntity.ok()
+                .contentType(contentType)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .body(out -> documentExportService.export(filter, exportFormat, out));
+            
+        } catch (Exception e) {
+            return streamedFailure("Export failed: " + e.getMessage());
+        }
+    }
+    
     // Download document
     @GetMapping("/download/{documentId}")
     public ResponseEntity<Resource> downloadDocument(
             @PathVariable Long documentId,
             HttpSession session) {
         
+        Timer.Sample timer = operationMetrics.start();
+        String outcome = "success";
         try {
             User currentUser = (User) session.getAttribute("user");
             if (currentUser == null) {
+                outcome = "denied";
                 return ResponseEntity.notFound().build();
             }
             
+            Timer.Sample stage = operationMetrics.start();
             Document document = documentService.getDocumentById(documentId);
+            operationMetrics.stage(stage, OperationMetrics.DOWNLOAD, "lookup");
             
             // Check access permissions
             if (currentUser.getRole() == User.Role.STUDENT && 
                 !document.getStudent().getId().equals(currentUser.getId())) {
+                outcome = "denied";
                 return ResponseEntity.notFound().build();
             }
             
-            File file = new File(document.getFilePath());
-            if (!file.exists()) {
+            // Archived documents are decompressed while streaming
+            stage = operationMetrics.start();
+            Resource resource = documentService.openDocumentForDownload(document);
+            operationMetrics.stage(stage, OperationMetrics.DOWNLOAD, "file_stat");
+            if (resource == null) {
+                outcome = "not_found";
                 return ResponseEntity.notFound().build();
             }
             
-            Resource resource = new FileSystemResource(file);
+            long size = resource.contentLength();
+            if (size >= 0) {
+                operationMetrics.recordDownloadSize(size);
+            }
             
             return ResponseEntity.ok()
                 .contentType(MediaType.APPLICATION_OCTET_STREAM)
@@ -177,8 +426,63 @@ public ResponseEntity<Map<String, Object>> uploadDocument(
                 .body(resource);
                 
         } catch (Exception e) {
+            outcome = "error";
             return ResponseEntity.notFound().build();
+        } finally {
+            operationMetrics.complete(timer, OperationMetrics.DOWNLOAD, outcome);
+        }
+    }
+    
+    // All versions of a document, oldest first, each with its own hash and anchoring
+    @GetMapping("/{documentId}/versions")
+    public ResponseEntity<Map<String, Object>> getDocumentVersions(
+            @PathVariable Long documentId,
+            HttpSession session) {
+        
+        Map<String, Object> response = new HashMap<>();
+        
+        try {
+            User currentUser = (User) session.getAttribute("user");
+            if (currentUser == null) {
+                response.put("success", false);
+                response.put("message", "Not logged in");
+                return ResponseEntity.ok(response);
+            }
+            
+            List<Document> versions = documentService.getVersionHistory(documentId);
+            
+            // Check access permissions (every version belongs to the same student)
+            if (currentUser.getRole() == User.Role.STUDENT &&
+                !versions.get(0).getStudent().getId().equals(currentUser.getId())) {
+                response.put("success", false);
+                response.put("message", "Access denied");
+                return ResponseEntity.ok(response);
+            }
+            
+            List<Map<String, Object>> versionList = new ArrayList<>();
+            for (Document version : versions) {
+                Map<String, Object> versionMap = new LinkedHashMap<>();
+                versionMap.put("id", version.getId());
+                versionMap.put("versionNumber", version.getVersionNumber());
+                versionMap.put("filename", version.getFilename());
+                versionMap.put("uploadDate", version.getUploadDate());
+                versionMap.put("fileHash", version.getFileHash());
+                versionMap.put("blockchainTxHash", version.getBlockchainTxHash());
+                versionMap.put("fileSize", version.getFileSize());
+                versionMap.put("storedSize", version.getStoredSize());
+                versionMap.put("storedAsDelta", version.isDelta());
+                versionList.add(versionMap);
+            }
+            
+            response.put("success", true);
+            response.put("versions", versionList);
+            
+        } catch (Exception e) {
+            response.put("success", false);
+            response.put("message", "Failed to load versions: " + e.getMessage());
         }
+        
+        return ResponseEntity.ok(response);
     }
     
     // Verify document integrity
@@ -188,10 +492,13 @@ public ResponseEntity<Map<String, Object>> uploadDocument(
             HttpSession session) {
         
         Map<String, Object> response = new HashMap<>();
+        Timer.Sample timer = operationMetrics.start();
+        String outcome = "error";
         
         try {
             User currentUser = (User) session.getAttribute("user");
             if (currentUser == null) {
+                outcome = "denied";
                 response.put("success", false);
                 response.put("message", "Not logged in");
                 return ResponseEntity.ok(response);
@@ -202,12 +509,14 @@ public ResponseEntity<Map<String, Object>> uploadDocument(
             // Check access permissions
             if (currentUser.getRole() == User.Role.STUDENT && 
                 !document.getStudent().getId().equals(currentUser.getId())) {
+                outcome = "denied";
                 response.put("success", false);
                 response.put("message", "Access denied");
                 return ResponseEntity.ok(response);
             }
             
             boolean isValid = documentService.verifyDocumentIntegrity(documentId);
+            outcome = isValid ? "valid" : "invalid";
             
             response.put("success", true);
             response.put("isValid", isValid);
@@ -216,6 +525,8 @@ public ResponseEntity<Map<String, Object>> uploadDocument(
         } catch (Exception e) {
             response.put("success", false);
             response.put("message", "Verification failed: " + e.getMessage());
+        } finally {
+            operationMetrics.complete(timer, OperationMetrics.VERIFY, outcome);
         }
         
         return ResponseEntity.ok(response);
@@ -283,4 +594,12 @@ public ResponseEntity<Map<String, Object>> uploadDocument(
         
         return ResponseEntity.ok(response);
     }
+    
+    // Error body for the streamed endpoints; Spring only streams a ResponseEntity whose declared
+    // body type is StreamingResponseBody, so their failures have to be one too
+    private ResponseEntity<StreamingResponseBody> streamedFailure(String message) {
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(listingResponseWriter.failure(message));
+    }
 }
@@ -0,0 +1,172 @@
+package com.educhain.document_system.controller;
+
+import com.educhain.document_system.model.ContentSearchHit;
+import com.educhain.document_system.model.DocumentPage;
+import com.educhain.document_system.model.DocumentSummary;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import java.io.IOException;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Writes listing responses row by row with Jackson's streaming generator,
+ * so no intermediate maps or response trees are built. The same DTOs can be written
+ * as JSON or, for clients that ask for them in Accept, CBOR or Smile.
+ */
+@Component
+public class ListingResponseWriter {
+
+    public static final MediaType APPLICATION_SMILE = MediaType.valueOf("application/x-jackson-smile");
+
+    // Response encodings, each with the application's mapper settings on its own factory
+    private record Codec(ObjectMapper objectMapper, ObjectWriter summaryWriter, ObjectWriter hitWriter) {
+
+        static Codec of(ObjectMapper objectMapper) {
+            // Flushing after every row would turn each one into its own socket write
+            return new Codec(objectMapper,
+                objectMapper.writerFor(DocumentSummary.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE),
+                objectMapper.writerFor(ContentSearchHit.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE));
+        }
+    }
+
+    private final Codec json;
+    private final Codec cbor;
+    private final Codec smile;
+
+    public ListingResponseWriter(ObjectMapper objectMapper) {
+        this.json = Codec.of(objectMapper);
+        this.cbor = Codec.of(objectMapper.copyWith(new CBORFactory()));
+        this.smile = Codec.of(objectMapper.copyWith(new SmileFactory()));
+    }
+
+    /**
+     * Pick the response type for an Accept header: CBOR or Smile when the client prefers
+     * one of them, JSON otherwise (also for a missing or wildcard header).
+     */
+    public MediaType negotiate(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return MediaType.APPLICATION_JSON;
+        }
+        List<MediaType> accepted;
+        try {
+            accepted = MediaType.parseMediaTypes(accept);
+        } catch (IllegalArgumentException e) {
+            return MediaType.APPLICATION_JSON;
+        }
+        accepted.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed());
+        for (MediaType type : accepted) {
+            if (type.isWildcardType() || type.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+                return MediaType.APPLICATION_JSON;
+            }
+            if (type.isCompatibleWith(MediaType.APPLICATION_CBOR)) {
+                return MediaType.APPLICATION_CBOR;
+            }
+            if (type.isCompatibleWith(APPLICATION_SMILE)) {
+                return APPLICATION_SMILE;
+            }
+        }
+        return MediaType.APPLICATION_JSON;
+    }
+
+    /**
+     * Stream a page of documents as {"success":true,"documents":[...],"nextCursor":...}
+     */
+    public StreamingResponseBody documentPage(DocumentPage page) {
+        return documentPage(page, MediaType.APPLICATION_JSON);
+    }
+
+    public StreamingResponseBody documentPage(DocumentPage page, MediaType mediaType) {
+        Codec codec = codec(mediaType);
+        return out -> {
+            JsonGenerator gen = codec.objectMapper().getFactory().createGenerator(out);
+            gen.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+            gen.writeStartObject();
+            gen.writeBooleanField("success", true);
+            writeDocuments(gen, codec, page.getDocuments());
+            gen.writeStringField("nextCursor", page.getNextCursor());
+            gen.writeEndObject();
+            gen.close();
+        };
+    }
+
+    /**
+     * Stream a list of documents as {"success":true,"documents":[...]}
+     */
+    public StreamingResponseBody documents(List<DocumentSummary> documents, MediaType mediaType) {
+        Codec codec = codec(mediaType);
+        return out -> {
+            JsonGenerator gen = codec.objectMapper().getFactory().createGenerator(out);
+            gen.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+            gen.writeStartObject();
+            gen.writeBooleanField("success", true);
+            writeDocuments(gen, codec, documents);
+            gen.writeEndObject();
+            gen.close();
+        };
+    }
+
+    /**
+     * Stream content search hits as {"success":true,"documents":[{...,"snippet":...}]}
+     */
+    public StreamingResponseBody contentHits(List<ContentSearchHit> hits, MediaType mediaType) {
+        Codec codec = codec(mediaType);
+        return out -> {
+            JsonGenerator gen = codec.objectMapper().getFactory().createGenerator(out);
+            gen.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+            gen.writeStartObject();
+            gen.writeBooleanField("success", true);
+            gen.writeArrayFieldStart("documents");
+            for (ContentSearchHit hit : hits) {
+                codec.hitWriter().writeValue(gen, hit);
+            }
+            gen.writeEndArray();
+            gen.writeEndObject();
+            gen.close();
+        };
+    }
+
+    /**
+     * Write {"success":false,"message":...} as JSON, for endpoints whose successful response is streamed
+     */
+    public StreamingResponseBody failure(String message) {
+        return out -> {
+            JsonGenerator gen = json.objectMapper().getFactory().createGenerator(out);
+            gen.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+            gen.writeStartObject();
+            gen.writeBooleanField("success", false);
+            gen.writeStringField("message", message);
+            gen.writeEndObject();
+            gen.close();
+        };
+    }
+
+    private void writeDocuments(JsonGenerator gen, Codec codec, List<DocumentSummary> documents) throws IOException {
+        gen.writeArrayFieldStart("documents");
+        for (DocumentSummary document : documents) {
+            codec.summaryWriter().writeValue(gen, document);
+        }
+        gen.writeEndArray();
+    }
+
+    private Codec codec(MediaType mediaType) {
+        if (MediaType.APPLICATION_CBOR.equalsTypeAndSubtype(mediaType)) {
+            return cbor;
+        }
+        if (APPLICATION_SMILE.equalsTypeAndSubtype(mediaType)) {
+            return smile;
+        }
+        return json;
+    }
+}
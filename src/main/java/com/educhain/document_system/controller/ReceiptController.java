@@ -0,0 +1,99 @@
+package com.educhain.document_system.controller;
+
+
+import com.educhain.document_system.service.ReceiptService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Public, cacheable verification receipts. A receipt only states what was registered for a
+ * file hash, so it needs no login: whoever holds the document can hash it and ask. Anchored
+ * receipts are cached for receipts.anchored-max-age and then revalidated by ETag, so a deleted
+ * document's receipt is withdrawn from caches; pending ones, and any receipt signed with a
+ * temporary key (which stops verifying at the next restart), are cached briefly.
+ */
+@RestController
+@RequestMapping("/api/receipts")
+public class ReceiptController {
+
+    private static final Pattern SHA256_HEX = Pattern.compile("[0-9a-f]{64}");
+
+    // Pending receipts change once the hash is anchored
+    private static final long PENDING_MAX_AGE_SECONDS = 60;
+
+    @Autowired
+    private ReceiptService receiptService;
+
+    @Value("${receipts.anchored-max-age:1d}")
+    private Duration anchoredMaxAge;
+
+    // Signed receipt for the document with this SHA-256 hash
+    @GetMapping("/{fileHash}")
+    public ResponseEntity<Map<String, Object>> getReceipt(@PathVariable String fileHash, WebRequest request) {
+        Map<String, Object> response = new HashMap<>();
+        String hash = fileHash.toLowerCase();
+
+        if (!SHA256_HEX.matcher(hash).matches()) {
+            response.put("success", false);
+            response.put("message", "Expected a SHA-256 hash (64 hex characters)");
+            return ResponseEntity.badRequest().cacheControl(CacheControl.noStore()).body(response);
+        }
+
+        ReceiptService.SignedReceipt signed;
+        try {
+            signed = receiptService.getReceipt(hash);
+        } catch (RuntimeException e) {
+            response.put("success", false);
+            response.put("message", "No document with this hash");
+            return ResponseEntity.status(404).cacheControl(CacheControl.noStore()).body(response);
+        }
+
+        // The signature is deterministic, so it identifies the representation
+        String signature = signed.jws().substring(signed.jws().lastIndexOf('.') + 1);
+        String etag = "\"" + signature.substring(0, 22) + "\"";
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+
+        response.put("success", true);
+        response.put("receipt", signed.receipt());
+        response.put("jws", signed.jws());
+        response.put("keyId", signed.keyId());
+
+        CacheControl cacheControl = signed.receipt().isAnchored() && receiptService.isKeyConfigured()
+            ? CacheControl.maxAge(anchoredMaxAge).cachePublic()
+            : CacheControl.maxAge(PENDING_MAX_AGE_SECONDS, TimeUnit.SECONDS).cachePublic();
+        return ResponseEntity.ok()
+            .cacheControl(cacheControl)
+            .eTag(etag)
+            .body(response);
+    }
+
+    // Public key set for verifying receipts offline (JWK, RFC 8037): the current key and retired ones
+    @GetMapping("/keys")
+    public ResponseEntity<Map<String, Object>> getKeys() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("keys", receiptService.getPublicJwks());
+        return ResponseEntity.ok()
+            .cacheControl(CacheControl.maxAge(1, TimeUnit.HOURS).cachePublic())
+            .body(response);
+    }
+
+    // The current key as PEM, for openssl and other non-JOSE tooling
+    @GetMapping(value = "/public-key.pem", produces = MediaType.TEXT_PLAIN_VALUE)
+    public ResponseEntity<String> getPublicKeyPem() {
+        return ResponseEntity.ok()
+            .cacheControl(CacheControl.maxAge(1, TimeUnit.HOURS).cachePublic())
+            .body(receiptService.getPublicKeyPem());
+    }
+}
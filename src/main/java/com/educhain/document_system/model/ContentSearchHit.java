@@ -0,0 +1,29 @@
+package com.educhain.document_system.model;
+
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+
+/**
+ * Content search result: the listing row plus a highlighted snippet of the matching text.
+ */
+public class ContentSearchHit {
+
+    @JsonUnwrapped
+    private final DocumentSummary document;
+
+    // HTML-escaped text with matched words wrapped in <mark>
+    private final String snippet;
+
+    public ContentSearchHit(DocumentSummary document, String snippet) {
+        this.document = document;
+        this.snippet = snippet;
+    }
+
+    // Getters
+    public DocumentSummary getDocument() {
+        return document;
+    }
+
+    public String getSnippet() {
+        return snippet;
+    }
+}
@@ -2,10 +2,28 @@ package com.educhain.document_system.model;
 
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "documents")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+// Updates write only the changed columns, so background jobs touching different columns of the
+// same row (anchoring, tiering, access counts) do not overwrite each other
+@DynamicUpdate
+@Table(name = "documents", indexes = {
+    // Keyset pagination: newest first, optionally narrowed by student or type
+    @Index(name = "idx_documents_upload_date_id", columnList = "upload_date, id"),
+    @Index(name = "idx_documents_student_upload_date_id", columnList = "student_id, upload_date, id"),
+    @Index(name = "idx_documents_type_upload_date_id", columnList = "document_type, upload_date, id"),
+    // Storage reconciliation looks files up by path
+    @Index(name = "idx_documents_file_path", columnList = "file_path"),
+    // Version chains and delta dependents
+    @Index(name = "idx_documents_previous_version_id", columnList = "previous_version_id"),
+    @Index(name = "idx_documents_delta_base_id", columnList = "delta_base_id")
+})
 public class Document {
     
     @Id
@@ -40,9 +58,47 @@ public class Document {
     @Column(name = "description")
     private String description;
     
+    // Where the bytes live: HOT on a storage volume, COLD gzip-compressed in storage.archive-dir
+    // (null for rows written before tiering, treated as HOT)
+    @Enumerated(EnumType.STRING)
+    @Column(name = "storage_tier", length = 16)
+    private StorageTier storageTier;
+    
+    // Last download, flushed periodically, so accurate to the flush interval
+    @Column(name = "last_accessed_at")
+    private LocalDateTime lastAccessedAt;
+    
+    @Column(name = "access_count")
+    private Long accessCount;
+    
+    // Version chain: the document this one replaces (null for a first version)
+    @Column(name = "previous_version_id")
+    private Long previousVersionId;
+    
+    // 1 for a first version (null on rows written before versioning)
+    @Column(name = "version_number")
+    private Integer versionNumber;
+    
+    // Set when the stored file is a binary delta against this (fully stored) document's file
+    @Column(name = "delta_base_id")
+    private Long deltaBaseId;
+    
+    // Set when the stored file is a manifest of chunks in the chunk store (null on older rows)
+    @Column(name = "chunked")
+    private Boolean chunked;
+    
+    // Bytes on disk: less than fileSize when stored as a delta or archived
+    @Column(name = "stored_size")
+    private Long storedSize;
+    
+    public enum StorageTier {
+        HOT, COLD
+    }
+    
     // Constructors
     public Document() {
         this.uploadDate = LocalDateTime.now();
+        this.storageTier = StorageTier.HOT;
     }
     
     public Document(String filename, String filePath, String fileHash, User student) {
@@ -133,4 +189,76 @@ public class Document {
     public void setDescription(String description) {
         this.description = description;
     }
+    
+    public StorageTier getStorageTier() {
+        return storageTier;
+    }
+    
+    public void setStorageTier(StorageTier storageTier) {
+        this.storageTier = storageTier;
+    }
+    
+    public boolean isArchived() {
+        return storageTier == StorageTier.COLD;
+    }
+    
+    public LocalDateTime getLastAccessedAt() {
+        return lastAccessedAt;
+    }
+    
+    public void setLastAccessedAt(LocalDateTime lastAccessedAt) {
+        this.lastAccessedAt = lastAccessedAt;
+    }
+    
+    public Long getAccessCount() {
+        return accessCount;
+    }
+    
+    public void setAccessCount(Long accessCount) {
+        this.accessCount = accessCount;
+    }
+    
+    public Long getPreviousVersionId() {
+        return previousVersionId;
+    }
+    
+    public void setPreviousVersionId(Long previousVersionId) {
+        this.previousVersionId = previousVersionId;
+    }
+    
+    public int getVersionNumber() {
+        return versionNumber != null ? versionNumber : 1;
+    }
+    
+    public void setVersionNumber(Integer versionNumber) {
+        this.versionNumber = versionNumber;
+    }
+    
+    public Long getDeltaBaseId() {
+        return deltaBaseId;
+    }
+    
+    public void setDeltaBaseId(Long deltaBaseId) {
+        this.deltaBaseId = deltaBaseId;
+    }
+    
+    public boolean isDelta() {
+        return deltaBaseId != null;
+    }
+    
+    public boolean isChunked() {
+        return Boolean.TRUE.equals(chunked);
+    }
+    
+    public void setChunked(boolean chunked) {
+        this.chunked = chunked;
+    }
+    
+    public Long getStoredSize() {
+        return storedSize;
+    }
+    
+    public void setStoredSize(Long storedSize) {
+        this.storedSize = storedSize;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,101 @@
+package com.educhain.document_system.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Extracted plain text of a stored file, keyed by file hash so identical files are extracted once.
+ */
+@Entity
+@Table(name = "document_contents")
+public class DocumentContent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "file_hash", unique = true, nullable = false)
+    private String fileHash;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Status status;
+
+    // Whitespace-normalized text, capped at extraction.max-chars
+    @Lob
+    @Column(name = "content")
+    private String content;
+
+    @Column(name = "extracted_at")
+    private LocalDateTime extractedAt;
+
+    // Extractions run for this file; failed ones are retried up to extraction.max-attempts
+    @Column(name = "attempts")
+    private Integer attempts;
+
+    // Constructors
+    public DocumentContent() {
+    }
+
+    public DocumentContent(String fileHash, Status status, String content) {
+        this.fileHash = fileHash;
+        this.status = status;
+        this.content = content;
+        this.extractedAt = LocalDateTime.now();
+        this.attempts = 1;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getFileHash() {
+        return fileHash;
+    }
+
+    public void setFileHash(String fileHash) {
+        this.fileHash = fileHash;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public String getContent() {
+        return content;
+    }
+
+    public void setContent(String content) {
+        this.content = content;
+    }
+
+    public LocalDateTime getExtractedAt() {
+        return extractedAt;
+    }
+
+    public void setExtractedAt(LocalDateTime extractedAt) {
+        this.extractedAt = extractedAt;
+    }
+
+    public Integer getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(Integer attempts) {
+        this.attempts = attempts;
+    }
+
+    // Status Enum
+    public enum Status {
+        EXTRACTED, UNSUPPORTED, FAILED
+    }
+}
@@ -0,0 +1,62 @@
+package com.educhain.document_system.model;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Opaque keyset position in the document listing, ordered by (uploadDate, id) descending.
+ */
+public class DocumentCursor {
+    private final LocalDateTime uploadDate;
+    private final Long id;
+
+    public DocumentCursor(LocalDateTime uploadDate, Long id) {
+        this.uploadDate = uploadDate;
+        this.id = id;
+    }
+
+    /**
+     * Cursor pointing just after the given listing row
+     */
+    public static DocumentCursor after(DocumentSummary document) {
+        return new DocumentCursor(document.getUploadDate(), document.getId());
+    }
+
+    /**
+     * Cursor pointing just after the given document
+     */
+    public static DocumentCursor after(Document document) {
+        return new DocumentCursor(document.getUploadDate(), document.getId());
+    }
+
+    /**
+     * Decode a cursor previously produced by {@link #encode()}
+     */
+    public static DocumentCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            return new DocumentCursor(
+                LocalDateTime.parse(raw.substring(0, separator)),
+                Long.parseLong(raw.substring(separator + 1))
+            );
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    public String encode() {
+        String raw = uploadDate + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Getters
+    public LocalDateTime getUploadDate() {
+        return uploadDate;
+    }
+
+    public Long getId() {
+        return id;
+    }
+}
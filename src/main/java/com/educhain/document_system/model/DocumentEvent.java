@@ -0,0 +1,119 @@
+package com.educhain.document_system.model;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.time.LocalDateTime;
+
+/**
+ * A document lifecycle change pushed to subscribed browsers. The SSE event name is the type;
+ * the data is this object as JSON, with only the fields that apply to the type.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class DocumentEvent {
+
+    // Lifecycle steps, with their SSE event names
+    public enum Type {
+        UPLOADED("uploaded"),
+        AI_VERIFIED("verified"),
+        ANCHORED("anchored"),
+        INTEGRITY_CHECKED("integrity");
+
+        private final String eventName;
+
+        Type(String eventName) {
+            this.eventName = eventName;
+        }
+
+        public String getEventName() {
+            return eventName;
+        }
+    }
+
+    private final Type type;
+    private final Long documentId;
+    private final Long studentId;
+
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private final LocalDateTime occurredAt = LocalDateTime.now();
+
+    private DocumentSummary document;
+    private Boolean valid;
+    private Double confidence;
+    private String message;
+
+    private DocumentEvent(Type type, Long documentId, Long studentId) {
+        this.type = type;
+        this.documentId = documentId;
+        this.studentId = studentId;
+    }
+
+    // Stored and saved to the database
+    public static DocumentEvent uploaded(DocumentSummary document) {
+        DocumentEvent event = new DocumentEvent(Type.UPLOADED, document.getId(), document.getStudentId());
+        event.document = document;
+        return event;
+    }
+
+    // Passed the Gemini document type check before upload
+    public static DocumentEvent aiVerified(DocumentSummary document, VerificationResult result) {
+        DocumentEvent event = new DocumentEvent(Type.AI_VERIFIED, document.getId(), document.getStudentId());
+        event.valid = result.isVerified();
+        event.confidence = result.getConfidenceScore();
+        event.message = result.getMessage();
+        return event;
+    }
+
+    // Hash stored on the blockchain; document carries the transaction hash
+    public static DocumentEvent anchored(DocumentSummary document) {
+        DocumentEvent event = new DocumentEvent(Type.ANCHORED, document.getId(), document.getStudentId());
+        event.document = document;
+        return event;
+    }
+
+    // Result of an integrity verification
+    public static DocumentEvent integrityChecked(Long documentId, Long studentId, boolean valid) {
+        DocumentEvent event = new DocumentEvent(Type.INTEGRITY_CHECKED, documentId, studentId);
+        event.valid = valid;
+        event.message = valid ? "Document is authentic" : "Document has been tampered with";
+        return event;
+    }
+
+    // Getters
+    @JsonIgnore
+    public Type getType() {
+        return type;
+    }
+
+    public String getEvent() {
+        return type.getEventName();
+    }
+
+    public Long getDocumentId() {
+        return documentId;
+    }
+
+    public Long getStudentId() {
+        return studentId;
+    }
+
+    public LocalDateTime getOccurredAt() {
+        return occurredAt;
+    }
+
+    public DocumentSummary getDocument() {
+        return document;
+    }
+
+    public Boolean getValid() {
+        return valid;
+    }
+
+    public Double getConfidence() {
+        return confidence;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+}
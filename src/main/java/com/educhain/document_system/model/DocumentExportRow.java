@@ -0,0 +1,100 @@
+package com.educhain.document_system.model;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * One document's metadata in a bulk export (NDJSON line or CSV row).
+ */
+@JsonPropertyOrder({"id", "filename", "documentType", "description", "fileSize", "uploadDate",
+                    "studentId", "studentUsername", "fileHash", "blockchainTxHash"})
+public class DocumentExportRow {
+
+    // CSV header, in the same order as toCsvFields()
+    public static final String[] CSV_HEADER = {
+        "id", "filename", "documentType", "description", "fileSize", "uploadDate",
+        "studentId", "studentUsername", "fileHash", "blockchainTxHash"
+    };
+
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final Long id;
+    private final String filename;
+    private final String documentType;
+    private final String description;
+    private final Long fileSize;
+
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private final LocalDateTime uploadDate;
+
+    private final Long studentId;
+    private final String studentUsername;
+    private final String fileHash;
+    private final String blockchainTxHash;
+
+    public DocumentExportRow(Document document) {
+        this.id = document.getId();
+        this.filename = document.getFilename();
+        this.documentType = document.getDocumentType();
+        this.description = document.getDescription();
+        this.fileSize = document.getFileSize();
+        this.uploadDate = document.getUploadDate();
+        this.studentId = document.getStudent().getId();
+        this.studentUsername = document.getStudent().getUsername();
+        this.fileHash = document.getFileHash();
+        this.blockchainTxHash = document.getBlockchainTxHash();
+    }
+
+    // Field values as strings, null for missing values
+    public String[] toCsvFields() {
+        return new String[] {
+            String.valueOf(id), filename, documentType, description,
+            fileSize != null ? String.valueOf(fileSize) : null,
+            uploadDate != null ? uploadDate.format(DATE_FORMAT) : null,
+            String.valueOf(studentId), studentUsername, fileHash, blockchainTxHash
+        };
+    }
+
+    // Getters
+    public Long getId() {
+        return id;
+    }
+
+    public String getFilename() {
+        return filename;
+    }
+
+    public String getDocumentType() {
+        return documentType;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public Long getFileSize() {
+        return fileSize;
+    }
+
+    public LocalDateTime getUploadDate() {
+        return uploadDate;
+    }
+
+    public Long getStudentId() {
+        return studentId;
+    }
+
+    public String getStudentUsername() {
+        return studentUsername;
+    }
+
+    public String getFileHash() {
+        return fileHash;
+    }
+
+    public String getBlockchainTxHash() {
+        return blockchainTxHash;
+    }
+}
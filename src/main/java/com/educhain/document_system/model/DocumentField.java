@@ -0,0 +1,75 @@
+package com.educhain.document_system.model;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Document fields a client can select in a batch fetch (fields=...), with the entity attribute
+ * each one is read from. Names match the listing JSON.
+ */
+public enum DocumentField {
+    ID("id", "id"),
+    FILENAME("filename", "filename"),
+    DOCUMENT_TYPE("documentType", "documentType"),
+    DESCRIPTION("description", "description"),
+    FILE_SIZE("fileSize", "fileSize"),
+    UPLOAD_DATE("uploadDate", "uploadDate"),
+    STUDENT_ID("studentId", "student.id"),
+    STUDENT_USERNAME("studentUsername", "student.username"),
+    FILE_HASH("fileHash", "fileHash"),
+    BLOCKCHAIN_TX_HASH("blockchainTxHash", "blockchainTxHash");
+
+    // Returned when the client does not ask for specific fields: the listing row
+    public static final Set<DocumentField> DEFAULTS = EnumSet.of(ID, FILENAME, DOCUMENT_TYPE, DESCRIPTION,
+        FILE_SIZE, UPLOAD_DATE, STUDENT_ID, STUDENT_USERNAME, BLOCKCHAIN_TX_HASH);
+
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final String jsonName;
+    private final String attributePath;
+
+    DocumentField(String jsonName, String attributePath) {
+        this.jsonName = jsonName;
+        this.attributePath = attributePath;
+    }
+
+    public String getJsonName() {
+        return jsonName;
+    }
+
+    public String getAttributePath() {
+        return attributePath;
+    }
+
+    // Needs the users join (the student id itself is a documents column)
+    public boolean needsStudentJoin() {
+        return this == STUDENT_USERNAME;
+    }
+
+    // Column value as it appears in JSON (dates in the listing format)
+    public Object toJsonValue(Object value) {
+        return value instanceof LocalDateTime date ? date.format(DATE_FORMAT) : value;
+    }
+
+    // Parse "id,filename,..." (the id is always included); null or blank means the defaults
+    public static Set<DocumentField> parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return EnumSet.copyOf(DEFAULTS);
+        }
+        Set<DocumentField> selected = EnumSet.of(ID);
+        for (String name : fields.split(",")) {
+            String trimmed = name.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            selected.add(Arrays.stream(values())
+                .filter(field -> field.jsonName.equals(trimmed))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown field: " + trimmed)));
+        }
+        return selected;
+    }
+}
@@ -0,0 +1,67 @@
+package com.educhain.document_system.model;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Server-side filters for the document listing. Null fields are not applied.
+ */
+public class DocumentFilter {
+    private Long studentId;
+    private String documentType;
+    private LocalDate from;
+    private LocalDate to;
+
+    public DocumentFilter() {
+    }
+
+    public DocumentFilter(Long studentId, String documentType, LocalDate from, LocalDate to) {
+        this.studentId = studentId;
+        this.documentType = documentType;
+        this.from = from;
+        this.to = to;
+    }
+
+    // Inclusive lower bound on upload date
+    public LocalDateTime getFromDateTime() {
+        return from != null ? from.atStartOfDay() : null;
+    }
+
+    // Exclusive upper bound, so the whole "to" day is included
+    public LocalDateTime getToDateTime() {
+        return to != null ? to.plusDays(1).atStartOfDay() : null;
+    }
+
+    // Getters and Setters
+    public Long getStudentId() {
+        return studentId;
+    }
+
+    public void setStudentId(Long studentId) {
+        this.studentId = studentId;
+    }
+
+    public String getDocumentType() {
+        return documentType;
+    }
+
+    public void setDocumentType(String documentType) {
+        this.documentType = documentType;
+    }
+
+    public LocalDate getFrom() {
+        return from;
+    }
+
+    public void setFrom(LocalDate from) {
+        this.from = from;
+    }
+
+    public LocalDate getTo() {
+        return to;
+    }
+
+    public void setTo(LocalDate to) {
+        this.to = to;
+    }
+}
@@ -0,0 +1,29 @@
+package com.educhain.document_system.model;
+
+import java.util.List;
+
+/**
+ * One page of the document listing plus the cursor for the next page (null on the last page).
+ */
+public class DocumentPage {
+    private final List<DocumentSummary> documents;
+    private final String nextCursor;
+
+    public DocumentPage(List<DocumentSummary> documents, String nextCursor) {
+        this.documents = documents;
+        this.nextCursor = nextCursor;
+    }
+
+    // Getters
+    public List<DocumentSummary> getDocuments() {
+        return documents;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean hasMore() {
+        return nextCursor != null;
+    }
+}
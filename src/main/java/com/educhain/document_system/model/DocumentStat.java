@@ -0,0 +1,93 @@
+package com.educhain.document_system.model;
+
+import jakarta.persistence.*;
+
+/**
+ * Running document counters for one slice of the data: everything, one student, one type or one day.
+ * Maintained incrementally on upload, anchoring and delete; periodically reconciled.
+ */
+@Entity
+@Table(name = "document_stats", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_document_stats_scope_key", columnNames = {"scope", "scope_key"})
+})
+public class DocumentStat {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Scope scope;
+
+    // "all", student id, document type or ISO date depending on scope
+    @Column(name = "scope_key", nullable = false)
+    private String scopeKey;
+
+    @Column(name = "document_count", nullable = false)
+    private long documentCount;
+
+    @Column(name = "total_bytes", nullable = false)
+    private long totalBytes;
+
+    @Column(name = "anchored_count", nullable = false)
+    private long anchoredCount;
+
+    // Constructors
+    public DocumentStat() {
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Scope getScope() {
+        return scope;
+    }
+
+    public void setScope(Scope scope) {
+        this.scope = scope;
+    }
+
+    public String getScopeKey() {
+        return scopeKey;
+    }
+
+    public void setScopeKey(String scopeKey) {
+        this.scopeKey = scopeKey;
+    }
+
+    public long getDocumentCount() {
+        return documentCount;
+    }
+
+    public void setDocumentCount(long documentCount) {
+        this.documentCount = documentCount;
+    }
+
+    public long getTotalBytes() {
+        return totalBytes;
+    }
+
+    public void setTotalBytes(long totalBytes) {
+        this.totalBytes = totalBytes;
+    }
+
+    public long getAnchoredCount() {
+        return anchoredCount;
+    }
+
+    public void setAnchoredCount(long anchoredCount) {
+        this.anchoredCount = anchoredCount;
+    }
+
+    // Scope Enum
+    public enum Scope {
+        TOTAL, STUDENT, TYPE, DAY
+    }
+}
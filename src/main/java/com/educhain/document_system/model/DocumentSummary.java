@@ -0,0 +1,91 @@
+package com.educhain.document_system.model;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import java.time.LocalDateTime;
+
+/**
+ * Listing row for a document, loaded by projection with the student name joined in.
+ */
+@JsonPropertyOrder({"id", "filename", "documentType", "description", "fileSize",
+                    "uploadDate", "studentId", "studentUsername", "blockchainTxHash"})
+public class DocumentSummary {
+    private final Long id;
+    private final String filename;
+    private final String documentType;
+    private final String description;
+    private final Long fileSize;
+
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private final LocalDateTime uploadDate;
+
+    private final Long studentId;
+    private final String studentUsername;
+    private final String blockchainTxHash;
+
+    // Used by JPQL constructor expressions in DocumentRepository
+    public DocumentSummary(Long id, String filename, String documentType, String description, Long fileSize,
+                           LocalDateTime uploadDate, Long studentId, String studentUsername, String blockchainTxHash) {
+        this.id = id;
+        this.filename = filename;
+        this.documentType = documentType;
+        this.description = description;
+        this.fileSize = fileSize;
+        this.uploadDate = uploadDate;
+        this.studentId = studentId;
+        this.studentUsername = studentUsername;
+        this.blockchainTxHash = blockchainTxHash;
+    }
+
+    // Build a listing row from a loaded entity (the student must be initialized)
+    public static DocumentSummary from(Document document) {
+        return new DocumentSummary(
+            document.getId(),
+            document.getFilename(),
+            document.getDocumentType(),
+            document.getDescription(),
+            document.getFileSize(),
+            document.getUploadDate(),
+            document.getStudent().getId(),
+            document.getStudent().getUsername(),
+            document.getBlockchainTxHash()
+        );
+    }
+
+    // Getters
+    public Long getId() {
+        return id;
+    }
+
+    public String getFilename() {
+        return filename;
+    }
+
+    public String getDocumentType() {
+        return documentType;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public Long getFileSize() {
+        return fileSize;
+    }
+
+    public LocalDateTime getUploadDate() {
+        return uploadDate;
+    }
+
+    public Long getStudentId() {
+        return studentId;
+    }
+
+    public String getStudentUsername() {
+        return studentUsername;
+    }
+
+    public String getBlockchainTxHash() {
+        return blockchainTxHash;
+    }
+}
@@ -0,0 +1,74 @@
+package com.educhain.document_system.model;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A request that crossed the slow-request threshold, with the time spent in each
+ * external call and disk operation, and the flight recording dumped for it (if any).
+ */
+public class SlowRequest {
+
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private final LocalDateTime finishedAt;
+
+    private final String method;
+    private final String uri;
+    private final int status;
+    private final double durationMillis;
+
+    // Each entry: name, outcome, millis
+    private final List<Map<String, Object>> breakdown;
+
+    // Time not spent in any traced operation (CPU, database, waiting for the client, ...)
+    private final double untracedMillis;
+
+    private final String recordingFile;
+
+    public SlowRequest(LocalDateTime finishedAt, String method, String uri, int status, double durationMillis,
+                       List<Map<String, Object>> breakdown, double untracedMillis, String recordingFile) {
+        this.finishedAt = finishedAt;
+        this.method = method;
+        this.uri = uri;
+        this.status = status;
+        this.durationMillis = durationMillis;
+        this.breakdown = breakdown;
+        this.untracedMillis = untracedMillis;
+        this.recordingFile = recordingFile;
+    }
+
+    // Getters
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public String getUri() {
+        return uri;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public double getDurationMillis() {
+        return durationMillis;
+    }
+
+    public List<Map<String, Object>> getBreakdown() {
+        return breakdown;
+    }
+
+    public double getUntracedMillis() {
+        return untracedMillis;
+    }
+
+    public String getRecordingFile() {
+        return recordingFile;
+    }
+}
@@ -0,0 +1,57 @@
+package com.educhain.document_system.model;
+
+import jakarta.persistence.*;
+
+/**
+ * A deduplicated piece of document content, stored once in the chunk directory under its SHA-256
+ * and counted once for every document whose manifest lists it. Chunks nobody references are
+ * removed by the chunk collector.
+ */
+@Entity
+@Table(name = "storage_chunks", indexes = {
+    // The collector looks for unreferenced chunks
+    @Index(name = "idx_storage_chunks_ref_count", columnList = "ref_count")
+})
+public class StorageChunk {
+
+    // Hex SHA-256 of the chunk bytes, which is also its file name
+    @Id
+    @Column(length = 64)
+    private String hash;
+
+    @Column(nullable = false)
+    private int size;
+
+    // Documents referencing the chunk
+    @Column(name = "ref_count", nullable = false)
+    private long refCount;
+
+    // Constructors
+    public StorageChunk() {
+    }
+
+    // Getters and Setters
+    public String getHash() {
+        return hash;
+    }
+
+    public void setHash(String hash) {
+        this.hash = hash;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    public long getRefCount() {
+        return refCount;
+    }
+
+    public void setRefCount(long refCount) {
+        this.refCount = refCount;
+    }
+}
@@ -0,0 +1,79 @@
+package com.educhain.document_system.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+/**
+ * Signed statement that a document with this SHA-256 hash was registered by the issuer.
+ * Only values that never change for a stored document are included, so the receipt (and its
+ * signature) is identical every time it is produced once the document is anchored.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonPropertyOrder({"version", "issuer", "hashAlgorithm", "fileHash", "documentType", "uploadDate",
+                    "blockchainTxHash", "status"})
+public class VerificationReceipt {
+
+    public static final int VERSION = 1;
+
+    // Receipt state: pending until the hash is on the blockchain
+    public static final String STATUS_ANCHORED = "anchored";
+    public static final String STATUS_PENDING = "pending";
+
+    private final int version = VERSION;
+    private final String issuer;
+    private final String hashAlgorithm = "SHA-256";
+    private final String fileHash;
+    private final String documentType;
+    private final String uploadDate;
+    private final String blockchainTxHash;
+    private final String status;
+
+    public VerificationReceipt(String issuer, String fileHash, String documentType, String uploadDate,
+                               String blockchainTxHash) {
+        this.issuer = issuer;
+        this.fileHash = fileHash;
+        this.documentType = documentType;
+        this.uploadDate = uploadDate;
+        this.blockchainTxHash = blockchainTxHash;
+        this.status = blockchainTxHash != null ? STATUS_ANCHORED : STATUS_PENDING;
+    }
+
+    @JsonIgnore
+    public boolean isAnchored() {
+        return STATUS_ANCHORED.equals(status);
+    }
+
+    // Getters
+    public int getVersion() {
+        return version;
+    }
+
+    public String getIssuer() {
+        return issuer;
+    }
+
+    public String getHashAlgorithm() {
+        return hashAlgorithm;
+    }
+
+    public String getFileHash() {
+        return fileHash;
+    }
+
+    public String getDocumentType() {
+        return documentType;
+    }
+
+    public String getUploadDate() {
+        return uploadDate;
+    }
+
+    public String getBlockchainTxHash() {
+        return blockchainTxHash;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+}
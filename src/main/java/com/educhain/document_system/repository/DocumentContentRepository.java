@@ -0,0 +1,48 @@
+package com.educhain.document_system.repository;
+
+
+import com.educhain.document_system.model.Document;
+import com.educhain.document_system.model.DocumentContent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface DocumentContentRepository extends JpaRepository<DocumentContent, Long> {
+
+    // Find extracted content by file hash
+    Optional<DocumentContent> findByFileHash(String fileHash);
+
+    // Check if a file hash was already processed
+    boolean existsByFileHash(String fileHash);
+
+    // Remove extracted content when its document is deleted
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM DocumentContent c WHERE c.fileHash = :fileHash")
+    int deleteByFileHash(@Param("fileHash") String fileHash);
+
+    // Text per document id with the given status (EXTRACTED), as [documentId, content] pairs
+    @Query("SELECT d.id, c.content FROM Document d, DocumentContent c " +
+           "WHERE c.fileHash = d.fileHash AND c.status = :status AND d.id IN :ids")
+    List<Object[]> findContentByDocumentIds(@Param("ids") Collection<Long> ids,
+                                            @Param("status") DocumentContent.Status status);
+
+    // Documents whose file has not been processed yet
+    @Query("SELECT d FROM Document d WHERE NOT EXISTS " +
+           "(SELECT c.id FROM DocumentContent c WHERE c.fileHash = d.fileHash) ORDER BY d.id")
+    List<Document> findDocumentsWithoutContent(Pageable pageable);
+
+    // Documents whose file has the given status (FAILED) after fewer than maxAttempts tries, least recently tried first
+    @Query("SELECT d FROM Document d, DocumentContent c WHERE c.fileHash = d.fileHash " +
+           "AND c.status = :status AND COALESCE(c.attempts, 1) < :maxAttempts ORDER BY c.extractedAt, d.id")
+    List<Document> findDocumentsToRetry(@Param("status") DocumentContent.Status status,
+                                        @Param("maxAttempts") int maxAttempts, Pageable pageable);
+}
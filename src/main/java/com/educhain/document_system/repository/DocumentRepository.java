@@ -3,14 +3,31 @@ package com.educhain.document_system.repository;
 
 
 import com.educhain.document_system.model.Document;
+import com.educhain.document_system.model.DocumentSummary;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import com.educhain.document_system.model.User;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface DocumentRepository extends JpaRepository<Document, Long> {
+public interface DocumentRepository extends JpaRepository<Document, Long>, DocumentRepositoryCustom {
+    
+    // Find a document with its student loaded, so ownership checks work outside the transaction
+    @Override
+    @EntityGraph(attributePaths = "student")
+    Optional<Document> findById(Long id);
     
     // Find all documents for a specific student
     List<Document> findByStudent(User student);
@@ -21,12 +38,66 @@ public interface DocumentRepository extends JpaRepository<Document, Long> {
     // Find document by file hash
     Optional<Document> findByFileHash(String fileHash);
     
+    // Versions stored as deltas against the given document
+    List<Document> findByDeltaBaseId(Long deltaBaseId);
+    
+    boolean existsByDeltaBaseId(Long deltaBaseId);
+    
+    // Find a document and lock its row until the end of the transaction
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT d FROM Document d WHERE d.id = :id")
+    Optional<Document> findByIdForUpdate(@Param("id") Long id);
+    
+    // The next version(s) of a document
+    List<Document> findByPreviousVersionId(Long previousVersionId);
+    
+    boolean existsByPreviousVersionId(Long previousVersionId);
+    
     // Find documents by document type
     List<Document> findByDocumentType(String documentType);
     
     // Find documents by filename containing text
     List<Document> findByFilenameContaining(String filename);
     
-    // Count documents for a student
+    // Count documents for a student (query-cached, invalidated on any documents write)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     long countByStudentId(Long studentId);
-}
\ No newline at end of file
+    
+    // Listing rows for a set of ids (used to hydrate search hits)
+    @Query("SELECT new com.educhain.document_system.model.DocumentSummary(" +
+           "d.id, d.filename, d.documentType, d.description, d.fileSize, d.uploadDate, " +
+           "s.id, s.username, d.blockchainTxHash) " +
+           "FROM Document d JOIN d.student s WHERE d.id IN :ids")
+    List<DocumentSummary> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+    
+    // Hot documents not downloaded since the cutoff, in id order after the given id (tiering job).
+    // Rows from before tiering have no tier and count as hot. Deltas, delta bases and chunk
+    // manifests stay hot.
+    @Query("SELECT d FROM Document d " +
+           "WHERE (d.storageTier IS NULL OR d.storageTier = :hot) " +
+           "AND COALESCE(d.lastAccessedAt, d.uploadDate) < :cutoff " +
+           "AND d.id > :afterId " +
+           "AND d.deltaBaseId IS NULL " +
+           "AND (d.chunked IS NULL OR d.chunked = false) " +
+           "AND NOT EXISTS (SELECT 1 FROM Document v WHERE v.deltaBaseId = d.id) " +
+           "ORDER BY d.id")
+    List<Document> findColdCandidates(@Param("hot") Document.StorageTier hot,
+                                      @Param("cutoff") LocalDateTime cutoff,
+                                      @Param("afterId") Long afterId,
+                                      Pageable pageable);
+    
+    // (id, filePath) of the next keyset batch in id order, for the storage reconciler
+    @Query("SELECT d.id, d.filePath FROM Document d WHERE d.id > :afterId ORDER BY d.id")
+    List<Object[]> findIdAndFilePathAfter(@Param("afterId") long afterId, Pageable pageable);
+    
+    // (id, filePath, fileHash) of the next keyset batch of hot documents in id order, for volume rebalancing
+    @Query("SELECT d.id, d.filePath, d.fileHash FROM Document d " +
+           "WHERE d.id > :afterId AND (d.storageTier IS NULL OR d.storageTier = :hot) ORDER BY d.id")
+    List<Object[]> findPlacementAfter(@Param("afterId") long afterId,
+                                      @Param("hot") Document.StorageTier hot,
+                                      Pageable pageable);
+    
+    // Which of the given stored file paths a document points to
+    @Query("SELECT d.filePath FROM Document d WHERE d.filePath IN :paths")
+    List<String> findFilePathsIn(@Param("paths") Collection<String> paths);
+}
@@ -0,0 +1,29 @@
+package com.educhain.document_system.repository;
+
+import com.educhain.document_system.model.Document;
+import com.educhain.document_system.model.DocumentField;
+import com.educhain.document_system.model.DocumentSummary;
+import org.springframework.data.domain.Pageable;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Queries built at runtime, implemented in DocumentRepositoryImpl
+public interface DocumentRepositoryCustom {
+
+    // Selected fields of the given documents, in one query; studentId (when set) limits them to that student's
+    List<Map<String, Object>> findFieldsByIds(Collection<Long> ids, Long studentId, Set<DocumentField> fields);
+
+    // Keyset page of listing rows ordered by (uploadDate, id) descending; null parameters are not applied.
+    // The student is joined into the projection so no per-row association load happens.
+    List<DocumentSummary> findSummaryPage(Long studentId, String documentType, LocalDateTime fromDate,
+                                          LocalDateTime toDate, LocalDateTime cursorDate, Long cursorId,
+                                          Pageable pageable);
+
+    // Keyset batch of full documents with their student, for bulk jobs (export, reconciliation)
+    List<Document> findBatchWithStudent(Long studentId, String documentType, LocalDateTime fromDate,
+                                        LocalDateTime toDate, LocalDateTime cursorDate, Long cursorId,
+                                        Pageable pageable);
+}
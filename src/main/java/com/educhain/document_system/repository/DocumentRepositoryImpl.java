@@ -0,0 +1,144 @@
+package com.educhain.document_system.repository;
+
+import com.educhain.document_system.model.Document;
+import com.educhain.document_system.model.DocumentField;
+import com.educhain.document_system.model.DocumentSummary;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.From;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.data.domain.Pageable;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Sparse batch fetch: a tuple query selecting only the requested columns, with the ownership
+ * check in the WHERE clause and the users join only when the username is requested.
+ * Keyset listing: only the filters that are set become predicates, so each combination is a
+ * plain range over its (filter, upload_date, id) index instead of a catch-all
+ * "(:x IS NULL OR ...)" statement the optimizer has to plan for every value at once.
+ */
+public class DocumentRepositoryImpl implements DocumentRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Map<String, Object>> findFieldsByIds(Collection<Long> ids, Long studentId, Set<DocumentField> fields) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Document> document = query.from(Document.class);
+        From<Document, ?> student = fields.stream().anyMatch(DocumentField::needsStudentJoin)
+            ? document.join("student")
+            : null;
+
+        List<DocumentField> selected = new ArrayList<>(fields);
+        query.multiselect(selected.stream()
+            .<Selection<?>>map(field -> attribute(document, student, field).alias(field.name()))
+            .toList());
+
+        List<Predicate> where = new ArrayList<>();
+        where.add(document.get("id").in(ids));
+        if (studentId != null) {
+            where.add(cb.equal(document.get("student").get("id"), studentId));
+        }
+        query.where(where.toArray(new Predicate[0]));
+
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (Tuple tuple : entityManager.createQuery(query).getResultList()) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (DocumentField field : selected) {
+                row.put(field.getJsonName(), field.toJsonValue(tuple.get(field.name())));
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    @Override
+    public List<DocumentSummary> findSummaryPage(Long studentId, String documentType, LocalDateTime fromDate,
+                                                 LocalDateTime toDate, LocalDateTime cursorDate, Long cursorId,
+                                                 Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<DocumentSummary> query = cb.createQuery(DocumentSummary.class);
+        Root<Document> document = query.from(Document.class);
+        Join<Document, ?> student = document.join("student");
+        query.select(cb.construct(DocumentSummary.class,
+            document.get("id"), document.get("filename"), document.get("documentType"),
+            document.get("description"), document.get("fileSize"), document.get("uploadDate"),
+            student.get("id"), student.get("username"), document.get("blockchainTxHash")));
+        keyset(cb, query, document, studentId, documentType, fromDate, toDate, cursorDate, cursorId);
+        return page(entityManager.createQuery(query), pageable);
+    }
+
+    @Override
+    public List<Document> findBatchWithStudent(Long studentId, String documentType, LocalDateTime fromDate,
+                                               LocalDateTime toDate, LocalDateTime cursorDate, Long cursorId,
+                                               Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Document> query = cb.createQuery(Document.class);
+        Root<Document> document = query.from(Document.class);
+        document.fetch("student");
+        keyset(cb, query, document, studentId, documentType, fromDate, toDate, cursorDate, cursorId);
+        return page(entityManager.createQuery(query), pageable);
+    }
+
+    // Filters that are set, the position after the cursor, newest first
+    private void keyset(CriteriaBuilder cb, CriteriaQuery<?> query, Root<Document> document,
+                        Long studentId, String documentType, LocalDateTime fromDate, LocalDateTime toDate,
+                        LocalDateTime cursorDate, Long cursorId) {
+        Path<LocalDateTime> uploadDate = document.get("uploadDate");
+        Path<Long> id = document.get("id");
+
+        List<Predicate> where = new ArrayList<>();
+        if (studentId != null) {
+            where.add(cb.equal(document.get("student").get("id"), studentId));
+        }
+        if (documentType != null) {
+            where.add(cb.equal(document.get("documentType"), documentType));
+        }
+        if (fromDate != null) {
+            where.add(cb.greaterThanOrEqualTo(uploadDate, fromDate));
+        }
+        if (toDate != null) {
+            where.add(cb.lessThan(uploadDate, toDate));
+        }
+        if (cursorDate != null) {
+            where.add(cb.or(
+                cb.lessThan(uploadDate, cursorDate),
+                cb.and(cb.equal(uploadDate, cursorDate), cb.lessThan(id, cursorId))));
+        }
+        query.where(where.toArray(new Predicate[0]));
+        query.orderBy(cb.desc(uploadDate), cb.desc(id));
+    }
+
+    private <T> List<T> page(TypedQuery<T> query, Pageable pageable) {
+        return query
+            .setFirstResult((int) pageable.getOffset())
+            .setMaxResults(pageable.getPageSize())
+            .getResultList();
+    }
+
+    // student.id is the documents foreign key and needs no join
+    private Path<?> attribute(Root<Document> document, From<Document, ?> student, DocumentField field) {
+        String[] segments = field.getAttributePath().split("\\.");
+        Path<?> path = field.needsStudentJoin() ? student : document;
+        for (int i = field.needsStudentJoin() ? 1 : 0; i < segments.length; i++) {
+            path = path.get(segments[i]);
+        }
+        return path;
+    }
+}
@@ -0,0 +1,100 @@
+package com.educhain.document_system.repository;
+
+
+import com.educhain.document_system.model.DocumentStat;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface DocumentStatRepository extends JpaRepository<DocumentStat, Long> {
+
+    // Find the counters for one slice
+    Optional<DocumentStat> findByScopeAndScopeKey(DocumentStat.Scope scope, String scopeKey);
+
+    boolean existsByScopeAndScopeKey(DocumentStat.Scope scope, String scopeKey);
+
+    // All slices of a scope, largest first
+    List<DocumentStat> findByScopeOrderByDocumentCountDesc(DocumentStat.Scope scope, Pageable pageable);
+
+    // All slices of a scope, newest key first (used for days)
+    List<DocumentStat> findByScopeOrderByScopeKeyDesc(DocumentStat.Scope scope, Pageable pageable);
+
+    // All slices of a scope
+    List<DocumentStat> findByScope(DocumentStat.Scope scope);
+
+    // Add deltas to a slice, creating it on first use; must run inside the caller's transaction.
+    // The hint names the table written, or Hibernate evicts every second-level cache region.
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "document_stats"))
+    @Query(value = "INSERT INTO document_stats (scope, scope_key, document_count, total_bytes, anchored_count) " +
+                   "VALUES (:scope, :scopeKey, :documents, :bytes, :anchored) " +
+                   "ON DUPLICATE KEY UPDATE " +
+                   "document_count = document_count + VALUES(document_count), " +
+                   "total_bytes = total_bytes + VALUES(total_bytes), " +
+                   "anchored_count = anchored_count + VALUES(anchored_count)",
+           nativeQuery = true)
+    void addToStat(@Param("scope") String scope,
+                   @Param("scopeKey") String scopeKey,
+                   @Param("documents") long documents,
+                   @Param("bytes") long bytes,
+                   @Param("anchored") long anchored);
+
+    // Create a slice with zero counters unless it exists, committed on its own so the insert holds no other locks
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "document_stats"))
+    @Query(value = "INSERT IGNORE INTO document_stats (scope, scope_key, document_count, total_bytes, anchored_count) " +
+                   "VALUES (:scope, :scopeKey, 0, 0, 0)",
+           nativeQuery = true)
+    void createStatIfMissing(@Param("scope") String scope, @Param("scopeKey") String scopeKey);
+
+    // Overwrite a slice with reconciled values
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "document_stats"))
+    @Query(value = "INSERT INTO document_stats (scope, scope_key, document_count, total_bytes, anchored_count) " +
+                   "VALUES (:scope, :scopeKey, :documents, :bytes, :anchored) " +
+                   "ON DUPLICATE KEY UPDATE " +
+                   "document_count = VALUES(document_count), " +
+                   "total_bytes = VALUES(total_bytes), " +
+                   "anchored_count = VALUES(anchored_count)",
+           nativeQuery = true)
+    void setStat(@Param("scope") String scope,
+                 @Param("scopeKey") String scopeKey,
+                 @Param("documents") long documents,
+                 @Param("bytes") long bytes,
+                 @Param("anchored") long anchored);
+
+    // Ground truth aggregates, as [key, count, bytes, anchored] rows
+    @Query(value = "SELECT 'all', COUNT(*), COALESCE(SUM(file_size), 0), " +
+                   "COALESCE(SUM(CASE WHEN blockchain_tx_hash IS NOT NULL THEN 1 ELSE 0 END), 0) FROM documents",
+           nativeQuery = true)
+    List<Object[]> aggregateTotal();
+
+    @Query(value = "SELECT CAST(student_id AS CHAR), COUNT(*), COALESCE(SUM(file_size), 0), " +
+                   "COALESCE(SUM(CASE WHEN blockchain_tx_hash IS NOT NULL THEN 1 ELSE 0 END), 0) " +
+                   "FROM documents GROUP BY student_id",
+           nativeQuery = true)
+    List<Object[]> aggregateByStudent();
+
+    @Query(value = "SELECT COALESCE(document_type, 'General'), COUNT(*), COALESCE(SUM(file_size), 0), " +
+                   "COALESCE(SUM(CASE WHEN blockchain_tx_hash IS NOT NULL THEN 1 ELSE 0 END), 0) " +
+                   "FROM documents GROUP BY COALESCE(document_type, 'General')",
+           nativeQuery = true)
+    List<Object[]> aggregateByType();
+
+    @Query(value = "SELECT CAST(DATE(upload_date) AS CHAR), COUNT(*), COALESCE(SUM(file_size), 0), " +
+                   "COALESCE(SUM(CASE WHEN blockchain_tx_hash IS NOT NULL THEN 1 ELSE 0 END), 0) " +
+                   "FROM documents GROUP BY DATE(upload_date)",
+           nativeQuery = true)
+    List<Object[]> aggregateByDay();
+}
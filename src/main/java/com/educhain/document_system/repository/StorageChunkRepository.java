@@ -0,0 +1,43 @@
+package com.educhain.document_system.repository;
+
+
+import com.educhain.document_system.model.StorageChunk;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.util.List;
+
+@Repository
+public interface StorageChunkRepository extends JpaRepository<StorageChunk, String> {
+
+    // Add a reference to a chunk, creating it on first use; waits for a collector holding its row.
+    // Both writes declare storage_chunks so that only that table's cached data is invalidated.
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "storage_chunks"))
+    @Query(value = "INSERT INTO storage_chunks (hash, size, ref_count) VALUES (:hash, :size, 1) " +
+                   "ON DUPLICATE KEY UPDATE ref_count = ref_count + 1",
+           nativeQuery = true)
+    void addReference(@Param("hash") String hash, @Param("size") int size);
+
+    // Drop a reference to a chunk
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "storage_chunks"))
+    @Query(value = "UPDATE storage_chunks SET ref_count = ref_count - 1 WHERE hash = :hash AND ref_count > 0",
+           nativeQuery = true)
+    void removeReference(@Param("hash") String hash);
+
+    // Chunks no document references any more, in hash order after the given one
+    @Query("SELECT c.hash FROM StorageChunk c WHERE c.refCount = 0 AND c.hash > :after ORDER BY c.hash")
+    List<String> findUnreferenced(@Param("after") String after, Pageable pageable);
+
+    // Lock a chunk row for removal, if it is still unreferenced
+    @Query(value = "SELECT hash FROM storage_chunks WHERE hash = :hash AND ref_count = 0 FOR UPDATE",
+           nativeQuery = true)
+    List<String> lockUnreferenced(@Param("hash") String hash);
+}
@@ -2,7 +2,10 @@ package com.educhain.document_system.repository;
 
 
 import com.educhain.document_system.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 import java.util.Optional;
 
@@ -18,6 +21,7 @@ public interface UserRepository extends JpaRepository<User, Long> {
     // Find user by username and password (for login)
     Optional<User> findByUsernameAndPassword(String username, String password);
     
-    // Find users by role
+    // Find users by role (query-cached for the admin student picker)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     java.util.List<User> findByRole(User.Role role);
 }
\ No newline at end of file
@@ -1,6 +1,7 @@
 package com.educhain.document_system.service;
 // Service to handle blockchain interactions
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.web3j.crypto.Credentials;
@@ -8,10 +9,15 @@ import org.web3j.protocol.Web3j;
 import org.web3j.protocol.http.HttpService;
 import org.web3j.protocol.core.methods.response.TransactionReceipt;
 import org.web3j.tx.gas.DefaultGasProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import java.math.BigInteger;
+import java.util.concurrent.locks.ReentrantLock;
 
 @Service
 public class BlockchainService {
+
+    private static final Logger log = LoggerFactory.getLogger(BlockchainService.class);
     
     @Value("${blockchain.rpc.url}")
     private String rpcUrl;
@@ -19,28 +25,42 @@ public class BlockchainService {
     @Value("${blockchain.private.key}")
     private String privateKey;
     
-    private Web3j web3j;
-    private Credentials credentials;
+    @Autowired
+    private UpstreamLimiter upstreamLimiter;
+    
+    // Created on first use, not at startup
+    private volatile Web3j web3j;
+    private volatile Credentials credentials;
+    private final ReentrantLock initLock = new ReentrantLock();
     
-    // Initialize blockchain connection
+    // Initialize blockchain connection (once, even when called concurrently)
     public void initializeBlockchain() {
+        initLock.lock();
         try {
-            // Connect to Ganache
-            web3j = Web3j.build(new HttpService(rpcUrl));
+            if (web3j != null) {
+                return;
+            }
             
             // Load credentials (you'll set this later)
             if (privateKey != null && !privateKey.isEmpty()) {
                 credentials = Credentials.create(privateKey);
             }
             
-            System.out.println("Blockchain connection initialized!");
+            // Connect to Ganache
+            web3j = Web3j.build(new HttpService(rpcUrl));
+            
+            log.info("Blockchain connection initialized");
         } catch (Exception e) {
-            System.err.println("Blockchain initialization failed: " + e.getMessage());
+            log.error("Blockchain initialization failed: {}", e.getMessage());
+        } finally {
+            initLock.unlock();
         }
     }
     
     // Store document hash on blockchain
     public String storeDocumentHash(String fileHash, String studentWallet) {
+        ExternalCallEvent call = new ExternalCallEvent("blockchain", "storeDocumentHash");
+        call.start();
         try {
             if (web3j == null) {
                 initializeBlockchain();
@@ -48,20 +68,24 @@ public class BlockchainService {
             
             // For now, return a mock transaction hash
             // We'll implement the actual smart contract interaction later
-            String mockTxHash = "0x" + generateMockTxHash();
-            System.out.println("Document hash stored on blockchain: " + fileHash);
-            System.out.println("Transaction Hash: " + mockTxHash);
+            String mockTxHash = upstreamLimiter.call(UpstreamLimiter.Upstream.BLOCKCHAIN,
+                () -> "0x" + generateMockTxHash());
+            log.debug("Document hash {} stored on blockchain, transaction {}", fileHash, mockTxHash);
             
+            call.finish("ok");
             return mockTxHash;
             
         } catch (Exception e) {
-            System.err.println("Failed to store on blockchain: " + e.getMessage());
+            call.finish("error");
+            log.error("Failed to store on blockchain: {}", e.getMessage());
             return null;
         }
     }
     
     // Verify document hash on blockchain
     public boolean verifyDocumentHash(String fileHash) {
+        ExternalCallEvent call = new ExternalCallEvent("blockchain", "verifyDocumentHash");
+        call.start();
         try {
             if (web3j == null) {
                 initializeBlockchain();
@@ -69,11 +93,13 @@ public class BlockchainService {
             
             // For now, return true (mock verification)
             // We'll implement actual verification with smart contract later
-            System.out.println("Verifying document hash: " + fileHash);
+            log.debug("Verifying document hash {}", fileHash);
+            call.finish("ok");
             return true;
             
         } catch (Exception e) {
-            System.err.println("Verification failed: " + e.getMessage());
+            call.finish("error");
+            log.error("Blockchain verification failed: {}", e.getMessage());
             return false;
         }
     }
@@ -96,7 +122,9 @@ public class BlockchainService {
             if (web3j == null) {
                 initializeBlockchain();
             }
-            return web3j.netVersion().send().getNetVersion();
+            return upstreamLimiter.call(UpstreamLimiter.Upstream.BLOCKCHAIN, () ->
+                new ExternalCallEvent("blockchain", "net_version")
+                    .time(() -> web3j.netVersion().send().getNetVersion()));
         } catch (Exception e) {
             return "Unknown";
         }
@@ -0,0 +1,59 @@
+package com.educhain.document_system.service;
+
+import com.educhain.document_system.model.Document;
+import com.educhain.document_system.model.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Hit/miss figures for the Hibernate second-level and query caches.
+ */
+@Service
+public class CacheStatisticsService {
+
+    private static final String QUERY_REGION = "default-query-results-region";
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    // Per-region and overall cache statistics since startup
+    public Map<String, Object> getCacheStatistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        Map<String, Object> regions = new LinkedHashMap<>();
+        regions.put("users", regionStats(statistics.getDomainDataRegionStatistics(User.class.getName())));
+        regions.put("documents", regionStats(statistics.getDomainDataRegionStatistics(Document.class.getName())));
+        regions.put("queries", regionStats(statistics.getQueryRegionStatistics(QUERY_REGION)));
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("secondLevelHitRatio", ratio(statistics.getSecondLevelCacheHitCount(),
+                                                statistics.getSecondLevelCacheMissCount()));
+        result.put("queryCacheHitRatio", ratio(statistics.getQueryCacheHitCount(),
+                                               statistics.getQueryCacheMissCount()));
+        result.put("regions", regions);
+        return result;
+    }
+
+    private Map<String, Object> regionStats(CacheRegionStatistics region) {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        if (region == null) {
+            return stats;
+        }
+        stats.put("hits", region.getHitCount());
+        stats.put("misses", region.getMissCount());
+        stats.put("puts", region.getPutCount());
+        stats.put("hitRatio", ratio(region.getHitCount(), region.getMissCount()));
+        return stats;
+    }
+
+    private double ratio(long hits, long misses) {
+        long total = hits + misses;
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+}
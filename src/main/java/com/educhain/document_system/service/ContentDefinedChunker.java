@@ -0,0 +1,84 @@
+package com.educhain.document_system.service;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Content-defined chunk boundaries (FastCDC). A Gear rolling hash, which only depends on the last
+ * 64 bytes, decides where a chunk ends, so an edit moves the boundaries near it and the chunks
+ * before and after it come out identical in both files. Before the average size a stricter mask
+ * is used and after it a looser one, which keeps chunk sizes close to the average; no chunk but
+ * the last is shorter than MIN_SIZE, and none is longer than MAX_SIZE.
+ *
+ * The gear table and the sizes decide which chunks existing documents share with new uploads:
+ * changing them does not break stored documents, but new uploads stop deduplicating against them.
+ * (Package-private for the benchmarks module.)
+ */
+final class ContentDefinedChunker {
+
+    static final int MIN_SIZE = 2 * 1024;
+    static final int AVERAGE_SIZE = 8 * 1024;
+    static final int MAX_SIZE = 64 * 1024;
+
+    // 13 bits for the 8 KB average, two more before it and two fewer after it. The top bits are
+    // used because the low bits of a Gear hash only depend on the last few bytes.
+    private static final long MASK_STRICT = topBits(15);
+    private static final long MASK_LOOSE = topBits(11);
+
+    private static final long[] GEAR = gearTable(0x45647543_6e6b7331L);
+
+    private ContentDefinedChunker() {
+    }
+
+    // End offsets (exclusive) of the chunks of data, in order; none for empty data
+    static int[] boundaries(byte[] data) {
+        int[] ends = new int[data.length / MIN_SIZE + 1];
+        int count = 0;
+        int start = 0;
+        while (start < data.length) {
+            start = cut(data, start);
+            ends[count++] = start;
+        }
+        return Arrays.copyOf(ends, count);
+    }
+
+    // End of the chunk starting at start
+    private static int cut(byte[] data, int start) {
+        int remaining = data.length - start;
+        if (remaining <= MIN_SIZE) {
+            return data.length;
+        }
+        int normal = start + Math.min(remaining, AVERAGE_SIZE);
+        int end = start + Math.min(remaining, MAX_SIZE);
+
+        long hash = 0;
+        int i = start + MIN_SIZE;
+        for (; i < normal; i++) {
+            hash = (hash << 1) + GEAR[data[i] & 0xff];
+            if ((hash & MASK_STRICT) == 0) {
+                return i + 1;
+            }
+        }
+        for (; i < end; i++) {
+            hash = (hash << 1) + GEAR[data[i] & 0xff];
+            if ((hash & MASK_LOOSE) == 0) {
+                return i + 1;
+            }
+        }
+        return end;
+    }
+
+    private static long topBits(int bits) {
+        return -1L << (Long.SIZE - bits);
+    }
+
+    // SplittableRandom's sequence is specified, so the table is the same on every JVM
+    private static long[] gearTable(long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        long[] table = new long[256];
+        for (int i = 0; i < table.length; i++) {
+            table[i] = random.nextLong();
+        }
+        return table;
+    }
+}
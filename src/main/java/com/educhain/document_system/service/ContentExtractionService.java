@@ -0,0 +1,280 @@
+package com.educhain.document_system.service;
+
+import com.educhain.document_system.model.Document;
+import com.educhain.document_system.model.DocumentContent;
+import com.educhain.document_system.repository.DocumentContentRepository;
+import com.educhain.document_system.repository.DocumentRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Extracts searchable text from stored files on a bounded background pool.
+ * PDFs are read with PDFBox; images go through an external OCR command when one is configured.
+ * Work is keyed by file hash, so a file is extracted at most once; a failed extraction is retried
+ * by the periodic sweep until extraction.max-attempts.
+ */
+@Service
+public class ContentExtractionService {
+
+    private static final Logger log = LoggerFactory.getLogger(ContentExtractionService.class);
+
+    private static final List<String> IMAGE_EXTENSIONS = List.of(".jpg", ".jpeg", ".png", ".gif", ".webp", ".tif", ".tiff");
+
+    @Autowired
+    private DocumentContentRepository documentContentRepository;
+
+    @Autowired
+    private DocumentRepository documentRepository;
+
+    @Autowired
+    private DocumentSearchService documentSearchService;
+
+    @Autowired
+    private DocumentStorageService documentStorageService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${extraction.workers:2}")
+    private int workers;
+
+    @Value("${extraction.queue-capacity:500}")
+    private int queueCapacity;
+
+    @Value("${extraction.max-chars:200000}")
+    private int maxChars;
+
+    // e.g. "tesseract"; invoked as "<command> <image> stdout". Empty disables OCR.
+    @Value("${extraction.ocr.command:}")
+    private String ocrCommand;
+
+    @Value("${extraction.ocr.timeout-seconds:60}")
+    private long ocrTimeoutSeconds;
+
+    @Value("${extraction.max-attempts:3}")
+    private int maxAttempts;
+
+    private ThreadPoolExecutor executor;
+
+    // File hashes queued or being extracted right now
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+
+    @PostConstruct
+    public void start() {
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = new ThreadPoolExecutor(
+            workers, workers, 60, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            runnable -> {
+                Thread thread = new Thread(runnable, "content-extraction-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.AbortPolicy()
+        );
+        // Queue depth, active workers and task timings
+        new ExecutorServiceMetrics(executor, "content-extraction", List.of()).bindTo(meterRegistry);
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Queue text extraction for a document. Never blocks and never extracts on the caller's thread;
+     * if the queue is full the document is left for the periodic sweep.
+     */
+    public void submit(Document document) {
+        String fileHash = document.getFileHash();
+        if (fileHash == null || !inFlight.add(fileHash)) {
+            return;
+        }
+
+        try {
+            executor.execute(() -> extract(document));
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(fileHash);
+        }
+    }
+
+    // Pick up documents that were never processed (queue overflow, restart, older uploads), then
+    // retry failed ones
+    @Scheduled(initialDelayString = "${extraction.sweep-initial-delay-ms:60000}",
+               fixedDelayString = "${extraction.sweep-interval-ms:300000}")
+    public void sweepPending() {
+        int room = executor.getQueue().remainingCapacity();
+        if (room == 0) {
+            return;
+        }
+        List<Document> pending = documentContentRepository.findDocumentsWithoutContent(PageRequest.of(0, room));
+        for (Document document : pending) {
+            submit(document);
+        }
+        room -= pending.size();
+        if (room > 0) {
+            for (Document document : documentContentRepository.findDocumentsToRetry(
+                    DocumentContent.Status.FAILED, maxAttempts, PageRequest.of(0, room))) {
+                submit(document);
+            }
+        }
+    }
+
+    // Number of extractions waiting for a worker
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    private void extract(Document document) {
+        Long documentId = document.getId();
+        String fileHash = document.getFileHash();
+        try {
+            DocumentContent existing = documentContentRepository.findByFileHash(fileHash).orElse(null);
+            if (existing == null) {
+                DocumentContent content = extractContent(document);
+                try {
+                    documentContentRepository.save(content);
+                } catch (DataIntegrityViolationException e) {
+                    // Another worker or instance stored the same file hash first
+                }
+            } else if (existing.getStatus() == DocumentContent.Status.FAILED && attempts(existing) < maxAttempts) {
+                DocumentContent content = extractContent(document);
+                existing.setStatus(content.getStatus());
+                existing.setContent(content.getContent());
+                existing.setExtractedAt(content.getExtractedAt());
+                existing.setAttempts(attempts(existing) + 1);
+                documentContentRepository.save(existing);
+            }
+            documentSearchService.reindexDocument(documentId);
+        } catch (Exception e) {
+            log.error("Content extraction failed for document {}", documentId, e);
+        } finally {
+            inFlight.remove(fileHash);
+        }
+    }
+
+    // Rows stored before attempts were counted had one
+    private int attempts(DocumentContent content) {
+        return content.getAttempts() != null ? content.getAttempts() : 1;
+    }
+
+    private DocumentContent extractContent(Document document) {
+        String filename = document.getFilename();
+        String fileHash = document.getFileHash();
+        Path copy = null;
+        try {
+            Path path = documentStorageService.getUncompressedPath(document);
+            if (path == null) {
+                // Archived: PDFBox and OCR need a plain file, so decompress a temporary copy
+                copy = Files.createTempFile("extraction-", ".tmp");
+                try (InputStream in = documentStorageService.open(document)) {
+                    Files.copy(in, copy, StandardCopyOption.REPLACE_EXISTING);
+                }
+                path = copy;
+            }
+            String text;
+            if (isPdf(path)) {
+                text = extractPdfText(path);
+            } else if (isImage(filename) && !ocrCommand.isBlank()) {
+                text = runOcr(path);
+            } else {
+                return new DocumentContent(fileHash, DocumentContent.Status.UNSUPPORTED, null);
+            }
+            return new DocumentContent(fileHash, DocumentContent.Status.EXTRACTED, normalize(text));
+        } catch (Exception e) {
+            log.warn("Failed to extract text from {}: {}", filename, e.getMessage());
+            return new DocumentContent(fileHash, DocumentContent.Status.FAILED, null);
+        } finally {
+            deleteQuietly(copy);
+        }
+    }
+
+    private void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.debug("Could not delete temporary file {}: {}", path, e.getMessage());
+        }
+    }
+
+    private String extractPdfText(Path path) throws IOException {
+        try (PDDocument pdf = Loader.loadPDF(path.toFile())) {
+            return new PDFTextStripper().getText(pdf);
+        }
+    }
+
+    private String runOcr(Path path) throws IOException, InterruptedException {
+        // Output goes to a file: reading a pipe would block past the timeout on a hung command
+        Path output = Files.createTempFile("ocr-", ".txt");
+        try {
+            Process process = new ProcessBuilder(ocrCommand, path.toString(), "stdout")
+                .redirectOutput(output.toFile())
+                .redirectError(ProcessBuilder.Redirect.DISCARD)
+                .start();
+            try {
+                if (!process.waitFor(ocrTimeoutSeconds, TimeUnit.SECONDS)) {
+                    process.destroyForcibly();
+                    throw new IOException("OCR timed out");
+                }
+            } catch (InterruptedException e) {
+                process.destroyForcibly();
+                throw e;
+            }
+            if (process.exitValue() != 0) {
+                throw new IOException("OCR exited with status " + process.exitValue());
+            }
+            return new String(Files.readAllBytes(output), StandardCharsets.UTF_8);
+        } finally {
+            deleteQuietly(output);
+        }
+    }
+
+    // Collapse whitespace and cap the stored size
+    private String normalize(String text) {
+        String compact = text.replaceAll("\\s+", " ").trim();
+        return compact.length() > maxChars ? compact.substring(0, maxChars) : compact;
+    }
+
+    private boolean isPdf(Path path) throws IOException {
+        try (InputStream in = Files.newInputStream(path)) {
+            byte[] header = in.readNBytes(5);
+            return new String(header, StandardCharsets.US_ASCII).equals("%PDF-");
+        }
+    }
+
+    private boolean isImage(String filename) {
+        String lower = filename != null ? filename.toLowerCase(Locale.ROOT) : "";
+        return IMAGE_EXTENSIONS.stream().anyMatch(lower::endsWith);
+    }
+}
@@ -0,0 +1,250 @@
+package com.educhain.document_system.service;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Binary deltas between two versions of a file. The encoder indexes the base in fixed blocks by
+ * a rolling hash, slides over the new version looking for blocks it already contains, extends
+ * each match in both directions and emits COPY (offset, length from the base) and ADD (literal
+ * bytes) instructions. The decoder is a stream that reads COPY ranges from the base file at their
+ * offsets, so reconstruction never holds either version in memory.
+ *
+ * Format: "EDD1", varint base length, varint target length, then instructions until the target
+ * length is produced: 'C' varint offset varint length, or 'A' varint length followed by the bytes.
+ * (Package-private for the benchmarks module.)
+ */
+final class DeltaCodec {
+
+    private static final byte[] MAGIC = "EDD1".getBytes(StandardCharsets.US_ASCII);
+    private static final byte COPY = 'C';
+    private static final byte ADD = 'A';
+
+    // Matches shorter than a block are not found; smaller blocks find more, at a larger index
+    private static final int BLOCK = 32;
+    private static final int PRIME = 0x01000193;
+    private static final int PRIME_POWER = power(PRIME, BLOCK - 1);
+
+    private DeltaCodec() {
+    }
+
+    // Delta that turns base into target
+    static byte[] encode(byte[] base, byte[] target) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, target.length / 8));
+        out.writeBytes(MAGIC);
+        writeVarint(out, base.length);
+        writeVarint(out, target.length);
+
+        int blocks = base.length / BLOCK;
+        int tableSize = Integer.highestOneBit(Math.max(1, blocks * 2 - 1)) << 1;
+        int mask = tableSize - 1;
+        // Block number + 1 per hash slot; on collisions the first block wins, matches are verified anyway
+        int[] table = new int[tableSize];
+        for (int block = 0; block < blocks; block++) {
+            int slot = slot(hash(base, block * BLOCK), mask);
+            if (table[slot] == 0) {
+                table[slot] = block + 1;
+            }
+        }
+
+        int literalStart = 0;
+        int position = 0;
+        int hash = target.length >= BLOCK ? hash(target, 0) : 0;
+        while (blocks > 0 && position + BLOCK <= target.length) {
+            int candidate = table[slot(hash, mask)] - 1;
+            if (candidate >= 0) {
+                int baseStart = candidate * BLOCK;
+                if (Arrays.equals(base, baseStart, baseStart + BLOCK, target, position, position + BLOCK)) {
+                    // Grow the match backwards into the pending literal and forwards past the block
+                    int start = position;
+                    while (start > literalStart && baseStart > 0 && base[baseStart - 1] == target[start - 1]) {
+                        start--;
+                        baseStart--;
+                    }
+                    int length = position + BLOCK - start;
+                    while (start + length < target.length && baseStart + length < base.length
+                            && base[baseStart + length] == target[start + length]) {
+                        length++;
+                    }
+
+                    writeAdd(out, target, literalStart, start);
+                    out.write(COPY);
+                    writeVarint(out, baseStart);
+                    writeVarint(out, length);
+
+                    position = start + length;
+                    literalStart = position;
+                    if (position + BLOCK <= target.length) {
+                        hash = hash(target, position);
+                    }
+                    continue;
+                }
+            }
+            if (position + BLOCK < target.length) {
+                hash = (hash - target[position] * PRIME_POWER) * PRIME + target[position + BLOCK];
+            }
+            position++;
+        }
+        writeAdd(out, target, literalStart, target.length);
+        return out.toByteArray();
+    }
+
+    /**
+     * The target, reconstructed from a delta stream and the base file it was encoded against.
+     * Closing the stream closes both.
+     */
+    static InputStream decode(InputStream delta, FileChannel base) throws IOException {
+        return new DecodingStream(new BufferedInputStream(delta, 64 * 1024), base);
+    }
+
+    private static final class DecodingStream extends InputStream {
+
+        private final InputStream delta;
+        private final FileChannel base;
+        private final long targetLength;
+        private long produced;
+
+        // Instruction being replayed
+        private byte instruction;
+        private long remaining;
+        private long baseOffset;
+
+        DecodingStream(InputStream delta, FileChannel base) throws IOException {
+            this.delta = delta;
+            this.base = base;
+            try {
+                byte[] magic = delta.readNBytes(MAGIC.length);
+                if (!Arrays.equals(magic, MAGIC)) {
+                    throw new IOException("Not a document delta");
+                }
+                long baseLength = readVarint(delta);
+                if (baseLength != base.size()) {
+                    throw new IOException("Delta base has " + base.size() + " bytes, expected " + baseLength);
+                }
+                this.targetLength = readVarint(delta);
+            } catch (IOException e) {
+                close();
+                throw e;
+            }
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] one = new byte[1];
+            return read(one, 0, 1) == -1 ? -1 : one[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            if (length == 0) {
+                return 0;
+            }
+            while (remaining == 0) {
+                if (produced == targetLength) {
+                    return -1;
+                }
+                nextInstruction();
+            }
+
+            int count = (int) Math.min(length, remaining);
+            if (instruction == ADD) {
+                count = delta.read(buffer, offset, count);
+                if (count == -1) {
+                    throw new EOFException("Delta ends inside a literal");
+                }
+            } else {
+                count = base.read(ByteBuffer.wrap(buffer, offset, count), baseOffset);
+                if (count == -1) {
+                    throw new EOFException("Delta copies past the end of its base");
+                }
+                baseOffset += count;
+            }
+            remaining -= count;
+            produced += count;
+            return count;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                delta.close();
+            } finally {
+                base.close();
+            }
+        }
+
+        private void nextInstruction() throws IOException {
+            int type = delta.read();
+            if (type == COPY) {
+                baseOffset = readVarint(delta);
+                remaining = readVarint(delta);
+            } else if (type == ADD) {
+                remaining = readVarint(delta);
+            } else {
+                throw new IOException(type == -1 ? "Delta ends early" : "Corrupt delta instruction " + type);
+            }
+            if (produced + remaining > targetLength) {
+                throw new IOException("Delta produces more than its target length");
+            }
+            instruction = (byte) type;
+        }
+    }
+
+    private static void writeAdd(ByteArrayOutputStream out, byte[] target, int from, int to) {
+        if (to > from) {
+            out.write(ADD);
+            writeVarint(out, to - from);
+            out.write(target, from, to - from);
+        }
+    }
+
+    private static int hash(byte[] data, int offset) {
+        int hash = 0;
+        for (int i = offset; i < offset + BLOCK; i++) {
+            hash = hash * PRIME + data[i];
+        }
+        return hash;
+    }
+
+    private static int slot(int hash, int mask) {
+        return (hash * 0x9E3779B1 >>> 7) & mask;
+    }
+
+    private static int power(int value, int exponent) {
+        int result = 1;
+        for (int i = 0; i < exponent; i++) {
+            result *= value;
+        }
+        return result;
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readVarint(InputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.read();
+            if (b == -1) {
+                throw new EOFException("Delta ends inside a number");
+            }
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Corrupt delta number");
+    }
+}
@@ -0,0 +1,47 @@
+package com.educhain.document_system.service;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A read, write or delete of a stored document file.
+ */
+@Name("educhain.DiskOperation")
+@Label("Document Disk Operation")
+@Category({"EduChain", "Storage"})
+@Description("Read, write or delete of a stored document file")
+@StackTrace(false)
+class DiskOperationEvent extends TracedEvent {
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Path")
+    String path;
+
+    @Label("Bytes")
+    @DataAmount
+    long bytes;
+
+    @Label("Outcome")
+    String outcome;
+
+    DiskOperationEvent(String operation, String path) {
+        this.operation = operation;
+        this.path = path;
+    }
+
+    @Override
+    void setOutcome(String outcome) {
+        this.outcome = outcome;
+    }
+
+    @Override
+    String traceName() {
+        return "disk." + operation;
+    }
+}
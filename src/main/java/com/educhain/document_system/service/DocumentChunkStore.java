@@ -0,0 +1,489 @@
+package com.educhain.document_system.service;
+
+import com.educhain.document_system.repository.StorageChunkRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.LongConsumer;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Deduplicated document storage. An upload is cut into content-defined chunks, each chunk is
+ * stored once under its SHA-256 on the volume that owns that hash, and the document's own file
+ * becomes a manifest listing its chunks in order, so documents generated from the same template
+ * share most of their bytes on disk. The storage_chunks table counts the documents referencing
+ * each chunk. Downloads read the next few chunks ahead on their volumes' I/O threads, so a
+ * document spread over several disks is read from all of them at once.
+ *
+ * An upload takes its references before it looks for the chunk files, and the collector deletes
+ * a chunk file only while holding the chunk's row with no references, so an upload either waits
+ * for the collector and writes the chunk again, or keeps it from being collected. A crash between
+ * taking references and saving the document leaves the references behind: the chunks stay stored
+ * rather than ever going missing.
+ */
+@Service
+public class DocumentChunkStore {
+
+    private static final Logger log = LoggerFactory.getLogger(DocumentChunkStore.class);
+
+    private static final byte[] MAGIC = "EDC1".getBytes(StandardCharsets.US_ASCII);
+    private static final int HASH_BYTES = 32;
+    private static final int BATCH_SIZE = 500;
+    // Below this many chunks hashing is cheaper than handing it to the pool
+    private static final int PARALLEL_CHUNKS = 16;
+    // Chunks read ahead of the one being streamed (at most 64 KB each)
+    private static final int READ_AHEAD = 4;
+
+    @Autowired
+    private StorageChunkRepository chunkRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private DurableFileWriter durableFileWriter;
+
+    @Autowired
+    private StorageVolumes storageVolumes;
+
+    @Value("${storage.chunks.enabled:false}")
+    private boolean enabled;
+
+    @Value("${storage.chunks.parallelism:4}")
+    private int parallelism;
+
+    private ForkJoinPool pool;
+
+    @PostConstruct
+    public void start() {
+        pool = new ForkJoinPool(parallelism);
+    }
+
+    @PreDestroy
+    public void stop() {
+        pool.shutdownNow();
+    }
+
+    // Whether new uploads are stored as chunk manifests
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Store the chunks of an upload and return its manifest. Boundaries are found in one pass,
+     * chunks are hashed in parallel, and chunks not stored yet are handed to the group-commit
+     * writer together; when this returns, every chunk is durable and referenced once more.
+     */
+    public ChunkedContent ingest(byte[] bytes) throws IOException {
+        int[] ends = ContentDefinedChunker.boundaries(bytes);
+        String[] hashes = hashChunks(bytes, ends);
+
+        // Distinct chunks as hash -> [start, end], sorted so concurrent uploads lock their rows in the same order
+        Map<String, int[]> distinct = new TreeMap<>();
+        for (int i = 0; i < ends.length; i++) {
+            distinct.putIfAbsent(hashes[i], new int[] {start(ends, i), ends[i]});
+        }
+        List<String> references = new ArrayList<>(distinct.keySet());
+        transactionTemplate.executeWithoutResult(status ->
+            distinct.forEach((hash, range) -> chunkRepository.addReference(hash, range[1] - range[0])));
+
+        long newBytes = 0;
+        try {
+            List<CompletableFuture<Void>> writes = new ArrayList<>();
+            for (Map.Entry<String, int[]> entry : distinct.entrySet()) {
+                if (locate(entry.getKey()) != null) {
+                    continue;
+                }
+                Path path = chunkPath(storageVolumes.forHash(entry.getKey()), entry.getKey());
+                int[] range = entry.getValue();
+                Files.createDirectories(path.getParent());
+                writes.add(durableFileWriter.write(path, Arrays.copyOfRange(bytes, range[0], range[1])));
+                newBytes += range[1] - range[0];
+            }
+            for (CompletableFuture<Void> write : writes) {
+                DurableFileWriter.await(write);
+            }
+        } catch (IOException | RuntimeException e) {
+            discard(references);
+            throw e;
+        }
+
+        meterRegistry.counter("storage.chunks.bytes", "kind", "new").increment(newBytes);
+        meterRegistry.counter("storage.chunks.bytes", "kind", "duplicate").increment(bytes.length - newBytes);
+        return new ChunkedContent(manifest(bytes.length, hashes, ends), references);
+    }
+
+    // The original bytes of a manifest, read chunk by chunk
+    public InputStream open(Path manifest) throws IOException {
+        return new ReassemblingStream(readManifest(manifest));
+    }
+
+    // The distinct chunks a manifest references
+    public List<String> references(Path manifest) throws IOException {
+        return new ArrayList<>(new TreeSet<>(Arrays.asList(readManifest(manifest).hashes())));
+    }
+
+    // Drop one reference to each chunk; must run inside the caller's transaction
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void release(Collection<String> chunks) {
+        new TreeSet<>(chunks).forEach(chunkRepository::removeReference);
+    }
+
+    // Give back the references of an upload that was not saved
+    public void discard(Collection<String> chunks) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> new TreeSet<>(chunks).forEach(chunkRepository::removeReference));
+        } catch (RuntimeException e) {
+            // The chunks stay stored; nothing is lost
+            log.warn("Could not release {} chunk references: {}", chunks.size(), e.getMessage());
+        }
+    }
+
+    // Delete chunks no document references any more
+    @Scheduled(initialDelayString = "${storage.chunks.gc-initial-delay-ms:600000}",
+               fixedDelayString = "${storage.chunks.gc-interval-ms:3600000}")
+    public void collectGarbage() {
+        String after = "";
+        int removed = 0;
+        List<String> batch;
+        do {
+            batch = chunkRepository.findUnreferenced(after, PageRequest.of(0, BATCH_SIZE));
+            for (String hash : batch) {
+                after = hash;
+                if (remove(hash)) {
+                    removed++;
+                }
+            }
+        } while (batch.size() == BATCH_SIZE && !Thread.currentThread().isInterrupted());
+
+        if (removed > 0) {
+            meterRegistry.counter("storage.chunks.collected").increment(removed);
+            log.info("Chunk store: removed {} unreferenced chunks", removed);
+        }
+    }
+
+    // Delete an unreferenced chunk while holding its row, so no upload can start relying on it meanwhile
+    private boolean remove(String hash) {
+        try {
+            return Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+                if (chunkRepository.lockUnreferenced(hash).isEmpty()) {
+                    return false;
+                }
+                try {
+                    for (StorageVolumes.Volume volume : storageVolumes.getAllVolumes()) {
+                        Files.deleteIfExists(chunkPath(volume, hash));
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                chunkRepository.deleteById(hash);
+                return true;
+            }));
+        } catch (RuntimeException e) {
+            log.warn("Could not remove chunk {}: {}", hash, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Move chunks stored on a volume that no longer owns them (after a volume was added or
+     * retired) to their owner. The owner's copy is durable before the misplaced one is removed,
+     * so a chunk can always be found on one of the volumes; moved reports the bytes of each move.
+     * Returns the number of chunks moved.
+     */
+    public long rebalance(LongConsumer moved) {
+        long count = 0;
+        for (StorageVolumes.Volume volume : storageVolumes.getAllVolumes()) {
+            List<Path> directories;
+            try (Stream<Path> listing = Files.list(volume.chunks())) {
+                directories = listing.filter(Files::isDirectory).sorted().toList();
+            } catch (NoSuchFileException e) {
+                continue;
+            } catch (IOException e) {
+                log.warn("Could not list chunks on {}: {}", volume.name(), e.getMessage());
+                continue;
+            }
+            for (Path directory : directories) {
+                if (Thread.currentThread().isInterrupted()) {
+                    return count;
+                }
+                count += rebalanceDirectory(volume, directory, moved);
+            }
+        }
+        return count;
+    }
+
+    private long rebalanceDirectory(StorageVolumes.Volume volume, Path directory, LongConsumer moved) {
+        long count = 0;
+        try (DirectoryStream<Path> chunks = Files.newDirectoryStream(directory)) {
+            for (Path misplaced : chunks) {
+                String hash = misplaced.getFileName().toString();
+                StorageVolumes.Volume owner = storageVolumes.forHash(hash);
+                if (owner == volume || hash.contains(".")) {
+                    // In place, or a temporary file of a write in progress
+                    continue;
+                }
+                try {
+                    Path target = chunkPath(owner, hash);
+                    if (!Files.exists(target)) {
+                        byte[] bytes = Files.readAllBytes(misplaced);
+                        Files.createDirectories(target.getParent());
+                        durableFileWriter.writeNow(target, bytes);
+                        moved.accept(bytes.length);
+                    }
+                    Files.deleteIfExists(misplaced);
+                    count++;
+                } catch (NoSuchFileException e) {
+                    // Collected meanwhile
+                } catch (IOException e) {
+                    log.warn("Could not move chunk {} to {}: {}", hash, owner.name(), e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Could not list {}: {}", directory, e.getMessage());
+        }
+        return count;
+    }
+
+    // Where a chunk is stored: on its owner, or still on another volume until rebalancing moves it
+    private Path locate(String hash) {
+        StorageVolumes.Volume owner = storageVolumes.forHash(hash);
+        Path path = chunkPath(owner, hash);
+        if (Files.exists(path)) {
+            return path;
+        }
+        for (StorageVolumes.Volume volume : storageVolumes.getAllVolumes()) {
+            Path elsewhere = chunkPath(volume, hash);
+            if (volume != owner && Files.exists(elsewhere)) {
+                return elsewhere;
+            }
+        }
+        return null;
+    }
+
+    // Chunks are spread over 256 directories of a volume by the first byte of their hash
+    private static Path chunkPath(StorageVolumes.Volume volume, String hash) {
+        return volume.chunks().resolve(hash.substring(0, 2)).resolve(hash);
+    }
+
+    private String[] hashChunks(byte[] bytes, int[] ends) {
+        IntStream chunks = IntStream.range(0, ends.length);
+        if (ends.length < PARALLEL_CHUNKS) {
+            return chunks.mapToObj(i -> sha256Hex(bytes, start(ends, i), ends[i])).toArray(String[]::new);
+        }
+        try {
+            return pool.submit(() -> chunks.parallel()
+                .mapToObj(i -> sha256Hex(bytes, start(ends, i), ends[i]))
+                .toArray(String[]::new)).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Chunk hashing interrupted", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Chunk hashing failed: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    private static int start(int[] ends, int chunk) {
+        return chunk == 0 ? 0 : ends[chunk - 1];
+    }
+
+    private static String sha256Hex(byte[] bytes, int from, int to) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(bytes, from, to - from);
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("Hash calculation failed", e);
+        }
+    }
+
+    // Format: "EDC1", varint document length, varint chunk count, then per chunk its 32 hash bytes and varint size
+    private static byte[] manifest(long length, String[] hashes, int[] ends) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(16 + hashes.length * (HASH_BYTES + 3));
+        out.writeBytes(MAGIC);
+        writeVarint(out, length);
+        writeVarint(out, hashes.length);
+        for (int i = 0; i < hashes.length; i++) {
+            out.writeBytes(HexFormat.of().parseHex(hashes[i]));
+            writeVarint(out, ends[i] - start(ends, i));
+        }
+        return out.toByteArray();
+    }
+
+    private static Manifest readManifest(Path path) throws IOException {
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(path))) {
+            if (!Arrays.equals(in.readNBytes(MAGIC.length), MAGIC)) {
+                throw new IOException("Not a chunk manifest: " + path);
+            }
+            long length = readVarint(in);
+            int count = (int) readVarint(in);
+            String[] hashes = new String[count];
+            long[] sizes = new long[count];
+            long total = 0;
+            for (int i = 0; i < count; i++) {
+                byte[] hash = in.readNBytes(HASH_BYTES);
+                if (hash.length < HASH_BYTES) {
+                    throw new EOFException("Chunk manifest ends early: " + path);
+                }
+                hashes[i] = HexFormat.of().formatHex(hash);
+                sizes[i] = readVarint(in);
+                total += sizes[i];
+            }
+            if (total != length) {
+                throw new IOException("Chunk manifest " + path + " adds up to " + total + " bytes, expected " + length);
+            }
+            return new Manifest(hashes, sizes);
+        }
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readVarint(InputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.read();
+            if (b == -1) {
+                throw new EOFException("Chunk manifest ends inside a number");
+            }
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Corrupt chunk manifest number");
+    }
+
+    // The manifest to store as the document's file, and the distinct chunks it references
+    public record ChunkedContent(byte[] manifest, List<String> chunks) {
+    }
+
+    private record Manifest(String[] hashes, long[] sizes) {
+    }
+
+    // Concatenation of a manifest's chunks, reading the next few ahead on their volumes
+    private class ReassemblingStream extends InputStream {
+
+        private final Manifest manifest;
+        private final Deque<Future<byte[]>> ahead = new ArrayDeque<>();
+        private int requested;
+        private byte[] current;
+        private int position;
+
+        ReassemblingStream(Manifest manifest) {
+            this.manifest = manifest;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] one = new byte[1];
+            return read(one, 0, 1) == -1 ? -1 : one[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            if (length == 0) {
+                return 0;
+            }
+            while (current == null || position == current.length) {
+                if (!nextChunk()) {
+                    return -1;
+                }
+            }
+            int count = Math.min(length, current.length - position);
+            System.arraycopy(current, position, buffer, offset, count);
+            position += count;
+            return count;
+        }
+
+        @Override
+        public void close() {
+            ahead.forEach(read -> read.cancel(true));
+            ahead.clear();
+            requested = manifest.hashes().length;
+            current = null;
+        }
+
+        private boolean nextChunk() throws IOException {
+            while (requested < manifest.hashes().length && ahead.size() < READ_AHEAD) {
+                String hash = manifest.hashes()[requested];
+                long size = manifest.sizes()[requested++];
+                ahead.add(storageVolumes.forHash(hash).io().submit(() -> readChunk(hash, size)));
+            }
+            Future<byte[]> next = ahead.poll();
+            if (next == null) {
+                return false;
+            }
+            try {
+                current = next.get();
+                position = 0;
+                return true;
+            } catch (ExecutionException e) {
+                close();
+                throw e.getCause() instanceof IOException io ? io : new IOException(e.getCause());
+            } catch (InterruptedException e) {
+                close();
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while reading a chunk");
+            }
+        }
+
+        private byte[] readChunk(String hash, long size) throws IOException {
+            Path path = locate(hash);
+            if (path == null) {
+                throw new NoSuchFileException(chunkPath(storageVolumes.forHash(hash), hash).toString(), null, "chunk is missing");
+            }
+            byte[] bytes = Files.readAllBytes(path);
+            if (bytes.length != size) {
+                throw new IOException("Chunk " + hash + " has " + bytes.length + " bytes, its manifest entry " + size);
+            }
+            return bytes;
+        }
+    }
+}
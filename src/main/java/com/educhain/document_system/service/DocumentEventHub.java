@@ -0,0 +1,237 @@
+package com.educhain.document_system.service;
+
+import com.educhain.document_system.config.VirtualThreads;
+import com.educhain.document_system.model.DocumentEvent;
+import com.educhain.document_system.model.User;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Fans document lifecycle events out to Server-Sent Events connections: a student receives
+ * events for their own documents, admins receive all of them. Connections are async requests,
+ * so an idle subscriber holds a socket and an emitter but no thread. Publishing only queues:
+ * each subscriber has its own bounded queue, drained in order by one sender task at a time, so a
+ * client that reads slowly holds up its own stream and nobody else's. A client that falls
+ * max-queued-events behind is disconnected; its browser reconnects, and events missed meanwhile
+ * are not replayed. Subscribers are local to this instance.
+ */
+@Service
+public class DocumentEventHub {
+
+    private static final Logger log = LoggerFactory.getLogger(DocumentEventHub.class);
+
+    // Browsers reconnect after this long when the connection drops
+    private static final long RECONNECT_MILLIS = 5000;
+
+    @Value("${events.connection-timeout-ms:1800000}")
+    private long connectionTimeoutMs;
+
+    @Value("${events.max-connections:10000}")
+    private int maxConnections;
+
+    @Value("${events.max-queued-events:64}")
+    private int maxQueuedEvents;
+
+    private final Map<Long, Set<Subscriber>> studentSubscribers = new ConcurrentHashMap<>();
+    private final Set<Subscriber> adminSubscribers = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger connections = new AtomicInteger();
+    private final AtomicLong nextEventId = new AtomicLong();
+
+    private final ObjectMapper objectMapper;
+
+    // A write to a stalled client blocks until the socket times out, so senders are virtual
+    // threads where available; otherwise a pool larger than the expected number of stalled clients
+    private final ExecutorService senders = VirtualThreads.isSupported()
+        ? VirtualThreads.newPerTaskExecutor("document-events-")
+        : Executors.newFixedThreadPool(16, runnable -> {
+            Thread thread = new Thread(runnable, "document-events");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+    public DocumentEventHub(ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        Gauge.builder("document.events.connections", connections, AtomicInteger::get)
+            .description("Open Server-Sent Events connections")
+            .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void stop() {
+        senders.shutdownNow();
+        forEachSubscriber(subscriber -> subscriber.emitter.complete());
+    }
+
+    /**
+     * Open an event stream for the user, or return null when the connection limit is reached.
+     */
+    public SseEmitter subscribe(User user) {
+        if (connections.incrementAndGet() > maxConnections) {
+            connections.decrementAndGet();
+            return null;
+        }
+
+        SseEmitter emitter = createEmitter(connectionTimeoutMs);
+        Subscriber subscriber = new Subscriber(emitter, maxQueuedEvents);
+        boolean admin = user.getRole() == User.Role.ADMIN;
+        Long userId = user.getId();
+        if (admin) {
+            adminSubscribers.add(subscriber);
+        } else {
+            // Add and remove under the map's per-key lock so an emptied set is never reused
+            studentSubscribers.compute(userId, (id, subscribers) -> {
+                Set<Subscriber> set = subscribers != null ? subscribers : ConcurrentHashMap.newKeySet();
+                set.add(subscriber);
+                return set;
+            });
+        }
+
+        Runnable remove = () -> {
+            subscriber.closed.set(true);
+            boolean removed;
+            if (admin) {
+                removed = adminSubscribers.remove(subscriber);
+            } else {
+                boolean[] found = new boolean[1];
+                studentSubscribers.computeIfPresent(userId, (id, subscribers) -> {
+                    found[0] = subscribers.remove(subscriber);
+                    return subscribers.isEmpty() ? null : subscribers;
+                });
+                removed = found[0];
+            }
+            if (removed) {
+                connections.decrementAndGet();
+            }
+        };
+        emitter.onCompletion(remove);
+        emitter.onTimeout(remove);
+        emitter.onError(error -> remove.run());
+
+        // Commits the response headers, so the browser sees the stream open right away; queued
+        // like any other event so it cannot overtake or interleave with one published meanwhile
+        enqueue(subscriber, SseEmitter.event().reconnectTime(RECONNECT_MILLIS).comment("connected"));
+        return emitter;
+    }
+
+    // Queue an event for the document's student and for all admins; serialized once on the caller
+    public void publish(DocumentEvent event) {
+        String id = String.valueOf(nextEventId.incrementAndGet());
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            log.warn("Could not serialize document event {}: {}", event.getEvent(), e.getMessage());
+            return;
+        }
+
+        List<Subscriber> recipients = new ArrayList<>(adminSubscribers);
+        Set<Subscriber> student = studentSubscribers.get(event.getStudentId());
+        if (student != null) {
+            recipients.addAll(student);
+        }
+        // Each recipient gets its own builder because building one consumes it
+        for (Subscriber subscriber : recipients) {
+            enqueue(subscriber, SseEmitter.event().id(id).name(event.getEvent()).data(json));
+        }
+    }
+
+    // Comment line to every subscriber: keeps proxies from closing idle streams and finds dead clients
+    @Scheduled(fixedRateString = "${events.heartbeat-interval-ms:25000}")
+    public void heartbeat() {
+        forEachSubscriber(subscriber -> enqueue(subscriber, SseEmitter.event().comment("ping")));
+    }
+
+    public int getConnectionCount() {
+        return connections.get();
+    }
+
+    // Overridden in tests to stand in for a client
+    SseEmitter createEmitter(long timeoutMs) {
+        return new SseEmitter(timeoutMs);
+    }
+
+    private void enqueue(Subscriber subscriber, SseEmitter.SseEventBuilder message) {
+        if (subscriber.closed.get()) {
+            return;
+        }
+        if (!subscriber.queue.offer(message)) {
+            // Too far behind to catch up; dropping it keeps its queue from growing without bound
+            close(subscriber, new IOException("Client fell " + maxQueuedEvents + " events behind"));
+            return;
+        }
+        // At most one sender per subscriber, so its events stay in order
+        if (subscriber.sending.compareAndSet(false, true)) {
+            try {
+                senders.execute(() -> drain(subscriber));
+            } catch (RuntimeException e) {
+                subscriber.sending.set(false);
+                log.debug("Document events not sent: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        do {
+            SseEmitter.SseEventBuilder message;
+            while (!subscriber.closed.get() && (message = subscriber.queue.poll()) != null) {
+                try {
+                    subscriber.emitter.send(message);
+                } catch (IOException | IllegalStateException e) {
+                    // Client went away; completion callbacks remove the subscriber
+                    close(subscriber, e);
+                }
+            }
+            subscriber.sending.set(false);
+            // An event queued after the last poll but before the flag cleared has no sender yet
+        } while (!subscriber.closed.get() && !subscriber.queue.isEmpty()
+            && subscriber.sending.compareAndSet(false, true));
+    }
+
+    private void close(Subscriber subscriber, Exception cause) {
+        if (subscriber.closed.compareAndSet(false, true)) {
+            subscriber.queue.clear();
+            subscriber.emitter.completeWithError(cause);
+        }
+    }
+
+    private void forEachSubscriber(Consumer<Subscriber> action) {
+        List<Subscriber> all = new ArrayList<>(adminSubscribers);
+        studentSubscribers.values().forEach(all::addAll);
+        all.forEach(action);
+    }
+
+    private static final class Subscriber {
+        final SseEmitter emitter;
+        final Queue<SseEmitter.SseEventBuilder> queue;
+        final AtomicBoolean sending = new AtomicBoolean();
+        final AtomicBoolean closed = new AtomicBoolean();
+
+        Subscriber(SseEmitter emitter, int capacity) {
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(capacity);
+        }
+    }
+}
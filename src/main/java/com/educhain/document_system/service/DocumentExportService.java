@@ -0,0 +1,280 @@
+package com.educhain.document_system.service;
+
+import com.educhain.document_system.model.Document;
+import com.educhain.document_system.model.DocumentCursor;
+import com.educhain.document_system.model.DocumentExportRow;
+import com.educhain.document_system.model.DocumentFilter;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Streams bulk exports straight to the response: NDJSON or CSV metadata, or a zip with
+ * metadata, a SHA-256 manifest and the files themselves. Documents are read in keyset
+ * batches and each file is copied through a fixed buffer, so memory stays constant and a
+ * slow client slows the export down instead of buffering it.
+ */
+@Service
+public class DocumentExportService {
+
+    private static final Logger log = LoggerFactory.getLogger(DocumentExportService.class);
+
+    private static final int BATCH_SIZE = 500;
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    // Before every document, for an export whose filter matched nothing when it started
+    private static final DocumentCursor BEFORE_ALL = new DocumentCursor(LocalDateTime.of(1000, 1, 1, 0, 0), 0L);
+
+    @Autowired
+    private DocumentService documentService;
+
+    private final ObjectWriter rowWriter;
+    private final ObjectMapper objectMapper;
+
+    public DocumentExportService(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        this.rowWriter = objectMapper.writerFor(DocumentExportRow.class)
+            .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    // Export formats
+    public enum Format {
+        NDJSON, CSV, ZIP
+    }
+
+    // Write the export in the given format to the stream (which is left open)
+    public void export(DocumentFilter filter, Format format, OutputStream out) throws IOException {
+        switch (format) {
+            case NDJSON -> {
+                writeNdjson(filter, null, out);
+                out.flush();
+            }
+            case CSV -> {
+                writeCsv(filter, out);
+                out.flush();
+            }
+            case ZIP -> writeZip(filter, out);
+        }
+    }
+
+    private void writeNdjson(DocumentFilter filter, DocumentCursor start, OutputStream out) throws IOException {
+        JsonGenerator gen = objectMapper.getFactory().createGenerator(out);
+        gen.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        gen.setRootValueSeparator(null);
+
+        DocumentCursor cursor = start;
+        List<Document> batch;
+        do {
+            batch = documentService.getDocumentBatch(filter, cursor, BATCH_SIZE);
+            for (Document document : batch) {
+                rowWriter.writeValue(gen, new DocumentExportRow(document));
+                gen.writeRaw('\n');
+            }
+            cursor = nextCursor(batch, cursor);
+        } while (batch.size() == BATCH_SIZE);
+
+        gen.flush();
+    }
+
+    private void writeCsv(DocumentFilter filter, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writeCsvLine(writer, DocumentExportRow.CSV_HEADER);
+
+        DocumentCursor cursor = null;
+        List<Document> batch;
+        do {
+            batch = documentService.getDocumentBatch(filter, cursor, BATCH_SIZE);
+            for (Document document : batch) {
+                writeCsvLine(writer, new DocumentExportRow(document).toCsvFields());
+            }
+            cursor = nextCursor(batch, cursor);
+        } while (batch.size() == BATCH_SIZE);
+
+        writer.flush();
+    }
+
+    /**
+     * Zip layout: metadata.ndjson, SHA256SUMS (hashes recorded at upload), files/..., and
+     * export-report.json listing files that were missing, could not be read (their entry is
+     * truncated or absent) or no longer match their recorded hash. Only failures writing the
+     * archive itself abort the export. Each section is a separate keyset pass so nothing has to
+     * be held in memory. All passes start from the newest matching document at the start of the
+     * export, so uploads made while it runs are in no section rather than in the later ones only;
+     * a document deleted meanwhile is reported missing.
+     */
+    private void writeZip(DocumentFilter filter, OutputStream out) throws IOException {
+        ZipOutputStream zip = new ZipOutputStream(out, StandardCharsets.UTF_8);
+        zip.setLevel(Deflater.BEST_SPEED);
+        DocumentCursor start = snapshotStart(filter);
+
+        zip.putNextEntry(new ZipEntry("metadata.ndjson"));
+        writeNdjson(filter, start, zip);
+        zip.closeEntry();
+
+        zip.putNextEntry(new ZipEntry("SHA256SUMS"));
+        Writer manifest = new OutputStreamWriter(zip, StandardCharsets.UTF_8);
+        DocumentCursor cursor = start;
+        List<Document> batch;
+        do {
+            batch = documentService.getDocumentBatch(filter, cursor, BATCH_SIZE);
+            for (Document document : batch) {
+                manifest.write(document.getFileHash() + "  " + entryName(document) + "\n");
+            }
+            cursor = nextCursor(batch, cursor);
+        } while (batch.size() == BATCH_SIZE);
+        manifest.flush();
+        zip.closeEntry();
+
+        List<Long> missing = new ArrayList<>();
+        List<Map<String, Object>> unreadable = new ArrayList<>();
+        List<Long> mismatched = new ArrayList<>();
+        long exported = 0;
+        byte[] buffer = new byte[COPY_BUFFER_SIZE];
+
+        cursor = start;
+        do {
+            batch = documentService.getDocumentBatch(filter, cursor, BATCH_SIZE);
+            for (Document document : batch) {
+                MessageDigest digest = newDigest();
+                InputStream file;
+                try {
+                    file = new DigestInputStream(documentService.openDocumentStream(document), digest);
+                } catch (NoSuchFileException e) {
+                    missing.add(document.getId());
+                    continue;
+                } catch (IOException e) {
+                    unreadable.add(readFailure(document, e));
+                    continue;
+                }
+
+                // Read errors skip the rest of this file; write errors mean the archive is lost
+                IOException readError = null;
+                try (file) {
+                    zip.putNextEntry(new ZipEntry(entryName(document)));
+                    int read;
+                    while (true) {
+                        try {
+                            read = file.read(buffer);
+                        } catch (IOException e) {
+                            readError = e;
+                            break;
+                        }
+                        if (read == -1) {
+                            break;
+                        }
+                        zip.write(buffer, 0, read);
+                    }
+                    zip.closeEntry();
+                }
+                if (readError != null) {
+                    unreadable.add(readFailure(document, readError));
+                    continue;
+                }
+                exported++;
+                if (!HexFormat.of().formatHex(digest.digest()).equals(document.getFileHash())) {
+                    mismatched.add(document.getId());
+                }
+            }
+            cursor = nextCursor(batch, cursor);
+        } while (batch.size() == BATCH_SIZE);
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("exportedFiles", exported);
+        report.put("missingDocumentIds", missing);
+        report.put("unreadableDocuments", unreadable);
+        report.put("hashMismatchDocumentIds", mismatched);
+        zip.putNextEntry(new ZipEntry("export-report.json"));
+        zip.write(objectMapper.writerWithDefaultPrettyPrinter().writeValueAsBytes(report));
+        zip.closeEntry();
+
+        zip.finish();
+        zip.flush();
+    }
+
+    private Map<String, Object> readFailure(Document document, IOException error) {
+        log.warn("Export could not read document {}: {}", document.getId(), error.getMessage());
+        Map<String, Object> failure = new LinkedHashMap<>();
+        failure.put("documentId", document.getId());
+        failure.put("error", error.getClass().getSimpleName() + ": " + error.getMessage());
+        return failure;
+    }
+
+    // Cursor just before the newest matching document; ids only grow, so rows added later sort before it
+    private DocumentCursor snapshotStart(DocumentFilter filter) {
+        List<Document> newest = documentService.getDocumentBatch(filter, null, 1);
+        if (newest.isEmpty()) {
+            return BEFORE_ALL;
+        }
+        Document document = newest.get(0);
+        return new DocumentCursor(document.getUploadDate(), document.getId() + 1);
+    }
+
+    // Unique, path-safe name inside the archive
+    private String entryName(Document document) {
+        String safeName = document.getFilename() != null
+            ? document.getFilename().replaceAll("[\\\\/:*?\"<>|]", "_")
+            : "document";
+        return "files/" + document.getId() + "_" + safeName;
+    }
+
+    private DocumentCursor nextCursor(List<Document> batch, DocumentCursor current) {
+        return batch.isEmpty() ? current : DocumentCursor.after(batch.get(batch.size() - 1));
+    }
+
+    private void writeCsvLine(Writer writer, String[] fields) throws IOException {
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            String field = fields[i];
+            if (field == null) {
+                continue;
+            }
+            // Spreadsheets run cells starting with these as formulas; a leading quote makes them text
+            if (!field.isEmpty() && "=+-@\t\r".indexOf(field.charAt(0)) >= 0) {
+                field = "'" + field;
+            }
+            if (field.indexOf(',') >= 0 || field.indexOf('"') >= 0 || field.indexOf('\n') >= 0 || field.indexOf('\r') >= 0) {
+                writer.write('"');
+                writer.write(field.replace("\"", "\"\""));
+                writer.write('"');
+            } else {
+                writer.write(field);
+            }
+        }
+        writer.write("\r\n");
+    }
+
+    private MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("Hash calculation failed", e);
+        }
+    }
+}
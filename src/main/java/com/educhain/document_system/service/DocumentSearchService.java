@@ -0,0 +1,390 @@
+package com.educhain.document_system.service;
+
+import com.educhain.document_system.model.DocumentCursor;
+import com.educhain.document_system.model.ContentSearchHit;
+import com.educhain.document_system.model.DocumentContent;
+import com.educhain.document_system.model.DocumentSummary;
+import com.educhain.document_system.repository.DocumentContentRepository;
+import com.educhain.document_system.repository.DocumentRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.FuzzyQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherFactory;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.FSDirectory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.util.HtmlUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Embedded Lucene index over document metadata (filename, description, type, student)
+ * and, once background extraction has run, the text of the file itself.
+ * Kept in sync on upload and delete, and rebuilt from the database on startup when counts differ.
+ */
+@Service
+public class DocumentSearchService {
+
+    private static final Logger log = LoggerFactory.getLogger(DocumentSearchService.class);
+
+    private static final String FIELD_ID = "id";
+    private static final String FIELD_STUDENT_ID = "studentId";
+    private static final String FIELD_FILENAME = "filename";
+    private static final String FIELD_DESCRIPTION = "description";
+    private static final String FIELD_TYPE = "documentType";
+    private static final String FIELD_STUDENT = "studentUsername";
+    private static final String FIELD_CONTENT = "content";
+
+    // Per-field boosts: a filename hit matters more than a description hit
+    private static final Map<String, Float> FIELD_BOOSTS = Map.of(
+        FIELD_FILENAME, 3.0f,
+        FIELD_TYPE, 2.0f,
+        FIELD_STUDENT, 2.0f,
+        FIELD_DESCRIPTION, 1.0f
+    );
+
+    private static final Map<String, Float> CONTENT_BOOSTS = Map.of(FIELD_CONTENT, 1.0f);
+
+    private static final int REBUILD_BATCH_SIZE = 1000;
+    private static final int SNIPPET_RADIUS = 80;
+
+    @Autowired
+    private DocumentRepository documentRepository;
+
+    @Autowired
+    private DocumentContentRepository documentContentRepository;
+
+    @Value("${search.index-dir:./search-index/}")
+    private String indexDir;
+
+    private final Analyzer analyzer = new StandardAnalyzer();
+    private FSDirectory directory;
+    private IndexWriter indexWriter;
+    private SearcherManager searcherManager;
+
+    @PostConstruct
+    public void openIndex() throws IOException {
+        Path indexPath = Paths.get(indexDir);
+        Files.createDirectories(indexPath);
+
+        directory = FSDirectory.open(indexPath);
+        IndexWriterConfig config = new IndexWriterConfig(analyzer)
+            .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND);
+        indexWriter = new IndexWriter(directory, config);
+        searcherManager = new SearcherManager(indexWriter, new SearcherFactory());
+    }
+
+    @PreDestroy
+    public void closeIndex() throws IOException {
+        searcherManager.close();
+        indexWriter.close();
+        directory.close();
+    }
+
+    // Rebuild the index if it drifted from the database (first start, crash before commit, ...)
+    @EventListener(ApplicationReadyEvent.class)
+    public void syncOnStartup() {
+        long documentCount = documentRepository.count();
+        if (indexWriter.getDocStats().numDocs != documentCount) {
+            rebuildIndex();
+        }
+    }
+
+    // Commit pending index changes; searches already see them via the near-real-time reader
+    @Scheduled(fixedDelayString = "${search.commit-interval-ms:30000}")
+    public void commit() {
+        try {
+            if (indexWriter.hasUncommittedChanges()) {
+                indexWriter.commit();
+            }
+        } catch (IOException e) {
+            log.error("Search index commit failed", e);
+        }
+    }
+
+    // Add or replace a document in the index
+    public void indexDocument(DocumentSummary document) {
+        indexDocument(document, null);
+    }
+
+    // Re-read a document and its extracted text from the database and replace its index entry
+    public void reindexDocument(Long documentId) {
+        List<DocumentSummary> found = documentRepository.findSummariesByIdIn(List.of(documentId));
+        if (found.isEmpty()) {
+            return;
+        }
+        indexDocument(found.get(0), loadContents(List.of(documentId)).get(documentId));
+    }
+
+    private void indexDocument(DocumentSummary document, String content) {
+        try {
+            indexWriter.updateDocument(new Term(FIELD_ID, String.valueOf(document.getId())), toLuceneDocument(document, content));
+            searcherManager.maybeRefresh();
+        } catch (IOException e) {
+            log.error("Failed to index document {}", document.getId(), e);
+        }
+    }
+
+    // Remove a document from the index
+    public void removeDocument(Long documentId) {
+        try {
+            indexWriter.deleteDocuments(new Term(FIELD_ID, String.valueOf(documentId)));
+            searcherManager.maybeRefresh();
+        } catch (IOException e) {
+            log.error("Failed to remove document {} from index", documentId, e);
+        }
+    }
+
+    /**
+     * Search metadata with exact, prefix and fuzzy matching. Every query term must match
+     * at least one field. Results are restricted to one student when studentId is set.
+     */
+    public List<DocumentSummary> search(String queryText, Long studentId, int limit) {
+        List<String> terms = analyze(queryText);
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+        return loadSummaries(searchIds(terms, FIELD_BOOSTS, studentId, limit));
+    }
+
+    /**
+     * Search extracted file text. Each hit carries a snippet with the matched words in &lt;mark&gt; tags.
+     */
+    public List<ContentSearchHit> searchContent(String queryText, Long studentId, int limit) {
+        List<String> terms = analyze(queryText);
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+
+        List<Long> ids = searchIds(terms, CONTENT_BOOSTS, studentId, limit);
+        Map<Long, String> contents = loadContents(ids);
+        List<ContentSearchHit> hits = new ArrayList<>();
+        for (DocumentSummary document : loadSummaries(ids)) {
+            String content = contents.getOrDefault(document.getId(), "");
+            hits.add(new ContentSearchHit(document, buildSnippet(content, terms)));
+        }
+        return hits;
+    }
+
+    // Ids of the best matches, every term required in at least one of the given fields
+    private List<Long> searchIds(List<String> terms, Map<String, Float> fields, Long studentId, int limit) {
+        BooleanQuery.Builder query = new BooleanQuery.Builder();
+        for (String term : terms) {
+            query.add(termQuery(term, fields), BooleanClause.Occur.MUST);
+        }
+        if (studentId != null) {
+            query.add(new TermQuery(new Term(FIELD_STUDENT_ID, String.valueOf(studentId))), BooleanClause.Occur.FILTER);
+        }
+
+        List<Long> ids = new ArrayList<>();
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                TopDocs topDocs = searcher.search(query.build(), limit);
+                StoredFields storedFields = searcher.storedFields();
+                for (ScoreDoc scoreDoc : topDocs.scoreDocs) {
+                    ids.add(Long.valueOf(storedFields.document(scoreDoc.doc).get(FIELD_ID)));
+                }
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Search failed: " + e.getMessage());
+        }
+        return ids;
+    }
+
+    // Hydrate hits in one query, then restore relevance order
+    private List<DocumentSummary> loadSummaries(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Integer> rank = new HashMap<>();
+        for (int i = 0; i < ids.size(); i++) {
+            rank.put(ids.get(i), i);
+        }
+        List<DocumentSummary> results = new ArrayList<>(documentRepository.findSummariesByIdIn(ids));
+        results.sort(Comparator.comparing(document -> rank.get(document.getId())));
+        return results;
+    }
+
+    private Map<Long, String> loadContents(List<Long> ids) {
+        Map<Long, String> contents = new HashMap<>();
+        if (!ids.isEmpty()) {
+            for (Object[] row : documentContentRepository.findContentByDocumentIds(ids, DocumentContent.Status.EXTRACTED)) {
+                contents.put((Long) row[0], (String) row[1]);
+            }
+        }
+        return contents;
+    }
+
+    // Rebuild the whole index from the database, walking it in keyset pages
+    public void rebuildIndex() {
+        try {
+            indexWriter.deleteAll();
+
+            DocumentCursor cursor = null;
+            List<DocumentSummary> batch;
+            do {
+                batch = documentRepository.findSummaryPage(null, null, null, null,
+                    cursor != null ? cursor.getUploadDate() : null,
+                    cursor != null ? cursor.getId() : null,
+                    PageRequest.of(0, REBUILD_BATCH_SIZE));
+                Map<Long, String> contents = loadContents(batch.stream().map(DocumentSummary::getId).toList());
+                for (DocumentSummary document : batch) {
+                    indexWriter.addDocument(toLuceneDocument(document, contents.get(document.getId())));
+                }
+                if (!batch.isEmpty()) {
+                    cursor = DocumentCursor.after(batch.get(batch.size() - 1));
+                }
+            } while (batch.size() == REBUILD_BATCH_SIZE);
+
+            indexWriter.commit();
+            searcherManager.maybeRefresh();
+            log.info("Search index rebuilt: {} documents", indexWriter.getDocStats().numDocs);
+        } catch (IOException e) {
+            log.error("Search index rebuild failed", e);
+        }
+    }
+
+    // One query term matched exactly, as a prefix, or within a small edit distance, in any field
+    private Query termQuery(String term, Map<String, Float> fields) {
+        BooleanQuery.Builder anyField = new BooleanQuery.Builder();
+        for (Map.Entry<String, Float> field : fields.entrySet()) {
+            Term fieldTerm = new Term(field.getKey(), term);
+            float boost = field.getValue();
+
+            anyField.add(new BoostQuery(new TermQuery(fieldTerm), boost * 3), BooleanClause.Occur.SHOULD);
+            if (term.length() >= 2) {
+                anyField.add(new BoostQuery(new PrefixQuery(fieldTerm), boost * 2), BooleanClause.Occur.SHOULD);
+            }
+            if (term.length() >= 4) {
+                int maxEdits = term.length() >= 8 ? 2 : 1;
+                anyField.add(new BoostQuery(new FuzzyQuery(fieldTerm, maxEdits, 1), boost), BooleanClause.Occur.SHOULD);
+            }
+        }
+        return anyField.build();
+    }
+
+    private org.apache.lucene.document.Document toLuceneDocument(DocumentSummary document, String content) {
+        org.apache.lucene.document.Document luceneDocument = new org.apache.lucene.document.Document();
+        luceneDocument.add(new StringField(FIELD_ID, String.valueOf(document.getId()), Field.Store.YES));
+        luceneDocument.add(new StringField(FIELD_STUDENT_ID, String.valueOf(document.getStudentId()), Field.Store.NO));
+        addText(luceneDocument, FIELD_FILENAME, splitFilename(document.getFilename()));
+        addText(luceneDocument, FIELD_DESCRIPTION, document.getDescription());
+        addText(luceneDocument, FIELD_TYPE, document.getDocumentType());
+        addText(luceneDocument, FIELD_STUDENT, document.getStudentUsername());
+        addText(luceneDocument, FIELD_CONTENT, content);
+        return luceneDocument;
+    }
+
+    private void addText(org.apache.lucene.document.Document luceneDocument, String field, String value) {
+        if (value != null && !value.isEmpty()) {
+            luceneDocument.add(new TextField(field, value, Field.Store.NO));
+        }
+    }
+
+    // Window of text around the first matched word, HTML-escaped, with query words wrapped in <mark>
+    private String buildSnippet(String content, List<String> terms) {
+        if (content.isEmpty()) {
+            return "";
+        }
+
+        StringBuilder alternatives = new StringBuilder();
+        for (String term : terms) {
+            if (alternatives.length() > 0) {
+                alternatives.append('|');
+            }
+            alternatives.append(Pattern.quote(term));
+        }
+        Pattern wordPattern = Pattern.compile("\\b(?:" + alternatives + ")\\w*",
+            Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
+
+        // Fuzzy-only hits have no literal match; fall back to the start of the text
+        Matcher first = wordPattern.matcher(content);
+        int center = first.find() ? first.start() : 0;
+        int start = Math.max(0, center - SNIPPET_RADIUS);
+        int end = Math.min(content.length(), center + SNIPPET_RADIUS);
+        String window = content.substring(start, end);
+
+        StringBuilder snippet = new StringBuilder();
+        if (start > 0) {
+            snippet.append("...");
+        }
+        Matcher matcher = wordPattern.matcher(window);
+        int last = 0;
+        while (matcher.find()) {
+            snippet.append(HtmlUtils.htmlEscape(window.substring(last, matcher.start())))
+                   .append("<mark>")
+                   .append(HtmlUtils.htmlEscape(matcher.group()))
+                   .append("</mark>");
+            last = matcher.end();
+        }
+        snippet.append(HtmlUtils.htmlEscape(window.substring(last)));
+        if (end < content.length()) {
+            snippet.append("...");
+        }
+        return snippet.toString();
+    }
+
+    // The standard tokenizer keeps "scholarship_ack_gm.pdf" as one token; split it into words
+    private String splitFilename(String filename) {
+        return filename != null ? filename.replaceAll("[_.\\-]+", " ") : null;
+    }
+
+    // Run query text through the same analyzer used at index time
+    private List<String> analyze(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null) {
+            return terms;
+        }
+        try (TokenStream tokens = analyzer.tokenStream(FIELD_DESCRIPTION, splitFilename(text))) {
+            CharTermAttribute termAttribute = tokens.addAttribute(CharTermAttribute.class);
+            tokens.reset();
+            while (tokens.incrementToken()) {
+                terms.add(termAttribute.toString());
+            }
+            tokens.end();
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to parse search query: " + e.getMessage());
+        }
+        return terms;
+    }
+}
@@ -1,72 +1,187 @@
 package com.educhain.document_system.service;
 
 
+import com.educhain.document_system.model.ContentSearchHit;
 import com.educhain.document_system.model.Document;
+import com.educhain.document_system.model.DocumentCursor;
+import com.educhain.document_system.model.DocumentEvent;
+import com.educhain.document_system.model.DocumentField;
+import com.educhain.document_system.model.DocumentFilter;
+import com.educhain.document_system.model.DocumentPage;
+import com.educhain.document_system.model.DocumentSummary;
 import com.educhain.document_system.model.User;
+import com.educhain.document_system.repository.DocumentContentRepository;
 import com.educhain.document_system.repository.DocumentRepository;
+import com.educhain.document_system.service.DocumentStorageService.StoredContent;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class DocumentService {
     
+    private static final Logger log = LoggerFactory.getLogger(DocumentService.class);
+    
     @Autowired
     private DocumentRepository documentRepository;
     
+    @Autowired
+    private DocumentContentRepository documentContentRepository;
+    
     @Autowired
     private BlockchainService blockchainService;
     
-    @Value("${file.upload-dir}")
-    private String uploadDir;
+    @Autowired
+    private DocumentSearchService documentSearchService;
+    
+    @Autowired
+    private ContentExtractionService contentExtractionService;
+    
+    @Autowired
+    private DocumentStatsService documentStatsService;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Autowired
+    private OperationMetrics operationMetrics;
+    
+    @Autowired
+    private DocumentEventHub documentEventHub;
+    
+    @Autowired
+    private DocumentStorageService documentStorageService;
+    
+    @Autowired
+    private DurableFileWriter durableFileWriter;
+    
+    @Autowired
+    private DocumentChunkStore documentChunkStore;
+    
+    @Autowired
+    private StorageVolumes storageVolumes;
     
     // Upload document for a student
     public Document uploadDocument(MultipartFile file, User student, String documentType, String description) {
+        return uploadDocument(file, student, documentType, description, null);
+    }
+    
+    // Upload a document, optionally as the next version of one of the student's documents
+    public Document uploadDocument(MultipartFile file, User student, String documentType, String description,
+                                   Long previousVersionId) {
         try {
-            // Create upload directory if not exists
-            Path uploadPath = Paths.get(uploadDir);
-            if (!Files.exists(uploadPath)) {
-                Files.createDirectories(uploadPath);
-            }
+            Document previous = previousVersionId != null ? getVersionPredecessor(previousVersionId, student) : null;
             
             // Generate unique filename
             String originalFilename = file.getOriginalFilename();
             String filename = System.currentTimeMillis() + "_" + originalFilename;
-            Path filePath = uploadPath.resolve(filename);
             
-            // Save file to disk
-            Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
+            // Read the multipart body once and reuse it for the disk write and the hash
+            Timer.Sample stage = operationMetrics.start();
+            byte[] fileBytes = file.getBytes();
+            operationMetrics.stage(stage, OperationMetrics.UPLOAD, "multipart_read");
             
-            // Calculate file hash
-            String fileHash = calculateFileHash(file.getBytes());
+            // Calculate file hash first: it picks the storage volume
+            stage = operationMetrics.start();
+            String fileHash = calculateFileHash(fileBytes);
+            operationMetrics.stage(stage, OperationMetrics.UPLOAD, "hash");
+            
+            // Create the volume's upload directory if not exists
+            Path uploadPath = storageVolumes.forHash(fileHash).documents();
+            if (!Files.exists(uploadPath)) {
+                Files.createDirectories(uploadPath);
+            }
+            
+            // Stored as a delta against an earlier version, as deduplicated chunks, or as is
+            stage = operationMetrics.start();
+            StoredContent stored = documentStorageService.prepareUpload(previous, fileBytes);
+            operationMetrics.stage(stage, OperationMetrics.UPLOAD, "storage_encode");
+            Path filePath = writeStored(uploadPath, filename, stored);
             
             // Create document record
             Document document = new Document(originalFilename, filePath.toString(), fileHash, student);
             document.setFileSize(file.getSize());
+            document.setStoredSize((long) stored.bytes().length);
+            document.setChunked(stored.isChunked());
             document.setDocumentType(documentType);
             document.setDescription(description);
+            if (previous != null) {
+                document.setPreviousVersionId(previous.getId());
+                document.setVersionNumber(previous.getVersionNumber() + 1);
+                document.setDeltaBaseId(stored.deltaBaseId());
+            }
             
-            // Save to database
-            document = documentRepository.save(document);
+            // Save to database together with the dashboard counters
+            stage = operationMetrics.start();
+            Document saved = saveUpload(document, filePath, stored);
+            if (saved == null) {
+                // The delta base was archived or deleted after the delta was encoded: store in full
+                Files.deleteIfExists(filePath);
+                stored = documentStorageService.prepareUpload(null, fileBytes);
+                filePath = writeStored(uploadPath, filename, stored);
+                document.setFilePath(filePath.toString());
+                document.setStoredSize((long) stored.bytes().length);
+                document.setChunked(stored.isChunked());
+                document.setDeltaBaseId(null);
+                saved = saveUpload(document, filePath, stored);
+            }
+            document = saved;
+            operationMetrics.stage(stage, OperationMetrics.UPLOAD, "db_save");
+            documentEventHub.publish(DocumentEvent.uploaded(DocumentSummary.from(document)));
             
             // Store hash on blockchain (async)
             try {
+                stage = operationMetrics.start();
                 String txHash = blockchainService.storeDocumentHash(fileHash, student.getWalletAddress());
+                operationMetrics.stage(stage, OperationMetrics.UPLOAD, "blockchain");
                 document.setBlockchainTxHash(txHash);
-                document = documentRepository.save(document);
+                Document anchoredDocument = document;
+                // save() merges the detached document into a copy whose student is a lazy proxy of
+                // a session that closes with the transaction; keep using the instance we have
+                transactionTemplate.executeWithoutResult(status -> {
+                    Document merged = documentRepository.save(anchoredDocument);
+                    if (merged.getBlockchainTxHash() != null) {
+                        documentStatsService.recordAnchored(anchoredDocument);
+                    }
+                });
+                if (document.getBlockchainTxHash() != null) {
+                    documentEventHub.publish(DocumentEvent.anchored(DocumentSummary.from(document)));
+                }
             } catch (Exception e) {
-                System.err.println("Blockchain storage failed: " + e.getMessage());
+                log.warn("Blockchain storage failed for document {}: {}", document.getId(), e.getMessage());
             }
             
+            stage = operationMetrics.start();
+            documentSearchService.indexDocument(DocumentSummary.from(document));
+            operationMetrics.stage(stage, OperationMetrics.UPLOAD, "search_index");
+            
+            // Text extraction runs in the background, never on the upload thread
+            contentExtractionService.submit(document);
+            
             return document;
             
         } catch (IOException e) {
@@ -74,30 +189,141 @@ public class DocumentService {
         }
     }
     
+    // Write an upload's stored bytes to a temporary file, renamed into place once synced
+    private Path writeStored(Path uploadPath, String filename, StoredContent stored) throws IOException {
+        Path filePath = documentStorageService.storedPath(uploadPath, filename, stored);
+        byte[] storedBytes = stored.bytes();
+        try {
+            Timer.Sample stage = operationMetrics.start();
+            DiskOperationEvent diskWrite = new DiskOperationEvent("write", filePath.toString());
+            diskWrite.bytes = storedBytes.length;
+            CompletableFuture<Void> durable = diskWrite.time(() -> durableFileWriter.write(filePath, storedBytes));
+            operationMetrics.stage(stage, OperationMetrics.UPLOAD, "disk_write");
+            
+            // The row must never point at a file that a crash could lose
+            stage = operationMetrics.start();
+            DurableFileWriter.await(durable);
+            operationMetrics.stage(stage, OperationMetrics.UPLOAD, "disk_sync");
+        } catch (IOException | RuntimeException e) {
+            documentStorageService.discard(stored);
+            throw e;
+        }
+        return filePath;
+    }
+    
+    /**
+     * Save an upload's row with the dashboard counters. A delta is saved only while its base, locked
+     * in the same transaction, is still hot; otherwise nothing is saved and null is returned.
+     */
+    private Document saveUpload(Document document, Path filePath, StoredContent stored) throws IOException {
+        try {
+            documentStatsService.prepareUpload(document);
+            return transactionTemplate.execute(status -> {
+                if (document.getDeltaBaseId() != null && !documentStorageService.lockDeltaBase(document.getDeltaBaseId())) {
+                    return null;
+                }
+                Document saved = documentRepository.save(document);
+                documentStatsService.recordUpload(saved);
+                return saved;
+            });
+        } catch (RuntimeException e) {
+            // No row points at the file (e.g. the same file was uploaded before)
+            Files.deleteIfExists(filePath);
+            documentStorageService.discard(stored);
+            throw e;
+        }
+    }
+    
+    // The document a new version replaces: the same student's, and not replaced already
+    private Document getVersionPredecessor(Long previousVersionId, User student) {
+        Document previous = getDocumentById(previousVersionId);
+        if (!previous.getStudent().getId().equals(student.getId())) {
+            throw new RuntimeException("The previous version belongs to another student");
+        }
+        if (documentRepository.existsByPreviousVersionId(previousVersionId)) {
+            throw new RuntimeException("Document " + previousVersionId + " already has a newer version");
+        }
+        return previous;
+    }
+    
+    // All versions of the document's chain, oldest first
+    @Transactional(readOnly = true)
+    public List<Document> getVersionHistory(Long documentId) {
+        Document document = getDocumentById(documentId);
+        LinkedList<Document> versions = new LinkedList<>();
+        versions.add(document);
+        Set<Long> seen = new HashSet<>();
+        seen.add(document.getId());
+        
+        Document current = document;
+        while (current.getPreviousVersionId() != null && seen.add(current.getPreviousVersionId())) {
+            Optional<Document> previous = documentRepository.findById(current.getPreviousVersionId());
+            if (previous.isEmpty()) {
+                break;
+            }
+            current = previous.get();
+            versions.addFirst(current);
+        }
+        
+        current = document;
+        while (true) {
+            List<Document> next = documentRepository.findByPreviousVersionId(current.getId());
+            if (next.isEmpty() || !seen.add(next.get(0).getId())) {
+                break;
+            }
+            current = next.get(0);
+            versions.addLast(current);
+        }
+        return versions;
+    }
+    
     // Get documents for a student
+    @Transactional(readOnly = true)
     public List<Document> getDocumentsByStudent(User student) {
         return documentRepository.findByStudent(student);
     }
     
     // Get documents by student ID
+    @Transactional(readOnly = true)
     public List<Document> getDocumentsByStudentId(Long studentId) {
         return documentRepository.findByStudentId(studentId);
     }
     
     // Get document by ID
+    @Transactional(readOnly = true)
     public Document getDocumentById(Long id) {
         return documentRepository.findById(id)
             .orElseThrow(() -> new RuntimeException("Document not found!"));
     }
     
+    // Get document by the SHA-256 hash of its contents
+    @Transactional(readOnly = true)
+    public Document getDocumentByFileHash(String fileHash) {
+        return documentRepository.findByFileHash(fileHash)
+            .orElseThrow(() -> new RuntimeException("Document not found!"));
+    }
+    
     // Verify document integrity
     public boolean verifyDocumentIntegrity(Long documentId) {
         try {
+            Timer.Sample stage = operationMetrics.start();
             Document document = getDocumentById(documentId);
+            operationMetrics.stage(stage, OperationMetrics.VERIFY, "lookup");
             
-            // Read file and calculate current hash
-            byte[] fileBytes = Files.readAllBytes(Paths.get(document.getFilePath()));
+            // Read the original bytes (decompressed when archived) and calculate current hash
+            stage = operationMetrics.start();
+            DiskOperationEvent diskRead = new DiskOperationEvent("read", document.getFilePath());
+            byte[] fileBytes = diskRead.time(() -> {
+                try (InputStream in = documentStorageService.open(document)) {
+                    return in.readAllBytes();
+                }
+            });
+            diskRead.bytes = fileBytes.length;
+            operationMetrics.stage(stage, OperationMetrics.VERIFY, "file_read");
+            
+            stage = operationMetrics.start();
             String currentHash = calculateFileHash(fileBytes);
+            operationMetrics.stage(stage, OperationMetrics.VERIFY, "hash");
             
             // Compare with stored hash
             boolean hashMatches = currentHash.equals(document.getFileHash());
@@ -105,13 +331,17 @@ public class DocumentService {
             // Verify on blockchain if transaction hash exists
             boolean blockchainVerified = true;
             if (document.getBlockchainTxHash() != null) {
+                stage = operationMetrics.start();
                 blockchainVerified = blockchainService.verifyDocumentHash(document.getFileHash());
+                operationMetrics.stage(stage, OperationMetrics.VERIFY, "blockchain");
             }
             
-            return hashMatches && blockchainVerified;
+            boolean valid = hashMatches && blockchainVerified;
+            documentEventHub.publish(DocumentEvent.integrityChecked(documentId, document.getStudent().getId(), valid));
+            return valid;
             
         } catch (Exception e) {
-            System.err.println("Verification failed: " + e.getMessage());
+            log.warn("Verification of document {} failed: {}", documentId, e.getMessage());
             return false;
         }
     }
@@ -120,40 +350,152 @@ public class DocumentService {
     public void deleteDocument(Long documentId) {
         Document document = getDocumentById(documentId);
         
+        // Versions stored as deltas against this file get their full bytes first
+        try {
+            documentStorageService.rehydrateDependents(document);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to store dependent versions in full: " + e.getMessage());
+        }
+        
+        // Read before the manifest is deleted; released together with the row
+        List<String> chunks = documentStorageService.chunkReferences(document);
+        
         // Delete file from disk
         try {
-            Files.deleteIfExists(Paths.get(document.getFilePath()));
+            Path storedPath = Paths.get(document.getFilePath());
+            new DiskOperationEvent("delete", storedPath.toString())
+                .time(() -> Files.deleteIfExists(storedPath), deleted -> deleted ? "ok" : "missing");
         } catch (IOException e) {
-            System.err.println("Failed to delete file: " + e.getMessage());
+            log.warn("Failed to delete file of document {}: {}", documentId, e.getMessage());
         }
         
-        // Delete from database
-        documentRepository.deleteById(documentId);
+        // Delete from database together with the dashboard counters
+        transactionTemplate.executeWithoutResult(status -> {
+            // Keep the version chain connected around the removed version
+            for (Document next : documentRepository.findByPreviousVersionId(documentId)) {
+                next.setPreviousVersionId(document.getPreviousVersionId());
+            }
+            documentRepository.deleteById(documentId);
+            documentContentRepository.deleteByFileHash(document.getFileHash());
+            documentStatsService.recordDelete(document);
+            documentChunkStore.release(chunks);
+        });
+        documentSearchService.removeDocument(documentId);
+    }
+    
+    // Get the next keyset batch of documents (student loaded) for bulk processing
+    @Transactional(readOnly = true)
+    public List<Document> getDocumentBatch(DocumentFilter filter, DocumentCursor after, int size) {
+        return documentRepository.findBatchWithStudent(
+            filter.getStudentId(),
+            filter.getDocumentType(),
+            filter.getFromDateTime(),
+            filter.getToDateTime(),
+            after != null ? after.getUploadDate() : null,
+            after != null ? after.getId() : null,
+            PageRequest.of(0, size)
+        );
+    }
+    
+    // Selected fields of several documents in one query, in request order; ids the student
+    // (when studentId is set) may not see are left out like missing ones
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getDocumentFields(List<Long> ids, Long studentId, Set<DocumentField> fields) {
+        Set<Long> uniqueIds = new LinkedHashSet<>(ids);
+        Map<Object, Map<String, Object>> rowsById = new HashMap<>();
+        for (Map<String, Object> row : documentRepository.findFieldsByIds(uniqueIds, studentId, fields)) {
+            rowsById.put(row.get(DocumentField.ID.getJsonName()), row);
+        }
+        
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (Long id : uniqueIds) {
+            Map<String, Object> row = rowsById.get(id);
+            if (row != null) {
+                rows.add(row);
+            }
+        }
+        return rows;
+    }
+    
+    // Open the original bytes of a document for reading, from whichever storage tier holds it
+    public InputStream openDocumentStream(Document document) throws IOException {
+        return documentStorageService.open(document);
+    }
+    
+    // Open a document for download (null when its file is missing) and count the access
+    public Resource openDocumentForDownload(Document document) throws IOException {
+        Resource resource = documentStorageService.openResource(document);
+        if (resource != null) {
+            documentStorageService.recordAccess(document);
+        }
+        return resource;
     }
     
     // Get all documents (for admin)
+    @Transactional(readOnly = true)
     public List<Document> getAllDocuments() {
         return documentRepository.findAll();
     }
     
-    // Calculate SHA-256 hash of file
-    private String calculateFileHash(byte[] fileBytes) {
+    // Full-text search over document metadata
+    public List<DocumentSummary> searchDocuments(String query, Long studentId, int limit) {
+        return documentSearchService.search(query, studentId, limit);
+    }
+    
+    // Full-text search over extracted file contents
+    public List<ContentSearchHit> searchDocumentContent(String query, Long studentId, int limit) {
+        return documentSearchService.searchContent(query, studentId, limit);
+    }
+    
+    // Dashboard statistics (all documents, or one student's when studentId is set)
+    public Map<String, Object> getStatistics(Long studentId) {
+        return documentStatsService.getStats(studentId);
+    }
+    
+    // Get one page of documents, newest first, starting after the given cursor
+    @Transactional(readOnly = true)
+    public DocumentPage getDocumentPage(DocumentFilter filter, DocumentCursor after, int limit) {
+        // Fetch one extra row to know whether another page exists
+        List<DocumentSummary> documents = documentRepository.findSummaryPage(
+            filter.getStudentId(),
+            filter.getDocumentType(),
+            filter.getFromDateTime(),
+            filter.getToDateTime(),
+            after != null ? after.getUploadDate() : null,
+            after != null ? after.getId() : null,
+            PageRequest.of(0, limit + 1)
+        );
+        
+        if (documents.size() <= limit) {
+            return new DocumentPage(documents, null);
+        }
+        
+        List<DocumentSummary> page = documents.subList(0, limit);
+        return new DocumentPage(page, DocumentCursor.after(page.get(limit - 1)).encode());
+    }
+    
+    // Calculate SHA-256 hash of file (package-private for the benchmarks module)
+    String calculateFileHash(byte[] fileBytes) {
         try {
             MessageDigest digest = MessageDigest.getInstance("SHA-256");
-            byte[] hash = digest.digest(fileBytes);
-            StringBuilder hexString = new StringBuilder();
-            
-            for (byte b : hash) {
-                String hex = Integer.toHexString(0xff & b);
-                if (hex.length() == 1) {
-                    hexString.append('0');
-                }
-                hexString.append(hex);
-            }
-            
-            return hexString.toString();
+            return toHexString(digest.digest(fileBytes));
         } catch (NoSuchAlgorithmException e) {
             throw new RuntimeException("Hash calculation failed", e);
         }
     }
+    
+    // Lowercase hex encoding of a digest
+    static String toHexString(byte[] hash) {
+        StringBuilder hexString = new StringBuilder();
+        
+        for (byte b : hash) {
+            String hex = Integer.toHexString(0xff & b);
+            if (hex.length() == 1) {
+                hexString.append('0');
+            }
+            hexString.append(hex);
+        }
+        
+        return hexString.toString();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,223 @@
+package com.educhain.document_system.service;
+
+import com.educhain.document_system.model.Document;
+import com.educhain.document_system.model.DocumentStat;
+import com.educhain.document_system.model.User;
+import com.educhain.document_system.repository.DocumentStatRepository;
+import com.educhain.document_system.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Dashboard counters (documents, bytes, anchored) per student, type and day, kept up to date
+ * in the same transaction as each upload, anchoring and delete, so reading them is a few
+ * primary-key lookups instead of COUNT/SUM scans over documents.
+ */
+@Service
+public class DocumentStatsService {
+
+    private static final Logger log = LoggerFactory.getLogger(DocumentStatsService.class);
+
+    private static final String TOTAL_KEY = "all";
+    private static final String DEFAULT_TYPE = "General";
+    private static final int TOP_STUDENTS = 20;
+    private static final int RECENT_DAYS = 30;
+
+    @Autowired
+    private DocumentStatRepository documentStatRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    /**
+     * Create the slices a new document will count towards, before the transaction that saves it.
+     * That transaction then only updates existing rows: two of them inserting new keys next to
+     * rows the other has locked deadlock in InnoDB, which failed concurrent first uploads.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void prepareUpload(Document document) {
+        for (Map.Entry<DocumentStat.Scope, String> slice : slices(document).entrySet()) {
+            if (!documentStatRepository.existsByScopeAndScopeKey(slice.getKey(), slice.getValue())) {
+                documentStatRepository.createStatIfMissing(slice.getKey().name(), slice.getValue());
+            }
+        }
+    }
+
+    // Count a newly stored document
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordUpload(Document document) {
+        applyDelta(document, 1, document.getFileSize(), document.getBlockchainTxHash() != null ? 1 : 0);
+    }
+
+    // Count a document that just received its blockchain transaction hash
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordAnchored(Document document) {
+        applyDelta(document, 0, 0L, 1);
+    }
+
+    // Remove a deleted document from the counters
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordDelete(Document document) {
+        Long size = document.getFileSize();
+        applyDelta(document, -1, size != null ? -size : 0L, document.getBlockchainTxHash() != null ? -1 : 0);
+    }
+
+    /**
+     * Dashboard statistics: totals, per type, recent days and the largest students.
+     * When studentId is set only that student's totals are returned.
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Object> getStats(Long studentId) {
+        Map<String, Object> stats = new LinkedHashMap<>();
+
+        if (studentId != null) {
+            stats.put("total", toMap(documentStatRepository
+                .findByScopeAndScopeKey(DocumentStat.Scope.STUDENT, String.valueOf(studentId))
+                .orElse(new DocumentStat())));
+            return stats;
+        }
+
+        stats.put("total", toMap(documentStatRepository
+            .findByScopeAndScopeKey(DocumentStat.Scope.TOTAL, TOTAL_KEY)
+            .orElse(new DocumentStat())));
+
+        List<Map<String, Object>> byType = new ArrayList<>();
+        for (DocumentStat stat : documentStatRepository.findByScope(DocumentStat.Scope.TYPE)) {
+            Map<String, Object> row = toMap(stat);
+            row.put("documentType", stat.getScopeKey());
+            byType.add(row);
+        }
+        stats.put("byType", byType);
+
+        List<Map<String, Object>> byDay = new ArrayList<>();
+        for (DocumentStat stat : documentStatRepository.findByScopeOrderByScopeKeyDesc(
+                DocumentStat.Scope.DAY, PageRequest.of(0, RECENT_DAYS))) {
+            Map<String, Object> row = toMap(stat);
+            row.put("date", stat.getScopeKey());
+            byDay.add(row);
+        }
+        stats.put("byDay", byDay);
+
+        List<DocumentStat> topStudents = documentStatRepository.findByScopeOrderByDocumentCountDesc(
+            DocumentStat.Scope.STUDENT, PageRequest.of(0, TOP_STUDENTS));
+        Set<Long> studentIds = topStudents.stream()
+            .map(stat -> Long.valueOf(stat.getScopeKey()))
+            .collect(Collectors.toSet());
+        Map<Long, User> students = userRepository.findAllById(studentIds).stream()
+            .collect(Collectors.toMap(User::getId, Function.identity()));
+
+        List<Map<String, Object>> byStudent = new ArrayList<>();
+        for (DocumentStat stat : topStudents) {
+            Long id = Long.valueOf(stat.getScopeKey());
+            Map<String, Object> row = toMap(stat);
+            row.put("studentId", id);
+            row.put("studentUsername", students.containsKey(id) ? students.get(id).getUsername() : null);
+            byStudent.add(row);
+        }
+        stats.put("topStudents", byStudent);
+
+        return stats;
+    }
+
+    /**
+     * Recompute every slice from the documents table and fix the ones that drifted
+     * (crashes between file and row writes, manual SQL, ...). Uploads racing with this
+     * run can leave a small error that the next run corrects.
+     */
+    @Scheduled(cron = "${stats.reconcile-cron:0 15 * * * *}")
+    @Transactional
+    public void reconcile() {
+        int fixed = 0;
+        fixed += reconcileScope(DocumentStat.Scope.TOTAL, documentStatRepository.aggregateTotal());
+        fixed += reconcileScope(DocumentStat.Scope.STUDENT, documentStatRepository.aggregateByStudent());
+        fixed += reconcileScope(DocumentStat.Scope.TYPE, documentStatRepository.aggregateByType());
+        fixed += reconcileScope(DocumentStat.Scope.DAY, documentStatRepository.aggregateByDay());
+        if (fixed > 0) {
+            log.info("Document statistics reconciled: {} slices corrected", fixed);
+        }
+    }
+
+    // Seed the counters from the documents table the first time the application runs with them
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void initializeIfEmpty() {
+        if (documentStatRepository.findByScopeAndScopeKey(DocumentStat.Scope.TOTAL, TOTAL_KEY).isEmpty()) {
+            reconcile();
+        }
+    }
+
+    private int reconcileScope(DocumentStat.Scope scope, List<Object[]> actualRows) {
+        Map<String, long[]> actual = new HashMap<>();
+        for (Object[] row : actualRows) {
+            actual.put(String.valueOf(row[0]), new long[] {
+                ((Number) row[1]).longValue(), ((Number) row[2]).longValue(), ((Number) row[3]).longValue()
+            });
+        }
+
+        int fixed = 0;
+        for (DocumentStat stat : documentStatRepository.findByScope(scope)) {
+            long[] values = actual.remove(stat.getScopeKey());
+            if (values == null) {
+                // Slice no longer has any documents
+                if (stat.getDocumentCount() != 0 || stat.getTotalBytes() != 0 || stat.getAnchoredCount() != 0) {
+                    documentStatRepository.delete(stat);
+                    fixed++;
+                }
+            } else if (stat.getDocumentCount() != values[0] || stat.getTotalBytes() != values[1]
+                    || stat.getAnchoredCount() != values[2]) {
+                documentStatRepository.setStat(scope.name(), stat.getScopeKey(), values[0], values[1], values[2]);
+                fixed++;
+            }
+        }
+
+        // Slices with documents but no counter row yet
+        for (Map.Entry<String, long[]> missing : actual.entrySet()) {
+            long[] values = missing.getValue();
+            documentStatRepository.setStat(scope.name(), missing.getKey(), values[0], values[1], values[2]);
+            fixed++;
+        }
+        return fixed;
+    }
+
+    private void applyDelta(Document document, long documents, Long bytes, long anchored) {
+        long byteDelta = bytes != null ? bytes : 0L;
+        for (Map.Entry<DocumentStat.Scope, String> slice : slices(document).entrySet()) {
+            documentStatRepository.addToStat(slice.getKey().name(), slice.getValue(), documents, byteDelta, anchored);
+        }
+    }
+
+    // The slices a document counts towards, always in the same order so writers lock them alike
+    private Map<DocumentStat.Scope, String> slices(Document document) {
+        Map<DocumentStat.Scope, String> slices = new LinkedHashMap<>();
+        slices.put(DocumentStat.Scope.TOTAL, TOTAL_KEY);
+        slices.put(DocumentStat.Scope.STUDENT, String.valueOf(document.getStudent().getId()));
+        slices.put(DocumentStat.Scope.TYPE, document.getDocumentType() != null ? document.getDocumentType() : DEFAULT_TYPE);
+        slices.put(DocumentStat.Scope.DAY, document.getUploadDate().toLocalDate().toString());
+        return slices;
+    }
+
+    private Map<String, Object> toMap(DocumentStat stat) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("documents", stat.getDocumentCount());
+        row.put("storageBytes", stat.getTotalBytes());
+        row.put("anchored", stat.getAnchoredCount());
+        row.put("pending", stat.getDocumentCount() - stat.getAnchoredCount());
+        return row;
+    }
+}
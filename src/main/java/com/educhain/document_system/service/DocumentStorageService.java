@@ -0,0 +1,638 @@
+package com.educhain.document_system.service;
+
+import com.educhain.document_system.model.Document;
+import com.educhain.document_system.repository.DocumentRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Two storage tiers for document files. Uploads are stored uncompressed on the storage volume that
+ * owns their file hash (hot, see StorageVolumes);
+ * a nightly job gzips documents nobody has downloaded for storage.tiering.cold-after-days into
+ * storage.archive-dir (cold), and downloading a cold document moves it back. A new version of a
+ * document may instead be stored as a binary delta against an earlier, fully stored version
+ * (deltas and their bases stay hot; a chunked base is reassembled from its chunks). Readers always get the original bytes: cold files are
+ * decompressed and deltas reconstructed while streaming, and a reader that loses a race with a
+ * move reopens the file at its new location: first on the volume that owns its hash, which needs
+ * no lookup, then wherever the row now points. Uploads stored as chunk manifests (see
+ * DocumentChunkStore) are left where they are: their chunks are shared, so there is nothing
+ * per-document to archive. Moves and access-count flushes run on a single
+ * thread, so they never interleave their row updates.
+ */
+@Service
+public class DocumentStorageService {
+
+    private static final Logger log = LoggerFactory.getLogger(DocumentStorageService.class);
+
+    private static final String ARCHIVE_SUFFIX = ".gz";
+    private static final String DELTA_SUFFIX = ".delta";
+    private static final String CHUNKS_SUFFIX = ".chunks";
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final int BATCH_SIZE = 100;
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    @Autowired
+    private DocumentRepository documentRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private DurableFileWriter durableFileWriter;
+
+    @Autowired
+    private DocumentChunkStore documentChunkStore;
+
+    @Autowired
+    private StorageVolumes storageVolumes;
+
+    @Value("${storage.archive-dir:./archive/}")
+    private String archiveDir;
+
+    @Value("${storage.tiering.enabled:true}")
+    private boolean tieringEnabled;
+
+    @Value("${storage.tiering.cold-after-days:30}")
+    private int coldAfterDays;
+
+    @Value("${storage.tiering.max-documents-per-run:5000}")
+    private int maxDocumentsPerRun;
+
+    // 1 (fastest) to 9 (smallest)
+    @Value("${storage.tiering.compression-level:6}")
+    private int compressionLevel;
+
+    @Value("${storage.tiering.restore-on-access:true}")
+    private boolean restoreOnAccess;
+
+    // A new version is stored as a delta only when the delta is at most this fraction of the file
+    @Value("${storage.versioning.max-delta-ratio:0.5}")
+    private double maxDeltaRatio;
+
+    // Downloads since the last flush, per document id. Counts only steer tiering, so an
+    // increment racing with a flush may be lost.
+    private final Map<Long, LongAdder> pendingAccesses = new ConcurrentHashMap<>();
+
+    // Cold documents queued to move back to the hot tier
+    private final Set<Long> restoring = ConcurrentHashMap.newKeySet();
+
+    private final ExecutorService mover = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "storage-tiering");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @PreDestroy
+    public void stop() {
+        mover.shutdownNow();
+    }
+
+    // Open the original bytes of a document, decompressing archived files
+    public InputStream open(Document document) throws IOException {
+        Path stored = Paths.get(document.getFilePath());
+        try {
+            return openStored(document, stored);
+        } catch (NoSuchFileException e) {
+            // Moved to the volume that owns its hash by rebalancing
+            Path owned = ownedPath(document, stored);
+            if (owned != null) {
+                return openStored(document, owned);
+            }
+            // Moved to the other tier since the row was read
+            Document current = reload(document.getId());
+            if (current == null || Objects.equals(current.getFilePath(), document.getFilePath())) {
+                throw e;
+            }
+            return openStored(current, Paths.get(current.getFilePath()));
+        }
+    }
+
+    /**
+     * Download body for a document, or null when its file is missing. Plain files are served as
+     * files (range requests, sendfile); archived files, deltas and chunk manifests as a decoding
+     * stream that still reports the original size.
+     */
+    public Resource openResource(Document document) throws IOException {
+        if (!document.isArchived() && !document.isDelta() && !document.isChunked()) {
+            Path path = Paths.get(document.getFilePath());
+            if (Files.exists(path)) {
+                return new FileSystemResource(path);
+            }
+        }
+        try {
+            return new DecodedResource(open(document), document.getFileSize());
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+    }
+
+    // The stored file when it holds the original bytes as they are, otherwise null
+    public Path getUncompressedPath(Document document) {
+        if (document.isArchived() || document.isDelta() || document.isChunked()) {
+            return null;
+        }
+        Path path = Paths.get(document.getFilePath());
+        return Files.exists(path) ? path : ownedPath(document, path);
+    }
+
+    /**
+     * Move a hot document's file to the volume that owns its hash. The copy is durable before the
+     * row is switched to it (unless the document was deleted or moved meanwhile) and the old file
+     * is deleted; returns the bytes moved, or 0 when nothing was moved.
+     */
+    public long relocate(Document document) throws IOException {
+        Path source = Paths.get(document.getFilePath());
+        StorageVolumes.Volume owner = storageVolumes.forHash(document.getFileHash());
+        if (document.isArchived() || storageVolumes.volumeOf(source) == owner || !Files.exists(source)) {
+            return 0;
+        }
+        Path target = owner.documents().resolve(source.getFileName());
+        byte[] bytes = Files.readAllBytes(source);
+        Files.createDirectories(target.getParent());
+        durableFileWriter.writeNow(target, bytes);
+        if (!switchTier(document.getId(), source, target, Document.StorageTier.HOT, bytes.length)) {
+            Files.deleteIfExists(target);
+            return 0;
+        }
+        Files.deleteIfExists(source);
+        meterRegistry.counter("storage.volumes.moves", "kind", "document").increment();
+        return bytes.length;
+    }
+
+    // Where the stored file is when rebalancing moved it to the volume owning its hash, or null
+    private Path ownedPath(Document document, Path stored) {
+        if (document.isArchived() || document.getFileHash() == null) {
+            return null;
+        }
+        Path owned = storageVolumes.forHash(document.getFileHash()).documents().resolve(stored.getFileName());
+        boolean elsewhere = !owned.toAbsolutePath().normalize().equals(stored.toAbsolutePath().normalize());
+        return elsewhere && Files.exists(owned) ? owned : null;
+    }
+
+    // Count a download; a cold document is queued to move back to the hot tier
+    public void recordAccess(Document document) {
+        Long id = document.getId();
+        pendingAccesses.computeIfAbsent(id, key -> new LongAdder()).increment();
+        if (tieringEnabled && restoreOnAccess && document.isArchived() && restoring.add(id)) {
+            try {
+                mover.execute(() -> {
+                    try {
+                        restore(id);
+                    } finally {
+                        restoring.remove(id);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                restoring.remove(id);
+            }
+        }
+    }
+
+    /**
+     * How to store an upload: a new version as a delta when prepareVersion finds one small enough,
+     * otherwise as a manifest of deduplicated chunks when the chunk store is enabled, otherwise in
+     * full. Chunks are already stored and referenced when this returns; discard() gives them back
+     * if the upload is not saved.
+     */
+    public StoredContent prepareUpload(Document previous, byte[] bytes) throws IOException {
+        if (previous != null) {
+            StoredContent version = prepareVersion(previous, bytes);
+            if (version.isDelta()) {
+                return version;
+            }
+        }
+        if (documentChunkStore.isEnabled()) {
+            DocumentChunkStore.ChunkedContent chunked = documentChunkStore.ingest(bytes);
+            return new StoredContent(chunked.manifest(), null, chunked.chunks());
+        }
+        return new StoredContent(bytes, null, null);
+    }
+
+    // Undo prepareUpload for an upload that was not saved
+    public void discard(StoredContent content) {
+        if (content.isChunked()) {
+            documentChunkStore.discard(content.chunks());
+        }
+    }
+
+    // Chunks a document's manifest references (none when not chunked or the manifest is gone)
+    public List<String> chunkReferences(Document document) {
+        if (!document.isChunked()) {
+            return List.of();
+        }
+        try {
+            return documentChunkStore.references(Paths.get(document.getFilePath()));
+        } catch (IOException e) {
+            // Its chunks stay referenced; they are never collected rather than collected too early
+            log.warn("Could not read chunk manifest of document {}: {}", document.getId(), e.getMessage());
+            return List.of();
+        }
+    }
+
+    /**
+     * How to store a new version of previous: as a delta against the nearest fully stored version
+     * when the delta is small enough, otherwise in full. Deltas always point at a full version (a
+     * plain file or a chunk manifest), so reconstruction never follows a chain of deltas; once
+     * later versions drift too far from that base, one is stored in full and becomes the base for
+     * the versions after it.
+     */
+    public StoredContent prepareVersion(Document previous, byte[] bytes) throws IOException {
+        Document base = previous.isDelta() ? reload(previous.getDeltaBaseId()) : previous;
+        if (base == null || base.isArchived()) {
+            // Archived or missing: not as a delta
+            return new StoredContent(bytes, null, null);
+        }
+        byte[] baseBytes;
+        try (InputStream in = open(base)) {
+            baseBytes = in.readAllBytes();
+        } catch (NoSuchFileException e) {
+            return new StoredContent(bytes, null, null);
+        }
+
+        byte[] delta = DeltaCodec.encode(baseBytes, bytes);
+        boolean useDelta = delta.length <= bytes.length * maxDeltaRatio;
+        meterRegistry.counter("storage.versioning.stored", "form", useDelta ? "delta" : "full").increment();
+        return useDelta ? new StoredContent(delta, base.getId(), null) : new StoredContent(bytes, null, null);
+    }
+
+    /**
+     * Lock the base of a delta for the transaction that saves the delta's row; false when the base
+     * was archived or deleted since the delta was encoded. Moving a document to the archive tier
+     * takes the same lock before checking for deltas against it, so a base never goes cold under
+     * a saved delta.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public boolean lockDeltaBase(Long baseId) {
+        return documentRepository.findByIdForUpdate(baseId).map(base -> !base.isArchived()).orElse(false);
+    }
+
+    // Path for the stored file of an upload, given how it is stored
+    public Path storedPath(Path uploadPath, String filename, StoredContent content) {
+        if (content.isChunked()) {
+            return uploadPath.resolve(filename + CHUNKS_SUFFIX);
+        }
+        return uploadPath.resolve(content.isDelta() ? filename + DELTA_SUFFIX : filename);
+    }
+
+    // Before a document is deleted, store the versions that are deltas against it in full
+    public void rehydrateDependents(Document base) throws IOException {
+        for (Document dependent : documentRepository.findByDeltaBaseId(base.getId())) {
+            Path deltaPath = Paths.get(dependent.getFilePath());
+            String name = deltaPath.getFileName().toString();
+            if (name.endsWith(DELTA_SUFFIX)) {
+                name = name.substring(0, name.length() - DELTA_SUFFIX.length());
+            }
+            Path fullPath = deltaPath.resolveSibling(name);
+
+            byte[] bytes;
+            try (InputStream in = open(dependent)) {
+                bytes = in.readAllBytes();
+            }
+            if (!HexFormat.of().formatHex(sha256().digest(bytes)).equals(dependent.getFileHash())) {
+                throw new IOException("Version " + dependent.getId() + " does not reconstruct to its hash");
+            }
+            durableFileWriter.writeNow(fullPath, bytes);
+
+            boolean switched = Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+                Document current = documentRepository.findById(dependent.getId()).orElse(null);
+                if (current == null || !deltaPath.toString().equals(current.getFilePath())) {
+                    return false;
+                }
+                current.setFilePath(fullPath.toString());
+                current.setDeltaBaseId(null);
+                current.setStoredSize((long) bytes.length);
+                return true;
+            }));
+            Files.deleteIfExists(switched ? deltaPath : fullPath);
+        }
+    }
+
+    // Move documents that have gone cold to the archive tier
+    @Scheduled(cron = "${storage.tiering.cron:0 30 3 * * *}")
+    public void scheduleArchiving() {
+        if (tieringEnabled) {
+            mover.execute(this::archiveColdDocuments);
+        }
+    }
+
+    // Write the buffered download counts to the documents table
+    @Scheduled(fixedDelayString = "${storage.tiering.access-flush-interval-ms:60000}")
+    public void scheduleAccessFlush() {
+        if (!pendingAccesses.isEmpty()) {
+            mover.execute(this::flushAccesses);
+        }
+    }
+
+    private void archiveColdDocuments() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(coldAfterDays);
+        long afterId = 0;
+        int checked = 0;
+        int archived = 0;
+        List<Document> batch;
+        do {
+            batch = documentRepository.findColdCandidates(Document.StorageTier.HOT, cutoff, afterId,
+                PageRequest.of(0, Math.min(BATCH_SIZE, maxDocumentsPerRun - checked)));
+            for (Document document : batch) {
+                afterId = document.getId();
+                if (archive(document)) {
+                    archived++;
+                }
+            }
+            checked += batch.size();
+        } while (batch.size() == BATCH_SIZE && checked < maxDocumentsPerRun && !Thread.currentThread().isInterrupted());
+
+        if (archived > 0) {
+            log.info("Storage tiering: archived {} of {} cold documents", archived, checked);
+        }
+    }
+
+    private boolean archive(Document document) {
+        Path source = Paths.get(document.getFilePath());
+        Path target = Paths.get(archiveDir).resolve(source.getFileName() + ARCHIVE_SUFFIX);
+        try {
+            if (!Files.exists(source)) {
+                // Nothing to move; the integrity check reports the missing file
+                return false;
+            }
+            String hash = copyBetweenTiers(source, target, true);
+            if (!hash.equals(document.getFileHash())) {
+                log.warn("Not archiving document {}: stored file does not match its hash", document.getId());
+                Files.deleteIfExists(target);
+                return false;
+            }
+            if (!switchTier(document.getId(), source, target, Document.StorageTier.COLD, Files.size(target))) {
+                Files.deleteIfExists(target);
+                return false;
+            }
+            Files.deleteIfExists(source);
+            meterRegistry.counter("storage.tiering.moves", "direction", "archive").increment();
+            meterRegistry.counter("storage.tiering.bytes", "direction", "archive").increment(Files.size(target));
+            return true;
+        } catch (IOException e) {
+            log.warn("Failed to archive document {}: {}", document.getId(), e.getMessage());
+            return false;
+        }
+    }
+
+    private void restore(Long documentId) {
+        try {
+            Document document = reload(documentId);
+            if (document == null || !document.isArchived()) {
+                return;
+            }
+            Path source = Paths.get(document.getFilePath());
+            String name = source.getFileName().toString();
+            if (name.endsWith(ARCHIVE_SUFFIX)) {
+                name = name.substring(0, name.length() - ARCHIVE_SUFFIX.length());
+            }
+            Path target = storageVolumes.forHash(document.getFileHash()).documents().resolve(name);
+
+            String hash = copyBetweenTiers(source, target, false);
+            if (!hash.equals(document.getFileHash())) {
+                // Keep the archived copy; the integrity check reports the mismatch
+                log.warn("Not restoring document {}: archived file does not match its hash", documentId);
+                Files.deleteIfExists(target);
+                return;
+            }
+            if (!switchTier(documentId, source, target, Document.StorageTier.HOT, Files.size(target))) {
+                Files.deleteIfExists(target);
+                return;
+            }
+            Files.deleteIfExists(source);
+            meterRegistry.counter("storage.tiering.moves", "direction", "restore").increment();
+        } catch (IOException e) {
+            log.warn("Failed to restore document {}: {}", documentId, e.getMessage());
+        }
+    }
+
+    // Point the row at the new copy, unless the document was deleted or moved meanwhile, or (when
+    // archiving) became the base of a delta since it was picked
+    private boolean switchTier(Long documentId, Path from, Path to, Document.StorageTier tier, long storedSize) {
+        return Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+            Document current = documentRepository.findByIdForUpdate(documentId).orElse(null);
+            if (current == null || !from.toString().equals(current.getFilePath())) {
+                return false;
+            }
+            if (tier == Document.StorageTier.COLD && documentRepository.existsByDeltaBaseId(documentId)) {
+                return false;
+            }
+            current.setFilePath(to.toString());
+            current.setStorageTier(tier);
+            current.setStoredSize(storedSize);
+            return true;
+        }));
+    }
+
+    /**
+     * Copy a file into the other tier, compressing or decompressing on the way, and return the
+     * SHA-256 of the original bytes. The copy is written to a temporary file, synced and renamed,
+     * so the target path never holds a partial file.
+     */
+    private String copyBetweenTiers(Path source, Path target, boolean compress) throws IOException {
+        Files.createDirectories(target.getParent());
+        Path temp = target.resolveSibling(target.getFileName() + TEMP_SUFFIX);
+        MessageDigest digest = sha256();
+        DiskOperationEvent diskWrite = new DiskOperationEvent(compress ? "archive" : "restore", target.toString());
+        try {
+            diskWrite.bytes = diskWrite.time(() -> {
+                try (InputStream in = new DigestInputStream(
+                         compress ? Files.newInputStream(source) : decompressing(Files.newInputStream(source)), digest);
+                     OutputStream out = compress ? compressing(Files.newOutputStream(temp)) : Files.newOutputStream(temp)) {
+                    return in.transferTo(out);
+                }
+            });
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                channel.force(true);
+            }
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            // The source is deleted after this returns, so the rename must survive a crash
+            durableFileWriter.syncDirectory(target.getParent());
+        } catch (IOException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private void flushAccesses() {
+        Map<Long, Long> counts = new HashMap<>();
+        for (Long id : new ArrayList<>(pendingAccesses.keySet())) {
+            LongAdder adder = pendingAccesses.remove(id);
+            if (adder != null) {
+                counts.put(id, adder.sum());
+            }
+        }
+        if (counts.isEmpty()) {
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        transactionTemplate.executeWithoutResult(status -> {
+            for (Document document : documentRepository.findAllById(counts.keySet())) {
+                long previous = document.getAccessCount() != null ? document.getAccessCount() : 0;
+                document.setAccessCount(previous + counts.get(document.getId()));
+                document.setLastAccessedAt(now);
+            }
+        });
+    }
+
+    // Read-write transaction, so the lookup goes to the primary rather than a lagging replica
+    private Document reload(Long documentId) {
+        return transactionTemplate.execute(status -> documentRepository.findById(documentId).orElse(null));
+    }
+
+    private InputStream openStored(Document document, Path path) throws IOException {
+        if (document.isDelta()) {
+            return openDelta(document, path);
+        }
+        if (document.isChunked()) {
+            return documentChunkStore.open(path);
+        }
+        InputStream in = Files.newInputStream(path);
+        return document.isArchived() ? decompressing(in) : in;
+    }
+
+    private InputStream openDelta(Document document, Path path) throws IOException {
+        Document base = reload(document.getDeltaBaseId());
+        FileChannel baseChannel = base != null ? openBase(base) : null;
+        if (baseChannel == null) {
+            throw new NoSuchFileException(document.getFilePath(), null, "delta base " + document.getDeltaBaseId() + " is missing");
+        }
+        try {
+            return DeltaCodec.decode(Files.newInputStream(path), baseChannel);
+        } catch (IOException e) {
+            baseChannel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * The base of a delta, for reads at the offsets its COPY instructions name, or null when it is
+     * missing. A chunked base is reassembled into a temporary file first, deleted once closed.
+     */
+    private FileChannel openBase(Document base) throws IOException {
+        if (!base.isChunked()) {
+            Path basePath = getUncompressedPath(base);
+            return basePath != null ? FileChannel.open(basePath, StandardOpenOption.READ) : null;
+        }
+        Path temp = Files.createTempFile("delta-base-", TEMP_SUFFIX);
+        FileChannel channel;
+        try {
+            channel = FileChannel.open(temp, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                StandardOpenOption.DELETE_ON_CLOSE);
+        } catch (IOException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        try (InputStream in = open(base)) {
+            in.transferTo(Channels.newOutputStream(channel));
+            return channel;
+        } catch (NoSuchFileException e) {
+            channel.close();
+            return null;
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private InputStream decompressing(InputStream in) throws IOException {
+        try {
+            return new GZIPInputStream(in, COPY_BUFFER_SIZE);
+        } catch (IOException e) {
+            in.close();
+            throw e;
+        }
+    }
+
+    private OutputStream compressing(OutputStream out) throws IOException {
+        int level = compressionLevel;
+        return new GZIPOutputStream(out, COPY_BUFFER_SIZE) {
+            {
+                def.setLevel(level);
+            }
+        };
+    }
+
+    private MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("Hash calculation failed", e);
+        }
+    }
+
+    // The stored bytes of an upload and, when they are a delta, the document they are a delta
+    // against, or when they are a chunk manifest, the chunks it references
+    public record StoredContent(byte[] bytes, Long deltaBaseId, List<String> chunks) {
+
+        public boolean isDelta() {
+            return deltaBaseId != null;
+        }
+
+        public boolean isChunked() {
+            return chunks != null;
+        }
+    }
+
+    // Decoded stream that reports the original size, so downloads keep their Content-Length
+    private static class DecodedResource extends InputStreamResource {
+
+        private final long size;
+
+        DecodedResource(InputStream in, Long size) {
+            super(in, "decoded document");
+            this.size = size != null ? size : -1;
+        }
+
+        @Override
+        public long contentLength() {
+            return size;
+        }
+    }
+}
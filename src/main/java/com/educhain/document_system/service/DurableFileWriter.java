@@ -0,0 +1,302 @@
+package com.educhain.document_system.service;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Crash-consistent file writes. Bytes go to a temporary file next to the target, which is synced
+ * and atomically renamed into place; the returned future completes once both the file and the
+ * rename are durable, and only then may a row pointing at the file be committed. Each file is
+ * synced on its volume's I/O threads as soon as it is written, so the syncs of concurrent
+ * uploads are in flight together and the filesystem can commit them in one journal transaction.
+ * Renames and directory syncs are group commits on one thread per volume: files synced within
+ * upload.fsync.group-window-ms (or while the previous batch was being committed) share a batch,
+ * and each directory is synced once per batch. A slow disk does not hold up the other volumes.
+ */
+@Component
+public class DurableFileWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(DurableFileWriter.class);
+
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    // Directories cannot be opened for syncing on Windows; NTFS renames are journaled anyway
+    private static final boolean DIRECTORY_SYNC = !System.getProperty("os.name", "").startsWith("Windows");
+
+    @Value("${upload.fsync.enabled:true}")
+    private boolean fsyncEnabled;
+
+    @Value("${upload.fsync.group-window-ms:2}")
+    private long groupWindowMs;
+
+    @Value("${upload.fsync.max-batch:64}")
+    private int maxBatch;
+
+    private final MeterRegistry meterRegistry;
+    private final StorageVolumes storageVolumes;
+
+    // One syncer per volume name; files outside the volumes (the archive tier) share "other"
+    private final Map<String, Syncer> syncers = new ConcurrentHashMap<>();
+    private volatile boolean stopped;
+
+    public DurableFileWriter(MeterRegistry meterRegistry, StorageVolumes storageVolumes) {
+        this.meterRegistry = meterRegistry;
+        this.storageVolumes = storageVolumes;
+    }
+
+    @PreDestroy
+    public void stop() {
+        stopped = true;
+        syncers.values().forEach(syncer -> syncer.thread.interrupt());
+    }
+
+    /**
+     * Write bytes to the target through a temporary file. The future completes when the file is
+     * durable under its final name; if it fails, nothing is left at the target.
+     */
+    public CompletableFuture<Void> write(Path target, byte[] bytes) throws IOException {
+        Path temp = Files.createTempFile(target.getParent(), target.getFileName() + ".", TEMP_SUFFIX);
+        FileChannel channel = null;
+        try {
+            channel = FileChannel.open(temp, StandardOpenOption.WRITE);
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch (IOException e) {
+            closeQuietly(channel);
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+
+        PendingWrite write = new PendingWrite(temp, target, channel);
+        if (!fsyncEnabled) {
+            // Atomic rename only: never a partial file at the target, but not crash-safe
+            try {
+                channel.close();
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+                write.done.complete(null);
+            } catch (IOException e) {
+                Files.deleteIfExists(temp);
+                throw e;
+            }
+            return write.done;
+        }
+
+        Syncer syncer = syncerFor(target);
+        try {
+            syncer.io.execute(() -> syncFile(syncer, write));
+        } catch (RejectedExecutionException e) {
+            fail(write, new IOException("File writer is shut down"));
+        }
+        return write.done;
+    }
+
+    // Write and wait until the file is durable
+    public void writeNow(Path target, byte[] bytes) throws IOException {
+        await(write(target, bytes));
+    }
+
+    // Wait for a write returned by write()
+    public static void await(CompletableFuture<Void> durable) throws IOException {
+        try {
+            durable.get();
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof IOException io ? io : new IOException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while syncing the file");
+        }
+    }
+
+    // Make renames and new entries in a directory durable
+    public void syncDirectory(Path directory) throws IOException {
+        if (!DIRECTORY_SYNC) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        }
+    }
+
+    // Files outside the volumes (the archive tier) are synced by the writing thread
+    private Syncer syncerFor(Path target) {
+        StorageVolumes.Volume volume = storageVolumes.volumeOf(target);
+        return volume != null
+            ? syncers.computeIfAbsent(volume.name(), name -> new Syncer(name, volume.io()))
+            : syncers.computeIfAbsent("other", name -> new Syncer(name, Runnable::run));
+    }
+
+    // Sync a written file, then queue it for the next rename batch
+    private void syncFile(Syncer syncer, PendingWrite write) {
+        long start = System.nanoTime();
+        try {
+            // Data and size; timestamps need not survive a crash
+            write.channel.force(false);
+        } catch (IOException e) {
+            fail(write, e);
+            return;
+        }
+        syncer.fileTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        syncer.pending.add(write);
+        if (stopped) {
+            // Lost the race with shutdown; the syncer may never see it
+            fail(write, new IOException("File writer is shut down"));
+        }
+    }
+
+    private void syncBatch(List<PendingWrite> batch) {
+        // Directory -> writes renamed into it, which become durable with the directory sync
+        Map<Path, List<PendingWrite>> renamed = new LinkedHashMap<>();
+        for (PendingWrite write : batch) {
+            try {
+                write.channel.close();
+                Files.move(write.temp, write.target, StandardCopyOption.ATOMIC_MOVE);
+                renamed.computeIfAbsent(write.target.getParent(), directory -> new ArrayList<>()).add(write);
+            } catch (IOException e) {
+                fail(write, e);
+            }
+        }
+
+        for (Map.Entry<Path, List<PendingWrite>> entry : renamed.entrySet()) {
+            try {
+                syncDirectory(entry.getKey());
+                entry.getValue().forEach(this::succeed);
+            } catch (IOException e) {
+                log.warn("Could not sync directory {}: {}", entry.getKey(), e.getMessage());
+                entry.getValue().forEach(write -> fail(write, e));
+            }
+        }
+    }
+
+    // Report the write durable, unless it already failed
+    private void succeed(PendingWrite write) {
+        synchronized (write) {
+            write.done.complete(null);
+        }
+    }
+
+    // Remove whatever the write left behind, then fail it (unless it already completed); a
+    // caller that sees the failure never finds its files
+    private void fail(PendingWrite write, IOException cause) {
+        synchronized (write) {
+            if (write.done.isDone()) {
+                return;
+            }
+            closeQuietly(write.channel);
+            try {
+                Files.deleteIfExists(write.temp);
+                Files.deleteIfExists(write.target);
+            } catch (IOException e) {
+                log.debug("Could not clean up failed write of {}: {}", write.target, e.getMessage());
+            }
+            write.done.completeExceptionally(cause);
+        }
+    }
+
+    private void closeQuietly(FileChannel channel) {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            // Already failing
+        }
+    }
+
+    // File sync threads, and rename thread and queue, of one volume
+    private class Syncer {
+
+        private final BlockingQueue<PendingWrite> pending = new LinkedBlockingQueue<>();
+        private final Executor io;
+        private final Timer fileTimer;
+        private final DistributionSummary batchSizes;
+        private final Timer batchTimer;
+        private final Thread thread;
+
+        Syncer(String volume, Executor io) {
+            this.io = io;
+            this.fileTimer = Timer.builder("upload.fsync.file")
+                .description("Time to sync one written file")
+                .tag("volume", volume)
+                .register(meterRegistry);
+            this.batchSizes = DistributionSummary.builder("upload.fsync.batch.size")
+                .description("Files made durable per group commit")
+                .tag("volume", volume)
+                .register(meterRegistry);
+            this.batchTimer = Timer.builder("upload.fsync.batch")
+                .description("Time to rename the files of one batch and sync their directories")
+                .tag("volume", volume)
+                .register(meterRegistry);
+            this.thread = new Thread(this::syncLoop, "upload-fsync " + volume);
+            this.thread.setDaemon(true);
+            this.thread.start();
+        }
+
+        private void syncLoop() {
+            List<PendingWrite> batch = new ArrayList<>();
+            try {
+                while (true) {
+                    batch.add(pending.take());
+                    pending.drainTo(batch, maxBatch - batch.size());
+                    long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(groupWindowMs);
+                    while (batch.size() < maxBatch) {
+                        long remaining = deadline - System.nanoTime();
+                        PendingWrite next = remaining > 0 ? pending.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                        if (next == null) {
+                            break;
+                        }
+                        batch.add(next);
+                    }
+                    batchTimer.record(() -> syncBatch(batch));
+                    batchSizes.record(batch.size());
+                    batch.clear();
+                }
+            } catch (InterruptedException e) {
+                pending.drainTo(batch);
+                IOException shutdown = new IOException("File writer is shut down");
+                batch.forEach(write -> fail(write, shutdown));
+            }
+        }
+    }
+
+    private static class PendingWrite {
+
+        private final Path temp;
+        private final Path target;
+        private final FileChannel channel;
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+
+        PendingWrite(Path temp, Path target, FileChannel channel) {
+            this.temp = temp;
+            this.target = target;
+            this.channel = channel;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.educhain.document_system.service;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A call to an external service: Gemini, reCAPTCHA or the blockchain node.
+ */
+@Name("educhain.ExternalCall")
+@Label("External Call")
+@Category({"EduChain", "External Calls"})
+@Description("Blocking call from a request to an external service")
+@StackTrace(false)
+class ExternalCallEvent extends TracedEvent {
+
+    @Label("Service")
+    String service;
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Outcome")
+    String outcome;
+
+    @Label("Request Bytes")
+    long requestBytes;
+
+    ExternalCallEvent(String service, String operation) {
+        this.service = service;
+        this.operation = operation;
+    }
+
+    @Override
+    void setOutcome(String outcome) {
+        this.outcome = outcome;
+    }
+
+    @Override
+    String traceName() {
+        return service + "." + operation;
+    }
+}
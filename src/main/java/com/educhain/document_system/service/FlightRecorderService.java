@@ -0,0 +1,204 @@
+package com.educhain.document_system.service;
+
+import com.educhain.document_system.model.SlowRequest;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Always-on flight recording with the JDK "default" settings (about 1% overhead) plus the
+ * application's events, kept for the last few minutes. When a request crosses the
+ * slow-request threshold the recording is dumped to disk (at most once per interval),
+ * so the trace around the slow request survives.
+ */
+@Service
+public class FlightRecorderService {
+
+    private static final Logger log = LoggerFactory.getLogger(FlightRecorderService.class);
+    private static final DateTimeFormatter DUMP_NAME_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    @Value("${diagnostics.slow-request-threshold-ms:5000}")
+    private long slowRequestThresholdMs;
+
+    @Value("${diagnostics.dump-dir:./diagnostics/}")
+    private String dumpDir;
+
+    @Value("${diagnostics.recording.max-age-minutes:5}")
+    private long recordingMaxAgeMinutes;
+
+    @Value("${diagnostics.recording.max-size-mb:100}")
+    private long recordingMaxSizeMb;
+
+    @Value("${diagnostics.min-dump-interval-seconds:60}")
+    private long minDumpIntervalSeconds;
+
+    @Value("${diagnostics.max-dumps:20}")
+    private int maxDumps;
+
+    @Value("${diagnostics.recent-slow-requests:100}")
+    private int recentLimit;
+
+    private Recording recording;
+
+    // Dumps take a while; never on the request thread
+    private final ExecutorService dumpExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "flight-recording-dump");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicLong lastDumpNanos = new AtomicLong(System.nanoTime() - Duration.ofDays(1).toNanos());
+    private final Deque<SlowRequest> recent = new ArrayDeque<>();
+    private final ReentrantLock recentLock = new ReentrantLock();
+
+    @PostConstruct
+    public void start() {
+        try {
+            recording = new Recording(Configuration.getConfiguration("default"));
+            recording.setName("educhain-continuous");
+            recording.setToDisk(true);
+            recording.setMaxAge(Duration.ofMinutes(recordingMaxAgeMinutes));
+            recording.setMaxSize(recordingMaxSizeMb * 1024 * 1024);
+            recording.enable(ExternalCallEvent.class);
+            recording.enable(DiskOperationEvent.class);
+            recording.enable(SlowRequestEvent.class);
+            recording.start();
+        } catch (IOException | ParseException | IllegalStateException | SecurityException e) {
+            // JFR unavailable (e.g. disabled in this JVM); slow requests are still listed
+            log.warn("Continuous flight recording not started: {}", e.getMessage());
+            recording = null;
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        dumpExecutor.shutdown();
+        if (recording != null) {
+            recording.close();
+        }
+    }
+
+    public long getSlowRequestThresholdMs() {
+        return slowRequestThresholdMs;
+    }
+
+    /**
+     * Called for every finished request; records it if it was slow.
+     */
+    public void requestFinished(String method, String uri, int status, long durationNanos,
+                                List<RequestTrace.Span> spans) {
+        if (durationNanos < slowRequestThresholdMs * 1_000_000) {
+            return;
+        }
+
+        SlowRequestEvent event = new SlowRequestEvent();
+        event.method = method;
+        event.uri = uri;
+        event.status = status;
+        event.requestNanos = durationNanos;
+        event.commit();
+
+        double durationMillis = durationNanos / 1_000_000.0;
+        double tracedMillis = 0;
+        List<Map<String, Object>> breakdown = new ArrayList<>();
+        for (RequestTrace.Span span : spans) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("name", span.name());
+            entry.put("outcome", span.outcome());
+            entry.put("millis", round(span.millis()));
+            breakdown.add(entry);
+            tracedMillis += span.millis();
+        }
+
+        String dump = dumpIfDue();
+        log.warn("Slow request {} {} took {} ms (status {}){}", method, uri, Math.round(durationMillis), status,
+            dump != null ? ", recording dumped to " + dump : "");
+
+        SlowRequest slowRequest = new SlowRequest(LocalDateTime.now(), method, uri, status, round(durationMillis),
+            breakdown, round(Math.max(0, durationMillis - tracedMillis)), dump);
+        recentLock.lock();
+        try {
+            recent.addFirst(slowRequest);
+            while (recent.size() > recentLimit) {
+                recent.removeLast();
+            }
+        } finally {
+            recentLock.unlock();
+        }
+    }
+
+    // Most recent slow requests first
+    public List<SlowRequest> getRecentSlowRequests() {
+        recentLock.lock();
+        try {
+            return new ArrayList<>(recent);
+        } finally {
+            recentLock.unlock();
+        }
+    }
+
+    // Dump the continuous recording in the background unless another dump happened within the interval
+    private String dumpIfDue() {
+        if (recording == null) {
+            return null;
+        }
+        long now = System.nanoTime();
+        long last = lastDumpNanos.get();
+        if (now - last < Duration.ofSeconds(minDumpIntervalSeconds).toNanos() || !lastDumpNanos.compareAndSet(last, now)) {
+            return null;
+        }
+        Path directory = Paths.get(dumpDir);
+        Path file = directory.resolve("slow-request-" + LocalDateTime.now().format(DUMP_NAME_FORMAT) + ".jfr");
+        dumpExecutor.execute(() -> {
+            try {
+                Files.createDirectories(directory);
+                recording.dump(file);
+                pruneDumps(directory);
+            } catch (IOException e) {
+                log.error("Failed to dump flight recording", e);
+            }
+        });
+        return file.toString();
+    }
+
+    // Keep only the newest maxDumps recordings
+    private void pruneDumps(Path directory) throws IOException {
+        List<Path> dumps;
+        try (Stream<Path> files = Files.list(directory)) {
+            dumps = files.filter(path -> path.getFileName().toString().startsWith("slow-request-"))
+                .sorted(Comparator.comparing(Path::toString).reversed())
+                .toList();
+        }
+        for (int i = maxDumps; i < dumps.size(); i++) {
+            Files.deleteIfExists(dumps.get(i));
+        }
+    }
+
+    private static double round(double millis) {
+        return Math.round(millis * 10) / 10.0;
+    }
+}
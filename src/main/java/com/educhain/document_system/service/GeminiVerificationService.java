@@ -1,12 +1,16 @@
 package com.educhain. document_system.service;
 
 import com.educhain.document_system. model.VerificationResult;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.util.function.SingletonSupplier;
 import org.springframework.web.multipart.MultipartFile;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
@@ -18,7 +22,9 @@ import java.util.List;
 @Service
 public class GeminiVerificationService {
 
-    @Value("${gemini. api. key: }")
+    private static final Logger log = LoggerFactory.getLogger(GeminiVerificationService.class);
+
+    @Value("${gemini.api.key:}")
     private String geminiApiKey;
 
     @Value("${gemini.api.url:https://generativelanguage.googleapis.com/v1beta/models/gemini-1.5-flash:generateContent}")
@@ -30,7 +36,11 @@ public class GeminiVerificationService {
     @Value("${gemini.confidence.threshold:0.75}")
     private double confidenceThreshold;
 
-    private final HttpClient httpClient = HttpClient.newHttpClient();
+    @Autowired
+    private UpstreamLimiter upstreamLimiter;
+
+    // Built on the first verification, not at startup
+    private final SingletonSupplier<HttpClient> httpClient = SingletonSupplier.of(HttpClient::newHttpClient);
     private final ObjectMapper objectMapper = new ObjectMapper();
 
     private static final List<String> SUPPORTED_TYPES = Arrays.asList(
@@ -50,7 +60,7 @@ public class GeminiVerificationService {
 
             // Check if API key is configured
             if (geminiApiKey == null || geminiApiKey. trim().isEmpty()) {
-                System.err.println("Gemini API key not configured - skipping verification");
+                log.warn("Gemini API key not configured - skipping verification");
                 return new VerificationResult(true, selectedDocumentType, 1.0, 
                     "API key not configured - document accepted without verification");
             }
@@ -79,8 +89,7 @@ public class GeminiVerificationService {
             return parseGeminiResponse(geminiResponse, selectedDocumentType);
 
         } catch (Exception e) {
-            System.err.println("Verification error: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Gemini verification error", e);
             // In case of error, allow upload but log the issue
             return new VerificationResult(true, selectedDocumentType, 0.5, 
                 "Verification service unavailable - document accepted with warning");
@@ -91,14 +100,7 @@ public class GeminiVerificationService {
      * Call Google Gemini Vision API
      */
     private String callGeminiAPI(String base64Image, String documentType, String mimeType) throws Exception {
-        String prompt = buildPrompt(documentType);
-        
-        String requestBody = String.format(
-            "{\"contents\":[{\"parts\":[{\"text\":\"%s\"},{\"inline_data\":{\"mime_type\":\"%s\",\"data\":\"%s\"}}]}]}",
-            prompt. replace("\"", "\\\"").replace("\n", "\\n"),
-            mimeType,
-            base64Image
-        );
+        String requestBody = buildRequestBody(base64Image, documentType, mimeType);
 
         HttpRequest request = HttpRequest.newBuilder()
             .uri(URI.create(geminiApiUrl + "?key=" + geminiApiKey))
@@ -106,7 +108,11 @@ public class GeminiVerificationService {
             .POST(HttpRequest.BodyPublishers.ofString(requestBody))
             .build();
 
-        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        ExternalCallEvent call = new ExternalCallEvent("gemini", "generateContent");
+        call.requestBytes = requestBody.length();
+        HttpResponse<String> response = upstreamLimiter.call(UpstreamLimiter.Upstream.GEMINI, () -> call.time(
+            () -> httpClient.obtain().send(request, HttpResponse.BodyHandlers.ofString()),
+            result -> String.valueOf(result.statusCode())));
 
         if (response.statusCode() != 200) {
             throw new RuntimeException("Gemini API error: " + response.body());
@@ -115,6 +121,20 @@ public class GeminiVerificationService {
         return response.body();
     }
 
+    /**
+     * Build the generateContent request body (package-private for the benchmarks module)
+     */
+    String buildRequestBody(String base64Image, String documentType, String mimeType) {
+        String prompt = buildPrompt(documentType);
+        
+        return String.format(
+            "{\"contents\":[{\"parts\":[{\"text\":\"%s\"},{\"inline_data\":{\"mime_type\":\"%s\",\"data\":\"%s\"}}]}]}",
+            prompt. replace("\"", "\\\"").replace("\n", "\\n"),
+            mimeType,
+            base64Image
+        );
+    }
+
     /**
      * Build verification prompt for Gemini
      */
@@ -139,9 +159,9 @@ public class GeminiVerificationService {
     }
 
     /**
-     * Parse Gemini API response
+     * Parse Gemini API response (package-private for the benchmarks module)
      */
-    private VerificationResult parseGeminiResponse(String apiResponse, String expectedType) {
+    VerificationResult parseGeminiResponse(String apiResponse, String expectedType) {
         try {
             JsonNode root = objectMapper.readTree(apiResponse);
             
@@ -173,7 +193,7 @@ public class GeminiVerificationService {
                     true, 
                     detectedType, 
                     confidence, 
-                    String.format("✅ Document verified as %s with %. 0f%% confidence", detectedType, confidence * 100)
+                    String.format("✅ Document verified as %s with %.0f%% confidence", detectedType, confidence * 100)
                 );
             } else if (!typesMatch) {
                 VerificationResult result = new VerificationResult(
@@ -202,8 +222,7 @@ public class GeminiVerificationService {
             }
 
         } catch (Exception e) {
-            System.err.println("Failed to parse Gemini response: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Failed to parse Gemini response", e);
             // On parse error, allow upload but warn
             return new VerificationResult(true, expectedType, 0.5, 
                 "Could not parse verification result - document accepted with warning");
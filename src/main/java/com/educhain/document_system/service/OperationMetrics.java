@@ -0,0 +1,66 @@
+package com.educhain.document_system.service;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Latency histograms for the document hot paths. Each operation (upload, download, verify)
+ * records its end-to-end time tagged with the outcome, and each stage inside it separately,
+ * so a slow upload can be attributed to disk, hashing, Gemini, the database or the chain.
+ */
+@Component
+public class OperationMetrics {
+
+    public static final String UPLOAD = "upload";
+    public static final String DOWNLOAD = "download";
+    public static final String VERIFY = "verify";
+
+    private final MeterRegistry registry;
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+    private final DistributionSummary downloadBytes;
+
+    public OperationMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.downloadBytes = DistributionSummary.builder("document.download.size")
+            .baseUnit("bytes")
+            .publishPercentileHistogram()
+            .register(registry);
+    }
+
+    // Start timing an operation or stage
+    public Timer.Sample start() {
+        return Timer.start(registry);
+    }
+
+    // Record the time since the sample started as one stage of an operation
+    public void stage(Timer.Sample sample, String operation, String stage) {
+        sample.stop(timers.computeIfAbsent(operation + "/" + stage, key -> histogram("document.operation.stage")
+            .tag("operation", operation)
+            .tag("stage", stage)
+            .register(registry)));
+    }
+
+    // Record the whole operation with its outcome (success, rejected, not_found, error, ...)
+    public void complete(Timer.Sample sample, String operation, String outcome) {
+        sample.stop(timers.computeIfAbsent(operation + "=" + outcome, key -> histogram("document.operation")
+            .tag("operation", operation)
+            .tag("outcome", outcome)
+            .register(registry)));
+    }
+
+    public void recordDownloadSize(long bytes) {
+        downloadBytes.record(bytes);
+    }
+
+    private Timer.Builder histogram(String name) {
+        return Timer.builder(name)
+            .publishPercentileHistogram()
+            .minimumExpectedValue(Duration.ofMillis(1))
+            .maximumExpectedValue(Duration.ofMinutes(2));
+    }
+}
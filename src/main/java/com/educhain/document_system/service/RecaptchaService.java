@@ -1,8 +1,10 @@
 package com.educhain.document_system.service;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.util.function.SingletonSupplier;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
 import org.springframework.http.HttpEntity;
@@ -13,18 +15,26 @@ import org.springframework.http.ResponseEntity;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import java.util.Map;
 
 @Service
 public class RecaptchaService {
 
+    private static final Logger log = LoggerFactory.getLogger(RecaptchaService.class);
+
     @Value("${recaptcha.secret.key}")
     private String secretKey;
 
     @Value("${recaptcha.verify.url}")
     private String verifyUrl;
 
-    private final RestTemplate restTemplate = new RestTemplate();
+    @Autowired
+    private UpstreamLimiter upstreamLimiter;
+
+    // Built on the first verification, not at startup
+    private final SingletonSupplier<RestTemplate> restTemplate = SingletonSupplier.of(RestTemplate::new);
     private final ObjectMapper objectMapper = new ObjectMapper();
 
     /**
@@ -55,7 +65,7 @@ public class RecaptchaService {
             HttpEntity<MultiValueMap<String, String>> request = new HttpEntity<>(requestBody, headers);
 
             // Make request to Google
-            ResponseEntity<String> response = restTemplate.postForEntity(verifyUrl, request, String.class);
+            ResponseEntity<String> response = siteverify(request);
 
             if (response.getStatusCode().is2xxSuccessful()) {
                 JsonNode jsonResponse = objectMapper.readTree(response.getBody());
@@ -66,7 +76,7 @@ public class RecaptchaService {
 
         } catch (Exception e) {
             // Log the error in production
-            System.err.println("reCAPTCHA verification error: " + e.getMessage());
+            log.warn("reCAPTCHA verification error: {}", e.getMessage());
             return false;
         }
     }
@@ -91,7 +101,7 @@ public class RecaptchaService {
             headers.setContentType(MediaType.APPLICATION_FORM_URLENCODED);
 
             HttpEntity<MultiValueMap<String, String>> request = new HttpEntity<>(requestBody, headers);
-            ResponseEntity<String> response = restTemplate.postForEntity(verifyUrl, request, String.class);
+            ResponseEntity<String> response = siteverify(request);
 
             if (response.getStatusCode().is2xxSuccessful()) {
                 return objectMapper.readValue(response.getBody(), Map.class);
@@ -103,4 +113,12 @@ public class RecaptchaService {
             return Map.of("success", false, "error", e.getMessage());
         }
     }
-}
\ No newline at end of file
+
+    // POST to siteverify, bounded by the reCAPTCHA concurrency limit
+    private ResponseEntity<String> siteverify(HttpEntity<MultiValueMap<String, String>> request) {
+        return upstreamLimiter.call(UpstreamLimiter.Upstream.RECAPTCHA, () ->
+            new ExternalCallEvent("recaptcha", "siteverify").time(
+                () -> restTemplate.obtain().postForEntity(verifyUrl, request, String.class),
+                result -> String.valueOf(result.getStatusCode().value())));
+    }
+}
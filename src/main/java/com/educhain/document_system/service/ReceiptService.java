@@ -0,0 +1,225 @@
+package com.educhain.document_system.service;
+
+import com.educhain.document_system.model.Document;
+import com.educhain.document_system.model.VerificationReceipt;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Issues verification receipts as compact JWS (RFC 7515) signed with Ed25519, so anyone can
+ * check one offline against the public keys from getPublicJwks(). Ed25519 signatures are
+ * deterministic: the same receipt always has the same token, which is what lets caches keep it.
+ * Retired public keys stay published under their key id, so receipts signed before a key
+ * rotation keep verifying.
+ */
+@Service
+public class ReceiptService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReceiptService.class);
+
+    private static final String ALGORITHM = "Ed25519";
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+    private static final Base64.Encoder BASE64URL = Base64.getUrlEncoder().withoutPadding();
+
+    // SubjectPublicKeyInfo prefix of an X.509-encoded Ed25519 key; the raw key is the 32 bytes after it
+    private static final int X509_PREFIX_LENGTH = 12;
+
+    @Autowired
+    private DocumentService documentService;
+
+    @Value("${receipts.issuer:EduChain Document System}")
+    private String issuer;
+
+    // PKCS#8 private key and X.509 public key, PEM or base64 DER (openssl genpkey -algorithm ed25519)
+    @Value("${receipts.private-key:}")
+    private String privateKeyText;
+
+    @Value("${receipts.public-key:}")
+    private String publicKeyText;
+
+    // Comma-separated X.509 public keys of earlier signing keys, still published for verification
+    @Value("${receipts.previous-public-keys:}")
+    private String previousPublicKeysText;
+
+    // Receipts are serialized with a plain mapper so their bytes do not depend on application settings
+    private final ObjectMapper receiptMapper = new ObjectMapper();
+
+    private PrivateKey privateKey;
+    private PublicKey publicKey;
+    private String keyId;
+    private boolean temporaryKey;
+    private List<Map<String, Object>> previousJwks;
+    private String encodedHeader;
+
+    @PostConstruct
+    public void loadKeys() throws GeneralSecurityException {
+        KeyFactory keyFactory = KeyFactory.getInstance(ALGORITHM);
+        if (privateKeyText.isBlank() || publicKeyText.isBlank()) {
+            KeyPair keyPair = KeyPairGenerator.getInstance(ALGORITHM).generateKeyPair();
+            privateKey = keyPair.getPrivate();
+            publicKey = keyPair.getPublic();
+            temporaryKey = true;
+            log.warn("No receipt signing key configured (RECEIPT_PRIVATE_KEY/RECEIPT_PUBLIC_KEY); "
+                + "using a temporary key, receipts will not verify after a restart");
+        } else {
+            privateKey = keyFactory.generatePrivate(new PKCS8EncodedKeySpec(decodeKey(privateKeyText)));
+            publicKey = keyFactory.generatePublic(new X509EncodedKeySpec(decodeKey(publicKeyText)));
+        }
+
+        // Refuse to start with keys that do not belong together
+        byte[] probe = "receipt-key-check".getBytes(StandardCharsets.US_ASCII);
+        if (!verify(probe, sign(probe))) {
+            throw new IllegalStateException("receipts.private-key does not match receipts.public-key");
+        }
+
+        keyId = keyId(publicKey);
+        previousJwks = new ArrayList<>();
+        for (String previous : previousPublicKeysText.split(",")) {
+            if (!previous.isBlank()) {
+                PublicKey previousKey = keyFactory.generatePublic(new X509EncodedKeySpec(decodeKey(previous)));
+                if (!keyId(previousKey).equals(keyId)) {
+                    previousJwks.add(jwk(previousKey));
+                }
+            }
+        }
+        Map<String, Object> header = new LinkedHashMap<>();
+        header.put("alg", "EdDSA");
+        header.put("kid", keyId);
+        header.put("typ", "document-receipt+jws");
+        encodedHeader = BASE64URL.encodeToString(toJson(header));
+        log.info("Receipt signing key {} loaded, {} previous keys published", keyId, previousJwks.size());
+    }
+
+    // Receipt for a document, looked up by its SHA-256 hash (throws if no document has it)
+    public SignedReceipt getReceipt(String fileHash) {
+        Document document = documentService.getDocumentByFileHash(fileHash);
+        VerificationReceipt receipt = new VerificationReceipt(
+            issuer,
+            document.getFileHash(),
+            document.getDocumentType(),
+            document.getUploadDate() != null ? document.getUploadDate().format(DATE_FORMAT) : null,
+            document.getBlockchainTxHash()
+        );
+
+        String signingInput = encodedHeader + "." + BASE64URL.encodeToString(toJson(receipt));
+        String signature = BASE64URL.encodeToString(sign(signingInput.getBytes(StandardCharsets.US_ASCII)));
+        return new SignedReceipt(receipt, signingInput + "." + signature, keyId);
+    }
+
+    // Current public key as a JWK (RFC 8037), for offline verification
+    public Map<String, Object> getPublicJwk() {
+        return jwk(publicKey);
+    }
+
+    // Current and previous public keys as JWKs; a receipt's header names the one it was signed with
+    public List<Map<String, Object>> getPublicJwks() {
+        List<Map<String, Object>> jwks = new ArrayList<>();
+        jwks.add(getPublicJwk());
+        jwks.addAll(previousJwks);
+        return jwks;
+    }
+
+    // X.509 (PEM) form of the public key
+    public String getPublicKeyPem() {
+        String base64 = Base64.getMimeEncoder(64, "\n".getBytes(StandardCharsets.US_ASCII))
+            .encodeToString(publicKey.getEncoded());
+        return "-----BEGIN PUBLIC KEY-----\n" + base64 + "\n-----END PUBLIC KEY-----\n";
+    }
+
+    public String getKeyId() {
+        return keyId;
+    }
+
+    // Whether receipts are signed with a configured key, i.e. still verify after a restart
+    public boolean isKeyConfigured() {
+        return !temporaryKey;
+    }
+
+    private byte[] sign(byte[] data) {
+        try {
+            Signature signer = Signature.getInstance(ALGORITHM);
+            signer.initSign(privateKey);
+            signer.update(data);
+            return signer.sign();
+        } catch (GeneralSecurityException e) {
+            throw new RuntimeException("Receipt signing failed", e);
+        }
+    }
+
+    private boolean verify(byte[] data, byte[] signature) throws GeneralSecurityException {
+        Signature verifier = Signature.getInstance(ALGORITHM);
+        verifier.initVerify(publicKey);
+        verifier.update(data);
+        return verifier.verify(signature);
+    }
+
+    private static Map<String, Object> jwk(PublicKey key) {
+        Map<String, Object> jwk = new LinkedHashMap<>();
+        jwk.put("kty", "OKP");
+        jwk.put("crv", ALGORITHM);
+        jwk.put("x", BASE64URL.encodeToString(rawPublicKey(key)));
+        jwk.put("kid", keyId(key));
+        jwk.put("use", "sig");
+        jwk.put("alg", "EdDSA");
+        return jwk;
+    }
+
+    // First 12 bytes of the SHA-256 of the raw key
+    private static String keyId(PublicKey key) {
+        try {
+            return BASE64URL.encodeToString(Arrays.copyOf(
+                MessageDigest.getInstance("SHA-256").digest(rawPublicKey(key)), 12));
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("Hash calculation failed", e);
+        }
+    }
+
+    private static byte[] rawPublicKey(PublicKey key) {
+        byte[] encoded = key.getEncoded();
+        return Arrays.copyOfRange(encoded, X509_PREFIX_LENGTH, encoded.length);
+    }
+
+    private byte[] toJson(Object value) {
+        try {
+            return receiptMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Receipt serialization failed", e);
+        }
+    }
+
+    private static byte[] decodeKey(String text) {
+        String base64 = text.replaceAll("-----(BEGIN|END) [A-Z ]+-----", "").replaceAll("\\s", "");
+        return Base64.getDecoder().decode(base64);
+    }
+
+    /**
+     * A receipt with its compact JWS (header.payload.signature; the payload is the receipt JSON).
+     */
+    public record SignedReceipt(VerificationReceipt receipt, String jws, String keyId) {
+    }
+}
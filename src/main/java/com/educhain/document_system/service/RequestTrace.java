@@ -0,0 +1,39 @@
+package com.educhain.document_system.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Per-thread list of the external calls and disk operations made while handling the
+ * current request. Only collected between start() and stop(); otherwise record() is a no-op.
+ */
+public final class RequestTrace {
+
+    private static final int MAX_SPANS = 100;
+    private static final ThreadLocal<List<Span>> CURRENT = new ThreadLocal<>();
+
+    // One timed operation within a request
+    public record Span(String name, String outcome, double millis) {
+    }
+
+    private RequestTrace() {
+    }
+
+    public static void start() {
+        CURRENT.set(new ArrayList<>());
+    }
+
+    // Spans recorded since start(), and stop collecting
+    public static List<Span> stop() {
+        List<Span> spans = CURRENT.get();
+        CURRENT.remove();
+        return spans != null ? spans : List.of();
+    }
+
+    static void record(String name, String outcome, long nanos) {
+        List<Span> spans = CURRENT.get();
+        if (spans != null && spans.size() < MAX_SPANS) {
+            spans.add(new Span(name, outcome, nanos / 1_000_000.0));
+        }
+    }
+}
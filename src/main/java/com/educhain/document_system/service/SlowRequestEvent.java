@@ -0,0 +1,30 @@
+package com.educhain.document_system.service;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * An HTTP request that exceeded the slow-request threshold; marks the spot in a dump.
+ */
+@Name("educhain.SlowRequest")
+@Label("Slow Request")
+@Category({"EduChain", "Requests"})
+@StackTrace(false)
+class SlowRequestEvent extends jdk.jfr.Event {
+
+    @Label("Method")
+    String method;
+
+    @Label("URI")
+    String uri;
+
+    @Label("Status")
+    int status;
+
+    @Label("Request Duration")
+    @Timespan(Timespan.NANOSECONDS)
+    long requestNanos;
+}
@@ -0,0 +1,213 @@
+package com.educhain.document_system.service;
+
+import com.educhain.document_system.model.Document;
+import com.educhain.document_system.repository.DocumentRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Moves files to the volume that owns them after the ring changed (a volume was added, or the
+ * default location retired), while the application keeps serving. Hot document files are copied
+ * to their owner, synced and switched with the same conditional row update as tier moves; chunks
+ * are copied before the misplaced copy is removed. Readers look on the owning volume first and
+ * fall back to where the file was, so no request has to wait for a pass. Moves are throttled to
+ * storage.volumes.rebalance-mb-per-second so serving traffic keeps most of the disk bandwidth.
+ */
+@Service
+public class StorageRebalancer {
+
+    private static final Logger log = LoggerFactory.getLogger(StorageRebalancer.class);
+
+    private static final int BATCH_SIZE = 500;
+
+    @Autowired
+    private DocumentRepository documentRepository;
+
+    @Autowired
+    private DocumentStorageService documentStorageService;
+
+    @Autowired
+    private DocumentChunkStore documentChunkStore;
+
+    @Autowired
+    private StorageVolumes storageVolumes;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${storage.volumes.rebalance-mb-per-second:50}")
+    private long maxMbPerSecond;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    private volatile Run current;
+    private volatile Map<String, Object> lastReport = Map.of();
+
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "storage-rebalance");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @PreDestroy
+    public void stop() {
+        worker.shutdownNow();
+    }
+
+    // Nothing can be misplaced while there is a single location
+    @Scheduled(initialDelayString = "${storage.volumes.rebalance-initial-delay-ms:120000}",
+               fixedDelayString = "${storage.volumes.rebalance-interval-ms:86400000}")
+    public void scheduledRun() {
+        if (storageVolumes.getAllVolumes().size() > 1) {
+            start();
+        }
+    }
+
+    // Start a pass in the background; false when one is already running
+    public boolean start() {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        try {
+            worker.execute(() -> {
+                try {
+                    rebalance();
+                } finally {
+                    running.set(false);
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            running.set(false);
+            return false;
+        }
+    }
+
+    // Progress of the running pass, or the report of the last one
+    public Map<String, Object> getStatus() {
+        Run run = current;
+        return run != null ? run.toReport(true) : lastReport;
+    }
+
+    private void rebalance() {
+        Run run = new Run();
+        current = run;
+        try {
+            moveDocuments(run);
+            run.chunksMoved = documentChunkStore.rebalance(bytes -> throttle(run, bytes));
+        } catch (RuntimeException e) {
+            log.warn("Storage rebalancing stopped: {}", e.getMessage());
+            run.error = e.getMessage();
+        } finally {
+            lastReport = run.toReport(false);
+            current = null;
+        }
+        if (run.documentsMoved > 0 || run.chunksMoved > 0) {
+            log.info("Storage rebalancing: moved {} documents and {} chunks ({} MB)",
+                run.documentsMoved, run.chunksMoved, run.bytesMoved / (1024 * 1024));
+        }
+    }
+
+    private void moveDocuments(Run run) {
+        long afterId = 0;
+        List<Object[]> batch;
+        do {
+            batch = documentRepository.findPlacementAfter(afterId, Document.StorageTier.HOT, PageRequest.of(0, BATCH_SIZE));
+            for (Object[] row : batch) {
+                afterId = (Long) row[0];
+                run.documentsChecked++;
+                String filePath = (String) row[1];
+                String fileHash = (String) row[2];
+                if (filePath == null || fileHash == null
+                        || storageVolumes.volumeOf(Paths.get(filePath)) == storageVolumes.forHash(fileHash)) {
+                    continue;
+                }
+                move(run, afterId);
+            }
+        } while (batch.size() == BATCH_SIZE && !Thread.currentThread().isInterrupted());
+    }
+
+    private void move(Run run, Long documentId) {
+        // Re-read from the primary: the document may have been deleted or moved meanwhile
+        Document document = transactionTemplate.execute(status -> documentRepository.findById(documentId).orElse(null));
+        if (document == null) {
+            return;
+        }
+        try {
+            long bytes = documentStorageService.relocate(document);
+            if (bytes > 0) {
+                run.documentsMoved++;
+                throttle(run, bytes);
+            }
+        } catch (IOException e) {
+            run.failures++;
+            log.warn("Could not move document {} to its volume: {}", documentId, e.getMessage());
+        }
+    }
+
+    // Sleep while the pass is ahead of the allowed rate
+    private void throttle(Run run, long bytes) {
+        run.bytesMoved += bytes;
+        if (maxMbPerSecond <= 0) {
+            return;
+        }
+        long allowedAt = run.bytesMoved * TimeUnit.SECONDS.toNanos(1) / (maxMbPerSecond * 1024 * 1024);
+        long ahead = allowedAt - (System.nanoTime() - run.startNanos);
+        if (ahead > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(ahead);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    // Counters of one pass
+    private class Run {
+
+        private final Instant startedAt = Instant.now();
+        private final long startNanos = System.nanoTime();
+        private volatile long documentsChecked;
+        private volatile long documentsMoved;
+        private volatile long chunksMoved;
+        private volatile long bytesMoved;
+        private volatile long failures;
+        private volatile String error;
+
+        Map<String, Object> toReport(boolean inProgress) {
+            Map<String, Object> report = new LinkedHashMap<>();
+            report.put("running", inProgress);
+            report.put("startedAt", startedAt.toString());
+            report.put("durationMs", Duration.between(startedAt, Instant.now()).toMillis());
+            report.put("volumes", storageVolumes.getVolumes().stream().map(StorageVolumes.Volume::name).toList());
+            report.put("documentsChecked", documentsChecked);
+            report.put("documentsMoved", documentsMoved);
+            report.put("chunksMoved", chunksMoved);
+            report.put("bytesMoved", bytesMoved);
+            report.put("failures", failures);
+            if (error != null) {
+                report.put("error", error);
+            }
+            return report;
+        }
+    }
+}
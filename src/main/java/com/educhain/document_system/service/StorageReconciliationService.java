@@ -0,0 +1,382 @@
+package com.educhain.document_system.service;
+
+import com.educhain.document_system.model.Document;
+import com.educhain.document_system.repository.DocumentRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * Finds stored files without a document row (an upload that crashed before its insert) and
+ * document rows without a file (a delete that crashed after removing the file). Each run is
+ * bounded by storage.reconcile.max-run-seconds and continues where the previous one stopped:
+ * rows are read in id order in keyset batches, files in path order from a parallel walk of the
+ * upload and archive directories. In report mode findings are only logged and kept for the
+ * admin endpoint; in repair mode orphan files are deleted and dangling rows removed.
+ */
+@Service
+public class StorageReconciliationService {
+
+    private static final Logger log = LoggerFactory.getLogger(StorageReconciliationService.class);
+
+    private static final int BATCH_SIZE = 500;
+    private static final int MAX_REPORTED = 100;
+
+    @Autowired
+    private DocumentRepository documentRepository;
+
+    @Autowired
+    private DocumentService documentService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${storage.archive-dir:./archive/}")
+    private String archiveDir;
+
+    @Autowired
+    private StorageVolumes storageVolumes;
+
+    @Value("${storage.reconcile.repair:false}")
+    private boolean repair;
+
+    @Value("${storage.reconcile.max-run-seconds:60}")
+    private long maxRunSeconds;
+
+    @Value("${storage.reconcile.max-files-per-run:100000}")
+    private int maxFilesPerRun;
+
+    // Files younger than this may belong to an upload whose row is not committed yet
+    @Value("${storage.reconcile.orphan-grace-minutes:60}")
+    private long orphanGraceMinutes;
+
+    @Value("${storage.reconcile.parallelism:4}")
+    private int parallelism;
+
+    private ForkJoinPool pool;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    // Where the next run continues: last checked document id and last checked file path
+    private volatile long rowCursor;
+    private volatile String fileCursor = "";
+
+    private volatile Map<String, Object> lastReport = Map.of();
+
+    @PostConstruct
+    public void start() {
+        pool = new ForkJoinPool(parallelism);
+    }
+
+    @PreDestroy
+    public void stop() {
+        pool.shutdownNow();
+    }
+
+    @Scheduled(initialDelayString = "${storage.reconcile.initial-delay-ms:300000}",
+               fixedDelayString = "${storage.reconcile.interval-ms:3600000}")
+    public void scheduledRun() {
+        reconcile();
+    }
+
+    /**
+     * Check the next slice of rows and files. Returns the report of this run, or null when
+     * another run is still in progress.
+     */
+    public Map<String, Object> reconcile() {
+        if (!running.compareAndSet(false, true)) {
+            return null;
+        }
+        try {
+            // Each direction gets half of the time, so a large table cannot starve the file check
+            Instant start = Instant.now();
+            Run run = new Run(start.plusSeconds(maxRunSeconds / 2), start.plusSeconds(maxRunSeconds));
+            checkRows(run);
+            checkFiles(run);
+            lastReport = run.toReport();
+            if (!run.danglingRows.isEmpty() || !run.orphanFiles.isEmpty()) {
+                log.warn("Storage reconciliation: {} dangling rows, {} orphan files ({})",
+                    run.danglingRowCount, run.orphanFileCount, repair ? "repaired" : "reported only");
+            }
+            return lastReport;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    // Result of the most recent run, for the admin dashboard
+    public Map<String, Object> getLastReport() {
+        return lastReport;
+    }
+
+    // Rows whose file is gone from both tiers
+    private void checkRows(Run run) {
+        List<Object[]> batch;
+        do {
+            batch = documentRepository.findIdAndFilePathAfter(rowCursor, PageRequest.of(0, BATCH_SIZE));
+            List<Object[]> rows = batch;
+            List<Long> missing = inPool(() -> rows.parallelStream()
+                .filter(row -> row[1] == null || !Files.exists(Paths.get((String) row[1])))
+                .map(row -> (Long) row[0])
+                .collect(Collectors.toList()));
+
+            for (Long id : missing) {
+                checkDanglingRow(run, id);
+            }
+            run.rowsChecked += batch.size();
+            if (!batch.isEmpty()) {
+                rowCursor = (Long) batch.get(batch.size() - 1)[0];
+            }
+        } while (batch.size() == BATCH_SIZE && run.hasTime(run.rowDeadline));
+
+        if (batch.size() < BATCH_SIZE) {
+            rowCursor = 0;
+            run.rowPassComplete = true;
+        }
+    }
+
+    private void checkDanglingRow(Run run, Long id) {
+        // Re-read from the primary: the document may have been deleted or moved to the other tier meanwhile
+        Document current = transactionTemplate.execute(status -> documentRepository.findById(id).orElse(null));
+        if (current == null || (current.getFilePath() != null && Files.exists(Paths.get(current.getFilePath())))) {
+            return;
+        }
+
+        run.danglingRowCount++;
+        if (run.danglingRows.size() < MAX_REPORTED) {
+            run.danglingRows.add(id);
+        }
+        if (repair) {
+            // Finish the interrupted delete: row, extracted content, counters and search index
+            try {
+                documentService.deleteDocument(id);
+                meterRegistry.counter("storage.reconcile.repaired", "kind", "dangling_row").increment();
+            } catch (RuntimeException e) {
+                // e.g. versions stored as deltas against the missing file cannot be rebuilt
+                log.warn("Could not remove dangling document {}: {}", id, e.getMessage());
+            }
+        } else {
+            meterRegistry.counter("storage.reconcile.found", "kind", "dangling_row").increment();
+        }
+    }
+
+    // Files that no document row points to
+    private void checkFiles(Run run) {
+        NavigableSet<String> paths = walk(fileCursor, maxFilesPerRun);
+        boolean complete = paths.size() < maxFilesPerRun;
+        Instant graceCutoff = Instant.now().minus(Duration.ofMinutes(orphanGraceMinutes));
+
+        List<String> batch = new ArrayList<>(BATCH_SIZE);
+        for (String path : paths) {
+            batch.add(path);
+            if (batch.size() == BATCH_SIZE) {
+                checkFileBatch(run, batch, graceCutoff);
+                batch.clear();
+                if (!run.hasTime(run.deadline)) {
+                    complete = false;
+                    break;
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            checkFileBatch(run, batch, graceCutoff);
+        }
+
+        if (complete) {
+            fileCursor = "";
+            run.filePassComplete = true;
+        }
+    }
+
+    private void checkFileBatch(Run run, List<String> batch, Instant graceCutoff) {
+        Set<String> referenced = new HashSet<>(documentRepository.findFilePathsIn(batch));
+        for (String path : batch) {
+            if (!referenced.contains(path)) {
+                checkOrphanFile(run, Paths.get(path), graceCutoff);
+            }
+        }
+        run.filesChecked += batch.size();
+        fileCursor = batch.get(batch.size() - 1);
+    }
+
+    private void checkOrphanFile(Run run, Path path, Instant graceCutoff) {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+            if (attributes.lastModifiedTime().toInstant().isAfter(graceCutoff)) {
+                return;
+            }
+            run.orphanFileCount++;
+            run.orphanBytes += attributes.size();
+            if (run.orphanFiles.size() < MAX_REPORTED) {
+                run.orphanFiles.add(path.toString());
+            }
+            if (repair) {
+                Files.deleteIfExists(path);
+                meterRegistry.counter("storage.reconcile.repaired", "kind", "orphan_file").increment();
+            } else {
+                meterRegistry.counter("storage.reconcile.found", "kind", "orphan_file").increment();
+            }
+        } catch (IOException e) {
+            // Deleted or moved by someone else since the walk
+            log.debug("Skipping {}: {}", path, e.getMessage());
+        }
+    }
+
+    /**
+     * The first limit regular files after the cursor, in path order, across the volumes and the
+     * archive directory (except chunk directories inside them). Each directory is listed by its own fork/join task; the shared sorted set is
+     * trimmed as it fills, so memory stays bounded by the limit whatever the directory size.
+     */
+    private NavigableSet<String> walk(String after, int limit) {
+        ConcurrentSkipListSet<String> found = new ConcurrentSkipListSet<>();
+        Set<Path> roots = new LinkedHashSet<>();
+        storageVolumes.getAllVolumes().forEach(volume -> roots.add(volume.documents()));
+        roots.add(Paths.get(archiveDir));
+        // Chunk files belong to the chunk store, which collects them by reference count
+        Set<Path> skipped = storageVolumes.getAllVolumes().stream()
+            .map(StorageVolumes.Volume::chunks)
+            .collect(Collectors.toSet());
+        inPool(() -> {
+            List<DirectoryWalk> walks = roots.stream()
+                .filter(Files::isDirectory)
+                .map(root -> new DirectoryWalk(root, after, limit, found, skipped))
+                .collect(Collectors.toList());
+            RecursiveAction.invokeAll(walks);
+            return null;
+        });
+        return found;
+    }
+
+    private static class DirectoryWalk extends RecursiveAction {
+
+        private final Path directory;
+        private final String after;
+        private final int limit;
+        private final ConcurrentSkipListSet<String> found;
+        private final Set<Path> skipped;
+
+        DirectoryWalk(Path directory, String after, int limit, ConcurrentSkipListSet<String> found, Set<Path> skipped) {
+            this.directory = directory;
+            this.after = after;
+            this.limit = limit;
+            this.found = found;
+            this.skipped = skipped;
+        }
+
+        @Override
+        protected void compute() {
+            List<DirectoryWalk> subdirectories = new ArrayList<>();
+            try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory)) {
+                for (Path entry : entries) {
+                    if (Files.isDirectory(entry, LinkOption.NOFOLLOW_LINKS)) {
+                        if (!skipped.contains(entry.toAbsolutePath().normalize())) {
+                            subdirectories.add(new DirectoryWalk(entry, after, limit, found, skipped));
+                        }
+                        continue;
+                    }
+                    String path = entry.toString();
+                    if (path.compareTo(after) <= 0 || !Files.isRegularFile(entry, LinkOption.NOFOLLOW_LINKS)) {
+                        continue;
+                    }
+                    found.add(path);
+                    while (found.size() > limit) {
+                        found.pollLast();
+                    }
+                }
+            } catch (IOException e) {
+                log.warn("Could not list {}: {}", directory, e.getMessage());
+            }
+            invokeAll(subdirectories);
+        }
+    }
+
+    // Run parallel work on the reconciler's own pool instead of the common pool
+    private <T> T inPool(Callable<T> work) {
+        try {
+            return pool.submit(work).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Storage reconciliation interrupted", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Storage reconciliation failed: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    // Counters of one run
+    private class Run {
+
+        private final Instant rowDeadline;
+        private final Instant deadline;
+        private final Instant startedAt = Instant.now();
+        private long rowsChecked;
+        private long filesChecked;
+        private long danglingRowCount;
+        private long orphanFileCount;
+        private long orphanBytes;
+        private final List<Long> danglingRows = new ArrayList<>();
+        private final List<String> orphanFiles = new ArrayList<>();
+        private boolean rowPassComplete;
+        private boolean filePassComplete;
+
+        Run(Instant rowDeadline, Instant deadline) {
+            this.rowDeadline = rowDeadline;
+            this.deadline = deadline;
+        }
+
+        boolean hasTime(Instant until) {
+            return Instant.now().isBefore(until);
+        }
+
+        Map<String, Object> toReport() {
+            Map<String, Object> report = new LinkedHashMap<>();
+            report.put("startedAt", startedAt.toString());
+            report.put("durationMs", Duration.between(startedAt, Instant.now()).toMillis());
+            report.put("mode", repair ? "repair" : "report");
+            report.put("rowsChecked", rowsChecked);
+            report.put("filesChecked", filesChecked);
+            report.put("rowPassComplete", rowPassComplete);
+            report.put("filePassComplete", filePassComplete);
+            report.put("danglingRowCount", danglingRowCount);
+            report.put("danglingRowIds", danglingRows);
+            report.put("orphanFileCount", orphanFileCount);
+            report.put("orphanFileBytes", orphanBytes);
+            report.put("orphanFiles", orphanFiles);
+            return report;
+        }
+    }
+}
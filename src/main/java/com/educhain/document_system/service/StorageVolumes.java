@@ -0,0 +1,170 @@
+package com.educhain.document_system.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The volumes document files and chunks are spread over. storage.volumes lists one root directory
+ * per disk; a file goes to the volume that owns its hash on a consistent-hash ring, so the volume
+ * is computed from the hash alone, and adding a volume only moves the share of files the new
+ * volume takes over. Without storage.volumes there is a single volume made of file.upload-dir and
+ * storage.chunks.dir; once volumes are configured, that location is retired: readers still look
+ * there and rebalancing drains it. Every volume has its own I/O threads and sync thread, so a
+ * slow disk only delays the work queued on it.
+ */
+@Component
+public class StorageVolumes {
+
+    private static final Logger log = LoggerFactory.getLogger(StorageVolumes.class);
+
+    // Points per volume on the ring; more points spread the load more evenly
+    private static final int VIRTUAL_NODES = 160;
+    private static final String CHUNKS_DIRECTORY = "chunks";
+
+    @Value("${storage.volumes:}")
+    private String volumeList;
+
+    @Value("${file.upload-dir}")
+    private String uploadDir;
+
+    @Value("${storage.chunks.dir:./chunks/}")
+    private String chunkDir;
+
+    @Value("${storage.volumes.io-threads:4}")
+    private int ioThreads;
+
+    // Volumes on the ring, then retired locations
+    private List<Volume> volumes;
+    private List<Volume> allVolumes;
+    private NavigableMap<Long, Volume> ring;
+
+    @PostConstruct
+    public void start() {
+        List<Volume> configured = new ArrayList<>();
+        for (String root : volumeList.split(",")) {
+            if (!root.isBlank()) {
+                Path path = Paths.get(root.trim());
+                String name = path.toAbsolutePath().normalize().toString();
+                configured.add(new Volume(name, path, path.resolve(CHUNKS_DIRECTORY), executor(name)));
+            }
+        }
+
+        // Paths stay as configured: stored file paths are compared with them as strings
+        Path uploads = Paths.get(uploadDir);
+        Path chunks = Paths.get(chunkDir);
+        boolean defaultConfigured = configured.stream()
+            .anyMatch(volume -> volume.contains(uploads) && volume.contains(chunks));
+        Volume defaultVolume = defaultConfigured ? null : new Volume("default", uploads, chunks, executor("default"));
+
+        volumes = configured.isEmpty() ? List.of(defaultVolume) : List.copyOf(configured);
+        allVolumes = new ArrayList<>(volumes);
+        if (!configured.isEmpty() && defaultVolume != null) {
+            allVolumes.add(defaultVolume);
+        }
+        allVolumes = List.copyOf(allVolumes);
+
+        ring = new TreeMap<>();
+        for (Volume volume : volumes) {
+            for (int i = 0; i < VIRTUAL_NODES; i++) {
+                ring.put(position(volume.name() + "#" + i), volume);
+            }
+        }
+        if (volumes.size() > 1) {
+            log.info("Storage spread over {} volumes: {}", volumes.size(),
+                volumes.stream().map(Volume::name).toList());
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        allVolumes.forEach(volume -> volume.io().shutdownNow());
+    }
+
+    // The volume that owns a hash (a document's file hash or a chunk hash)
+    public Volume forHash(String hash) {
+        Map.Entry<Long, Volume> owner = ring.ceilingEntry(position(hash));
+        return owner != null ? owner.getValue() : ring.firstEntry().getValue();
+    }
+
+    // Volumes new files are placed on
+    public List<Volume> getVolumes() {
+        return volumes;
+    }
+
+    // Volumes on the ring and retired locations, owners first; readers search all of them
+    public List<Volume> getAllVolumes() {
+        return allVolumes;
+    }
+
+    // The volume a stored file is on, or null (e.g. the archive tier)
+    public Volume volumeOf(Path path) {
+        Volume found = null;
+        for (Volume volume : allVolumes) {
+            // Most specific wins: one volume's directory may be inside another's
+            if (volume.contains(path) && (found == null || volume.depth(path) > found.depth(path))) {
+                found = volume;
+            }
+        }
+        return found;
+    }
+
+    // Ring position: the first 8 bytes of the SHA-256 of the key
+    private static long position(String key) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+            return ByteBuffer.wrap(Arrays.copyOf(digest, Long.BYTES)).getLong();
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("Hash calculation failed", e);
+        }
+    }
+
+    private ExecutorService executor(String name) {
+        AtomicInteger threads = new AtomicInteger();
+        return Executors.newFixedThreadPool(ioThreads, runnable -> {
+            Thread thread = new Thread(runnable, "volume-io-" + threads.incrementAndGet() + " " + name);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * One volume: documents are stored directly in its documents directory, chunks under its
+     * chunks directory. The name identifies it on the ring, so renaming a volume moves its files.
+     */
+    public record Volume(String name, Path documents, Path chunks, ExecutorService io) {
+
+        // Whether a path is inside this volume
+        public boolean contains(Path path) {
+            Path absolute = absolute(path);
+            return absolute.startsWith(absolute(documents)) || absolute.startsWith(absolute(chunks));
+        }
+
+        private int depth(Path path) {
+            Path directory = absolute(path).startsWith(absolute(chunks)) ? chunks : documents;
+            return absolute(directory).getNameCount();
+        }
+
+        private static Path absolute(Path path) {
+            return path.toAbsolutePath().normalize();
+        }
+    }
+}
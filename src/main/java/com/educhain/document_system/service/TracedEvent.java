@@ -0,0 +1,57 @@
+package com.educhain.document_system.service;
+
+import jdk.jfr.Event;
+import java.util.function.Function;
+
+/**
+ * Base for the application's JFR events. Besides committing to the flight recording, a
+ * finished event is added to the current request's RequestTrace so slow requests can be
+ * broken down without opening the recording.
+ */
+abstract class TracedEvent extends Event {
+
+    // Not recorded (transient fields are ignored by JFR)
+    private transient long startNanos;
+
+    // Code timed by an event
+    @FunctionalInterface
+    interface TracedCall<T, E extends Exception> {
+        T call() throws E;
+    }
+
+    // Time the call; the outcome is "ok" or "error" (when it throws)
+    <T, E extends Exception> T time(TracedCall<T, E> call) throws E {
+        return time(call, result -> "ok");
+    }
+
+    // Time the call, deriving the outcome from its result (e.g. an HTTP status)
+    <T, E extends Exception> T time(TracedCall<T, E> call, Function<T, String> outcome) throws E {
+        start();
+        T result;
+        try {
+            result = call.call();
+        } catch (Exception e) {
+            finish("error");
+            throw e;
+        }
+        finish(outcome.apply(result));
+        return result;
+    }
+
+    void start() {
+        startNanos = System.nanoTime();
+        begin();
+    }
+
+    void finish(String outcome) {
+        end();
+        setOutcome(outcome);
+        commit();
+        RequestTrace.record(traceName(), outcome, System.nanoTime() - startNanos);
+    }
+
+    abstract void setOutcome(String outcome);
+
+    // e.g. "gemini.generateContent" or "disk.write"
+    abstract String traceName();
+}
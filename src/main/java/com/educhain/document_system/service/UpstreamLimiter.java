@@ -0,0 +1,67 @@
+package com.educhain.document_system.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caps concurrent calls to each external service with a semaphore. With virtual threads the
+ * request thread pool no longer limits how many calls pile up on a slow upstream, so this is
+ * the limit; callers that cannot get a permit within the timeout fail fast.
+ */
+@Component
+public class UpstreamLimiter {
+
+    // External services with their own limit
+    public enum Upstream {
+        GEMINI, RECAPTCHA, BLOCKCHAIN
+    }
+
+    @FunctionalInterface
+    public interface LimitedCall<T, E extends Exception> {
+        T call() throws E;
+    }
+
+    private final Map<Upstream, Semaphore> permits = new EnumMap<>(Upstream.class);
+    private final long acquireTimeoutMs;
+
+    public UpstreamLimiter(@Value("${execution.max-concurrent.gemini:16}") int gemini,
+                           @Value("${execution.max-concurrent.recaptcha:64}") int recaptcha,
+                           @Value("${execution.max-concurrent.blockchain:16}") int blockchain,
+                           @Value("${execution.acquire-timeout-ms:5000}") long acquireTimeoutMs) {
+        permits.put(Upstream.GEMINI, new Semaphore(gemini, true));
+        permits.put(Upstream.RECAPTCHA, new Semaphore(recaptcha, true));
+        permits.put(Upstream.BLOCKCHAIN, new Semaphore(blockchain, true));
+        this.acquireTimeoutMs = acquireTimeoutMs;
+    }
+
+    // Run the call holding a permit for the upstream
+    public <T, E extends Exception> T call(Upstream upstream, LimitedCall<T, E> call) throws E {
+        Semaphore semaphore = permits.get(upstream);
+        try {
+            if (!semaphore.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS)) {
+                throw new RuntimeException(upstream + " is busy, try again later");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for " + upstream, e);
+        }
+        try {
+            return call.call();
+        } finally {
+            semaphore.release();
+        }
+    }
+
+    // Calls waiting for a permit
+    public int getQueueLength(Upstream upstream) {
+        return permits.get(upstream).getQueueLength();
+    }
+
+    public int getAvailablePermits(Upstream upstream) {
+        return permits.get(upstream).availablePermits();
+    }
+}
@@ -5,6 +5,7 @@ import com.educhain.document_system.model.User;
 import com.educhain.document_system.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import java.util.List;
 import java.util.Optional;
 
@@ -26,7 +27,7 @@ public class UserService {
         return userRepository.save(user);
     }
     
-    // Login user
+    // Login user (stays on the primary so a just-registered account can log in immediately)
     public User loginUser(String username, String password) {
         Optional<User> user = userRepository.findByUsernameAndPassword(username, password);
         if (user.isPresent()) {
@@ -37,23 +38,27 @@ public class UserService {
     }
     
     // Get user by ID
+    @Transactional(readOnly = true)
     public User getUserById(Long id) {
         return userRepository.findById(id)
             .orElseThrow(() -> new RuntimeException("User not found!"));
     }
     
     // Get user by username
+    @Transactional(readOnly = true)
     public User getUserByUsername(String username) {
         return userRepository.findByUsername(username)
             .orElseThrow(() -> new RuntimeException("User not found!"));
     }
     
     // Get all students
+    @Transactional(readOnly = true)
     public List<User> getAllStudents() {
         return userRepository.findByRole(User.Role.STUDENT);
     }
     
     // Get all admins
+    @Transactional(readOnly = true)
     public List<User> getAllAdmins() {
         return userRepository.findByRole(User.Role.ADMIN);
     }
@@ -71,6 +76,7 @@ public class UserService {
     }
     
     // Get all users
+    @Transactional(readOnly = true)
     public List<User> getAllUsers() {
         return userRepository.findAll();
     }
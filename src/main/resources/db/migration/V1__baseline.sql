@@ -0,0 +1,30 @@
+-- Schema as created by hibernate.ddl-auto=update before migrations were introduced. Existing
+-- databases are baselined at version 1 (spring.flyway.baseline-on-migrate) and skip this script,
+-- so everything added since goes in a later migration.
+
+CREATE TABLE users (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    username VARCHAR(255) NOT NULL,
+    password VARCHAR(255) NOT NULL,
+    role VARCHAR(255) NOT NULL,
+    wallet_address VARCHAR(255),
+    created_at DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_users_username UNIQUE (username)
+) ENGINE = InnoDB;
+
+CREATE TABLE documents (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    filename VARCHAR(255) NOT NULL,
+    file_path VARCHAR(255),
+    file_hash VARCHAR(255),
+    file_size BIGINT,
+    student_id BIGINT NOT NULL,
+    upload_date DATETIME(6),
+    blockchain_tx_hash VARCHAR(255),
+    document_type VARCHAR(255),
+    description VARCHAR(255),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_documents_file_hash UNIQUE (file_hash),
+    CONSTRAINT fk_documents_student FOREIGN KEY (student_id) REFERENCES users (id)
+) ENGINE = InnoDB;
@@ -0,0 +1,5 @@
+-- Keyset pagination of the listing: newest first overall, per student and per document type.
+
+CREATE INDEX idx_documents_upload_date_id ON documents (upload_date, id);
+CREATE INDEX idx_documents_student_upload_date_id ON documents (student_id, upload_date, id);
+CREATE INDEX idx_documents_type_upload_date_id ON documents (document_type, upload_date, id);
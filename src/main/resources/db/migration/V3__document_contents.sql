@@ -0,0 +1,11 @@
+-- Extracted text of stored files, one row per file hash, for content search.
+
+CREATE TABLE document_contents (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    file_hash VARCHAR(255) NOT NULL,
+    status VARCHAR(255) NOT NULL,
+    content LONGTEXT,
+    extracted_at DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_document_contents_file_hash UNIQUE (file_hash)
+) ENGINE = InnoDB;
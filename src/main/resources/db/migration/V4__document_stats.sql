@@ -0,0 +1,13 @@
+-- Dashboard counters kept up to date by uploads and deletes, per total, student, type and day.
+-- Created empty; the application seeds them from the documents table on its first start.
+
+CREATE TABLE document_stats (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    scope VARCHAR(16) NOT NULL,
+    scope_key VARCHAR(255) NOT NULL,
+    document_count BIGINT NOT NULL,
+    total_bytes BIGINT NOT NULL,
+    anchored_count BIGINT NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_document_stats_scope_key UNIQUE (scope, scope_key)
+) ENGINE = InnoDB;
@@ -0,0 +1,7 @@
+-- Storage tiering: which tier holds the file and how recently it was downloaded.
+-- Existing rows keep a NULL tier, which is read as HOT.
+
+ALTER TABLE documents
+    ADD COLUMN storage_tier VARCHAR(16),
+    ADD COLUMN last_accessed_at DATETIME(6),
+    ADD COLUMN access_count BIGINT;
@@ -0,0 +1,3 @@
+-- Storage reconciliation looks stored files up by path.
+
+CREATE INDEX idx_documents_file_path ON documents (file_path);
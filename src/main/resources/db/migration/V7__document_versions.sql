@@ -0,0 +1,10 @@
+-- Document versioning: predecessor link, version number, and delta storage against another version.
+
+ALTER TABLE documents
+    ADD COLUMN previous_version_id BIGINT,
+    ADD COLUMN version_number INT,
+    ADD COLUMN delta_base_id BIGINT,
+    ADD COLUMN stored_size BIGINT;
+
+CREATE INDEX idx_documents_previous_version_id ON documents (previous_version_id);
+CREATE INDEX idx_documents_delta_base_id ON documents (delta_base_id);
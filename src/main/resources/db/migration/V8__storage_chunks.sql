@@ -0,0 +1,13 @@
+-- Content-defined chunk store: reference-counted chunks, and documents stored as chunk manifests.
+
+CREATE TABLE storage_chunks (
+    hash VARCHAR(64) NOT NULL,
+    size INT NOT NULL,
+    ref_count BIGINT NOT NULL,
+    PRIMARY KEY (hash)
+) ENGINE = InnoDB;
+
+CREATE INDEX idx_storage_chunks_ref_count ON storage_chunks (ref_count);
+
+ALTER TABLE documents
+    ADD COLUMN chunked BIT;
@@ -0,0 +1,4 @@
+-- Extraction attempts per file, so failed extractions are retried a bounded number of times.
+
+ALTER TABLE document_contents
+    ADD COLUMN attempts INT;
@@ -0,0 +1,138 @@
+package com.educhain.document_system.controller;
+
+import com.educhain.document_system.model.ContentSearchHit;
+import com.educhain.document_system.model.DocumentPage;
+import com.educhain.document_system.model.DocumentSummary;
+import com.educhain.document_system.model.User;
+import com.educhain.document_system.service.DocumentExportService;
+import com.educhain.document_system.service.DocumentService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+/**
+ * Endpoints that answer with a StreamingResponseBody, through Spring MVC's return value handling:
+ * the body has to be written by the streaming writer, not serialized as a bean.
+ */
+class DocumentControllerStreamingTest {
+
+    private DocumentService documentService;
+    private DocumentController controller;
+    private MockMvc mockMvc;
+    private MockHttpSession session;
+
+    @BeforeEach
+    void setUp() {
+        documentService = mock(DocumentService.class);
+        controller = new DocumentController();
+        ReflectionTestUtils.setField(controller, "documentService", documentService);
+        ReflectionTestUtils.setField(controller, "listingResponseWriter",
+            new ListingResponseWriter(new ObjectMapper().registerModule(new JavaTimeModule())));
+        mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+
+        User admin = new User("admin", "secret", User.Role.ADMIN);
+        admin.setId(1L);
+        session = new MockHttpSession();
+        session.setAttribute("user", admin);
+    }
+
+    @Test
+    void listingIsStreamed() throws Exception {
+        DocumentSummary document = new DocumentSummary(7L, "transcript.pdf", "Transcript", null, 100L,
+            LocalDateTime.of(2024, 5, 1, 12, 0), 3L, "student", null);
+        when(documentService.getDocumentPage(any(), isNull(), anyInt()))
+            .thenReturn(new DocumentPage(List.of(document), null));
+
+        MvcResult result = mockMvc.perform(get("/api/documents/my-documents").session(session))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+            .andExpect(jsonPath("$.success").value(true))
+            .andExpect(jsonPath("$.documents[0].id").value(7));
+    }
+
+    @Test
+    void searchResultsAreStreamed() throws Exception {
+        DocumentSummary document = new DocumentSummary(7L, "transcript.pdf", "Transcript", null, 100L,
+            LocalDateTime.of(2024, 5, 1, 12, 0), 3L, "student", null);
+        when(documentService.searchDocuments(eq("transcript"), isNull(), anyInt())).thenReturn(List.of(document));
+
+        MvcResult result = mockMvc.perform(get("/api/documents/search").param("q", "transcript").session(session))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+            .andExpect(jsonPath("$.success").value(true))
+            .andExpect(jsonPath("$.documents[0].filename").value("transcript.pdf"));
+    }
+
+    @Test
+    void contentSearchHitsAreStreamed() throws Exception {
+        DocumentSummary document = new DocumentSummary(7L, "transcript.pdf", "Transcript", null, 100L,
+            LocalDateTime.of(2024, 5, 1, 12, 0), 3L, "student", null);
+        when(documentService.searchDocumentContent(eq("calculus"), isNull(), anyInt()))
+            .thenReturn(List.of(new ContentSearchHit(document, "Advanced calculus")));
+
+        MvcResult result = mockMvc.perform(get("/api/documents/content-search").param("q", "calculus").session(session))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+            .andExpect(jsonPath("$.success").value(true))
+            .andExpect(jsonPath("$.documents[0].snippet").value("Advanced calculus"));
+    }
+
+    @Test
+    void exportIsStreamed() throws Exception {
+        DocumentExportService exportService = mock(DocumentExportService.class);
+        doAnswer(invocation -> {
+            invocation.getArgument(2, OutputStream.class).write("{\"id\":7}\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(exportService).export(any(), eq(DocumentExportService.Format.NDJSON), any());
+        ReflectionTestUtils.setField(controller, "documentExportService", exportService);
+
+        MvcResult result = mockMvc.perform(get("/api/documents/export").param("format", "ndjson").session(session))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+            .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"documents-export.ndjson\""))
+            .andExpect(content().string("{\"id\":7}\n"));
+    }
+
+    @Test
+    void listingFailureIsStreamedToo() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/documents/my-documents"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+            .andExpect(content().json("{\"success\":false,\"message\":\"Not logged in\"}"));
+    }
+}
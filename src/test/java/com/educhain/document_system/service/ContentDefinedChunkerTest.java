@@ -0,0 +1,87 @@
+package com.educhain.document_system.service;
+
+import org.junit.jupiter.api.Test;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ContentDefinedChunkerTest {
+
+    @Test
+    void chunksCoverTheDataWithinTheSizeLimits() {
+        byte[] data = random(1_000_000, 1);
+
+        int[] ends = ContentDefinedChunker.boundaries(data);
+
+        assertThat(ends[ends.length - 1]).isEqualTo(data.length);
+        int start = 0;
+        for (int i = 0; i < ends.length; i++) {
+            int size = ends[i] - start;
+            assertThat(size).isLessThanOrEqualTo(ContentDefinedChunker.MAX_SIZE);
+            if (i < ends.length - 1) {
+                assertThat(size).isGreaterThanOrEqualTo(ContentDefinedChunker.MIN_SIZE);
+            }
+            start = ends[i];
+        }
+        // Close to the average on random data
+        assertThat(data.length / ends.length).isBetween(ContentDefinedChunker.AVERAGE_SIZE / 2, ContentDefinedChunker.AVERAGE_SIZE * 2);
+    }
+
+    @Test
+    void dataWithoutBoundariesIsCutAtTheMaximumSize() {
+        byte[] data = new byte[5 * ContentDefinedChunker.MAX_SIZE + 100];
+
+        int[] ends = ContentDefinedChunker.boundaries(data);
+
+        int start = 0;
+        for (int end : ends) {
+            assertThat(end - start).isLessThanOrEqualTo(ContentDefinedChunker.MAX_SIZE);
+            start = end;
+        }
+        assertThat(start).isEqualTo(data.length);
+    }
+
+    @Test
+    void shortAndEmptyDataAreOneChunkOrNone() {
+        assertThat(ContentDefinedChunker.boundaries(new byte[0])).isEmpty();
+        assertThat(ContentDefinedChunker.boundaries(new byte[100])).containsExactly(100);
+    }
+
+    @Test
+    void anEditOnlyChangesTheChunksAroundIt() {
+        byte[] original = random(1_000_000, 2);
+        byte[] edited = new byte[original.length + 10];
+        System.arraycopy(original, 0, edited, 0, 500_000);
+        System.arraycopy(random(10, 3), 0, edited, 500_000, 10);
+        System.arraycopy(original, 500_000, edited, 500_010, original.length - 500_000);
+
+        List<ByteBuffer> before = chunks(original);
+        List<ByteBuffer> after = chunks(edited);
+
+        Set<ByteBuffer> unchanged = new HashSet<>(before);
+        unchanged.retainAll(new HashSet<>(after));
+        assertThat(after.size() - unchanged.size()).isLessThanOrEqualTo(3);
+    }
+
+    private static List<ByteBuffer> chunks(byte[] data) {
+        List<ByteBuffer> chunks = new ArrayList<>();
+        int start = 0;
+        for (int end : ContentDefinedChunker.boundaries(data)) {
+            chunks.add(ByteBuffer.wrap(Arrays.copyOfRange(data, start, end)));
+            start = end;
+        }
+        return chunks;
+    }
+
+    private static byte[] random(int size, long seed) {
+        byte[] bytes = new byte[size];
+        new Random(seed).nextBytes(bytes);
+        return bytes;
+    }
+}
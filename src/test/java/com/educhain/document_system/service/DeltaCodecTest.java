@@ -0,0 +1,79 @@
+package com.educhain.document_system.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DeltaCodecTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void smallEditRoundTripsAsASmallDelta() throws IOException {
+        byte[] base = random(200_000, 1);
+        byte[] target = concat(Arrays.copyOfRange(base, 0, 50_000), "inserted".getBytes(),
+                               Arrays.copyOfRange(base, 50_000, 120_000), Arrays.copyOfRange(base, 130_000, base.length));
+
+        byte[] delta = DeltaCodec.encode(base, target);
+
+        assertThat(delta.length).isLessThan(target.length / 100);
+        assertThat(decode(delta, base)).isEqualTo(target);
+    }
+
+    @Test
+    void unrelatedAndEmptyInputsRoundTrip() throws IOException {
+        byte[] base = random(10_000, 2);
+        byte[] unrelated = random(7_000, 3);
+
+        assertThat(decode(DeltaCodec.encode(base, unrelated), base)).isEqualTo(unrelated);
+        assertThat(decode(DeltaCodec.encode(base, new byte[0]), base)).isEmpty();
+        assertThat(decode(DeltaCodec.encode(new byte[0], unrelated), new byte[0])).isEqualTo(unrelated);
+        assertThat(decode(DeltaCodec.encode(base, base), base)).isEqualTo(base);
+    }
+
+    @Test
+    void rejectsADifferentBase() throws IOException {
+        byte[] base = random(10_000, 4);
+        byte[] delta = DeltaCodec.encode(base, random(1_000, 5));
+
+        assertThatThrownBy(() -> decode(delta, Arrays.copyOf(base, base.length - 1)))
+            .isInstanceOf(IOException.class)
+            .hasMessageContaining("Delta base has");
+    }
+
+    private byte[] decode(byte[] delta, byte[] base) throws IOException {
+        Path basePath = Files.write(directory.resolve("base-" + System.nanoTime()), base);
+        FileChannel channel = FileChannel.open(basePath, StandardOpenOption.READ);
+        try (InputStream in = DeltaCodec.decode(new ByteArrayInputStream(delta), channel)) {
+            return in.readAllBytes();
+        }
+    }
+
+    private static byte[] random(int size, long seed) {
+        byte[] bytes = new byte[size];
+        new Random(seed).nextBytes(bytes);
+        return bytes;
+    }
+
+    private static byte[] concat(byte[]... parts) {
+        byte[] result = new byte[Arrays.stream(parts).mapToInt(part -> part.length).sum()];
+        int offset = 0;
+        for (byte[] part : parts) {
+            System.arraycopy(part, 0, result, offset, part.length);
+            offset += part.length;
+        }
+        return result;
+    }
+}
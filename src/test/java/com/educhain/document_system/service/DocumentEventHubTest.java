@@ -0,0 +1,121 @@
+package com.educhain.document_system.service;
+
+import com.educhain.document_system.model.DocumentEvent;
+import com.educhain.document_system.model.User;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DocumentEventHubTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private DocumentEventHub hub;
+    private ClientEmitter next;
+
+    @BeforeEach
+    void setUp() {
+        hub = new DocumentEventHub(new ObjectMapper().registerModule(new JavaTimeModule()), new SimpleMeterRegistry()) {
+            @Override
+            SseEmitter createEmitter(long timeoutMs) {
+                return next;
+            }
+        };
+        ReflectionTestUtils.setField(hub, "connectionTimeoutMs", 60000L);
+        ReflectionTestUtils.setField(hub, "maxConnections", 100);
+        ReflectionTestUtils.setField(hub, "maxQueuedEvents", 4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        hub.stop();
+    }
+
+    @Test
+    void aStalledClientDoesNotHoldUpTheOthers() throws InterruptedException {
+        ClientEmitter stalled = subscribe(admin(1L), true);
+        ClientEmitter reading = subscribe(admin(2L), false);
+
+        hub.publish(DocumentEvent.integrityChecked(10L, 3L, true));
+
+        // The connected comment and the event
+        assertThat(reading.received(2)).isTrue();
+        assertThat(stalled.failed.get()).isFalse();
+    }
+
+    @Test
+    void aClientThatFallsTooFarBehindIsDisconnected() throws InterruptedException {
+        ClientEmitter stalled = subscribe(admin(1L), true);
+        assertThat(stalled.sending.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // One send in progress, four queued, the sixth overflows
+        for (int i = 0; i < 6; i++) {
+            hub.publish(DocumentEvent.integrityChecked(10L + i, 3L, true));
+        }
+
+        assertThat(stalled.failed.get()).isTrue();
+    }
+
+    private ClientEmitter subscribe(User user, boolean stalls) {
+        next = new ClientEmitter(stalls);
+        assertThat(hub.subscribe(user)).isSameAs(next);
+        return next;
+    }
+
+    private static User admin(Long id) {
+        User user = new User("admin" + id, "secret", User.Role.ADMIN);
+        user.setId(id);
+        return user;
+    }
+
+    // Stands in for a client: records what is sent, or blocks on the first send like a full socket
+    private class ClientEmitter extends SseEmitter {
+        private final boolean stalls;
+        private final AtomicInteger sent = new AtomicInteger();
+        private final AtomicBoolean failed = new AtomicBoolean();
+        private final CountDownLatch sending = new CountDownLatch(1);
+
+        ClientEmitter(boolean stalls) {
+            this.stalls = stalls;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            sending.countDown();
+            if (stalls) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                throw new IOException("Broken pipe");
+            }
+            sent.incrementAndGet();
+        }
+
+        @Override
+        public synchronized void completeWithError(Throwable ex) {
+            failed.set(true);
+        }
+
+        boolean received(int count) throws InterruptedException {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (sent.get() < count && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            return sent.get() >= count;
+        }
+    }
+}
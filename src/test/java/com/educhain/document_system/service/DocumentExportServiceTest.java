@@ -0,0 +1,85 @@
+package com.educhain.document_system.service;
+
+import com.educhain.document_system.model.Document;
+import com.educhain.document_system.model.DocumentCursor;
+import com.educhain.document_system.model.DocumentFilter;
+import com.educhain.document_system.model.User;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DocumentExportServiceTest {
+
+    private final DocumentFilter filter = new DocumentFilter();
+    private DocumentService documentService;
+    private DocumentExportService exportService;
+
+    @BeforeEach
+    void setUp() {
+        documentService = mock(DocumentService.class);
+        exportService = new DocumentExportService(new ObjectMapper().registerModule(new JavaTimeModule()));
+        ReflectionTestUtils.setField(exportService, "documentService", documentService);
+    }
+
+    @Test
+    void csvCellsASpreadsheetWouldEvaluateAreWrittenAsText() throws Exception {
+        Document document = document(7L, "=HYPERLINK(\"http://evil\")");
+        document.setDescription("@SUM(A1)");
+        document.setDocumentType("-2+3");
+        when(documentService.getDocumentBatch(eq(filter), any(), anyInt())).thenReturn(List.of(document));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.export(filter, DocumentExportService.Format.CSV, out);
+
+        String row = out.toString(StandardCharsets.UTF_8).split("\r\n")[1];
+        assertThat(row).startsWith("7,\"'=HYPERLINK(\"\"http://evil\"\")\",'-2+3,'@SUM(A1),");
+    }
+
+    @Test
+    void everyZipSectionStopsAtTheNewestDocumentWhenTheExportStarted() throws Exception {
+        Document document = document(7L, "transcript.pdf");
+        when(documentService.getDocumentBatch(eq(filter), any(), anyInt())).thenReturn(List.of(document));
+        when(documentService.openDocumentStream(document)).thenReturn(new ByteArrayInputStream(new byte[] {1}));
+
+        exportService.export(filter, DocumentExportService.Format.ZIP, new ByteArrayOutputStream());
+
+        // Looked up once without a bound; metadata, manifest and files then all start below it
+        verify(documentService).getDocumentBatch(eq(filter), isNull(), eq(1));
+        ArgumentCaptor<DocumentCursor> cursors = ArgumentCaptor.forClass(DocumentCursor.class);
+        verify(documentService, atLeastOnce()).getDocumentBatch(eq(filter), cursors.capture(), eq(500));
+        assertThat(cursors.getAllValues()).hasSize(3).allSatisfy(cursor -> {
+            assertThat(cursor.getUploadDate()).isEqualTo(document.getUploadDate());
+            assertThat(cursor.getId()).isEqualTo(8L);
+        });
+    }
+
+    private static Document document(Long id, String filename) {
+        User student = new User("student", "secret", User.Role.STUDENT);
+        student.setId(3L);
+        Document document = new Document();
+        document.setId(id);
+        document.setFilename(filename);
+        document.setStudent(student);
+        document.setUploadDate(LocalDateTime.of(2024, 5, 1, 12, 0));
+        document.setFileHash("00");
+        return document;
+    }
+}
@@ -0,0 +1,143 @@
+package com.educhain.document_system.service;
+
+import com.educhain.document_system.model.Document;
+import com.educhain.document_system.model.DocumentSummary;
+import com.educhain.document_system.model.User;
+import com.educhain.document_system.repository.DocumentContentRepository;
+import com.educhain.document_system.repository.DocumentRepository;
+import com.educhain.document_system.service.DocumentStorageService.StoredContent;
+import org.hibernate.LazyInitializationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Upload with open-in-view off: the anchoring save merges the detached document into a copy whose
+ * student is an uninitialized proxy of a closed session, which the rest of the upload must not touch.
+ * Also covers a new version whose delta base is archived between encoding and saving the delta.
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class DocumentServiceUploadTest {
+
+    @Mock private DocumentRepository documentRepository;
+    @Mock private DocumentContentRepository documentContentRepository;
+    @Mock private BlockchainService blockchainService;
+    @Mock private DocumentSearchService documentSearchService;
+    @Mock private ContentExtractionService contentExtractionService;
+    @Mock private DocumentStatsService documentStatsService;
+    @Mock private TransactionTemplate transactionTemplate;
+    @Mock private OperationMetrics operationMetrics;
+    @Mock private DocumentEventHub documentEventHub;
+    @Mock private DocumentStorageService documentStorageService;
+    @Mock private DurableFileWriter durableFileWriter;
+    @Mock private DocumentChunkStore documentChunkStore;
+    @Mock private StorageVolumes storageVolumes;
+
+    @InjectMocks
+    private DocumentService documentService;
+
+    @TempDir
+    Path uploads;
+
+    private User student;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() throws Exception {
+        student = new User("alice", "secret", User.Role.STUDENT);
+        student.setId(7L);
+        student.setWalletAddress("0xwallet");
+
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+            ((TransactionCallback<Object>) invocation.getArgument(0)).doInTransaction(mock(TransactionStatus.class)));
+        doAnswer(invocation -> {
+            ((Consumer<TransactionStatus>) invocation.getArgument(0)).accept(mock(TransactionStatus.class));
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+
+        when(storageVolumes.forHash(anyString()))
+            .thenReturn(new StorageVolumes.Volume("test", uploads, uploads.resolve("chunks"), null));
+        when(documentStorageService.prepareUpload(any(), any()))
+            .thenAnswer(invocation -> new StoredContent(invocation.getArgument(1), null, null));
+        when(documentStorageService.storedPath(any(), anyString(), any()))
+            .thenAnswer(invocation -> ((Path) invocation.getArgument(0)).resolve((String) invocation.getArgument(1)));
+        when(durableFileWriter.write(any(), any())).thenReturn(CompletableFuture.completedFuture(null));
+        when(blockchainService.storeDocumentHash(anyString(), anyString())).thenReturn("0xtx");
+
+        // First save persists the new document; the second one merges it like Hibernate does
+        when(documentRepository.save(any(Document.class))).thenAnswer(invocation -> {
+            Document document = invocation.getArgument(0);
+            if (document.getId() == null) {
+                document.setId(42L);
+                return document;
+            }
+            User lazyStudent = mock(User.class);
+            when(lazyStudent.getId()).thenReturn(student.getId());
+            when(lazyStudent.getUsername()).thenThrow(new LazyInitializationException("could not initialize proxy - no Session"));
+            Document merged = new Document(document.getFilename(), document.getFilePath(), document.getFileHash(), lazyStudent);
+            merged.setId(document.getId());
+            merged.setBlockchainTxHash(document.getBlockchainTxHash());
+            return merged;
+        });
+    }
+
+    @Test
+    void uploadSurvivesTheDetachedMergeAfterAnchoring() {
+        MockMultipartFile file = new MockMultipartFile("file", "transcript.pdf", "application/pdf", new byte[] {1, 2, 3});
+
+        Document uploaded = documentService.uploadDocument(file, student, "Transcript", "Fall term");
+
+        assertThat(uploaded.getStudent().getUsername()).isEqualTo("alice");
+        assertThat(uploaded.getBlockchainTxHash()).isEqualTo("0xtx");
+
+        ArgumentCaptor<DocumentSummary> indexed = ArgumentCaptor.forClass(DocumentSummary.class);
+        verify(documentSearchService).indexDocument(indexed.capture());
+        assertThat(indexed.getValue().getStudentUsername()).isEqualTo("alice");
+        assertThat(indexed.getValue().getBlockchainTxHash()).isEqualTo("0xtx");
+        verify(contentExtractionService).submit(uploaded);
+    }
+
+    @Test
+    void versionIsStoredInFullWhenItsDeltaBaseWentCold() throws Exception {
+        Document previous = new Document("transcript.pdf", uploads.resolve("1_transcript.pdf").toString(), "abc", student);
+        previous.setId(5L);
+        when(documentRepository.findById(5L)).thenReturn(Optional.of(previous));
+        when(documentStorageService.prepareUpload(eq(previous), any()))
+            .thenReturn(new StoredContent(new byte[] {9}, 5L, null));
+        when(documentStorageService.lockDeltaBase(5L)).thenReturn(false);
+        MockMultipartFile file = new MockMultipartFile("file", "transcript.pdf", "application/pdf", new byte[] {1, 2, 3});
+
+        Document uploaded = documentService.uploadDocument(file, student, "Transcript", "Fall term", 5L);
+
+        assertThat(uploaded.getPreviousVersionId()).isEqualTo(5L);
+        assertThat(uploaded.getDeltaBaseId()).isNull();
+        assertThat(uploaded.getStoredSize()).isEqualTo(3L);
+        verify(documentStorageService).prepareUpload(isNull(), any());
+    }
+}
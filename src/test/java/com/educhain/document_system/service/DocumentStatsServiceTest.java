@@ -0,0 +1,67 @@
+package com.educhain.document_system.service;
+
+import com.educhain.document_system.model.Document;
+import com.educhain.document_system.model.DocumentStat;
+import com.educhain.document_system.model.User;
+import com.educhain.document_system.repository.DocumentStatRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import java.time.LocalDateTime;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DocumentStatsServiceTest {
+
+    @Mock
+    private DocumentStatRepository documentStatRepository;
+
+    @InjectMocks
+    private DocumentStatsService documentStatsService;
+
+    @Test
+    void onlyMissingSlicesAreCreatedBeforeAnUpload() {
+        when(documentStatRepository.existsByScopeAndScopeKey(DocumentStat.Scope.TOTAL, "all")).thenReturn(true);
+        when(documentStatRepository.existsByScopeAndScopeKey(DocumentStat.Scope.STUDENT, "3")).thenReturn(false);
+        when(documentStatRepository.existsByScopeAndScopeKey(DocumentStat.Scope.TYPE, "Transcript")).thenReturn(true);
+        when(documentStatRepository.existsByScopeAndScopeKey(DocumentStat.Scope.DAY, "2024-05-01")).thenReturn(false);
+
+        documentStatsService.prepareUpload(document());
+
+        verify(documentStatRepository).createStatIfMissing("STUDENT", "3");
+        verify(documentStatRepository).createStatIfMissing("DAY", "2024-05-01");
+        verify(documentStatRepository, never()).createStatIfMissing(eq("TOTAL"), anyString());
+        verify(documentStatRepository, never()).createStatIfMissing(eq("TYPE"), anyString());
+    }
+
+    @Test
+    void slicesAreUpdatedInAFixedOrder() {
+        documentStatsService.recordUpload(document());
+
+        InOrder order = inOrder(documentStatRepository);
+        order.verify(documentStatRepository).addToStat("TOTAL", "all", 1, 100L, 0);
+        order.verify(documentStatRepository).addToStat("STUDENT", "3", 1, 100L, 0);
+        order.verify(documentStatRepository).addToStat("TYPE", "Transcript", 1, 100L, 0);
+        order.verify(documentStatRepository).addToStat("DAY", "2024-05-01", 1, 100L, 0);
+    }
+
+    private static Document document() {
+        User student = new User("student", "secret", User.Role.STUDENT);
+        student.setId(3L);
+        Document document = new Document();
+        document.setStudent(student);
+        document.setDocumentType("Transcript");
+        document.setFileSize(100L);
+        document.setUploadDate(LocalDateTime.of(2024, 5, 1, 12, 0));
+        return document;
+    }
+}
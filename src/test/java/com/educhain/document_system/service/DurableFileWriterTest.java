@@ -0,0 +1,163 @@
+package com.educhain.document_system.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DurableFileWriterTest {
+
+    @TempDir
+    Path directory;
+
+    private DurableFileWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        writer = new DurableFileWriter(new SimpleMeterRegistry(), mock(StorageVolumes.class));
+        ReflectionTestUtils.setField(writer, "fsyncEnabled", true);
+        ReflectionTestUtils.setField(writer, "groupWindowMs", 2L);
+        ReflectionTestUtils.setField(writer, "maxBatch", 64);
+    }
+
+    @AfterEach
+    void tearDown() {
+        writer.stop();
+    }
+
+    @Test
+    void concurrentWritesAllBecomeDurable() throws IOException {
+        List<CompletableFuture<Void>> writes = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            writes.add(writer.write(directory.resolve("file-" + i), new byte[] {(byte) i}));
+        }
+        for (CompletableFuture<Void> write : writes) {
+            DurableFileWriter.await(write);
+        }
+
+        for (int i = 0; i < 20; i++) {
+            assertThat(Files.readAllBytes(directory.resolve("file-" + i))).containsExactly((byte) i);
+        }
+        assertThat(temporaryFiles()).isEmpty();
+    }
+
+    @Test
+    void failedRenameLeavesNoTemporaryFile() throws IOException {
+        // A file cannot be renamed over a directory
+        Path target = Files.createDirectory(directory.resolve("taken"));
+        Files.writeString(target.resolve("inside"), "keeps the directory non-empty");
+
+        assertThatThrownBy(() -> writer.writeNow(target, new byte[] {1, 2, 3}))
+            .isInstanceOf(IOException.class);
+
+        assertThat(temporaryFiles()).isEmpty();
+    }
+
+    @Test
+    void writesAfterShutdownFailAndLeaveNothingBehind() throws IOException {
+        writer.writeNow(directory.resolve("before"), new byte[] {1});
+        writer.stop();
+
+        Path target = directory.resolve("after");
+        assertThatThrownBy(() -> writer.writeNow(target, new byte[] {2}))
+            .isInstanceOf(IOException.class)
+            .hasMessageContaining("shut down");
+
+        assertThat(target).doesNotExist();
+        assertThat(temporaryFiles()).isEmpty();
+    }
+
+    @Test
+    void filesOnAVolumeAreSyncedOnItsIoThreads() throws IOException {
+        StorageVolumes volumes = mock(StorageVolumes.class);
+        AtomicInteger tasks = new AtomicInteger();
+        ExecutorService io = new ThreadPoolExecutor(4, 4, 0, TimeUnit.SECONDS, new LinkedBlockingQueue<>()) {
+            @Override
+            public void execute(Runnable task) {
+                tasks.incrementAndGet();
+                super.execute(task);
+            }
+        };
+        when(volumes.volumeOf(any())).thenReturn(new StorageVolumes.Volume("disk", directory, directory, io));
+        DurableFileWriter volumeWriter = new DurableFileWriter(new SimpleMeterRegistry(), volumes);
+        ReflectionTestUtils.setField(volumeWriter, "fsyncEnabled", true);
+        ReflectionTestUtils.setField(volumeWriter, "groupWindowMs", 2L);
+        ReflectionTestUtils.setField(volumeWriter, "maxBatch", 64);
+        try {
+            List<CompletableFuture<Void>> writes = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                writes.add(volumeWriter.write(directory.resolve("file-" + i), new byte[] {(byte) i}));
+            }
+            for (CompletableFuture<Void> write : writes) {
+                DurableFileWriter.await(write);
+            }
+
+            assertThat(tasks).hasValue(8);
+            for (int i = 0; i < 8; i++) {
+                assertThat(Files.readAllBytes(directory.resolve("file-" + i))).containsExactly((byte) i);
+            }
+            assertThat(temporaryFiles()).isEmpty();
+        } finally {
+            volumeWriter.stop();
+            io.shutdownNow();
+        }
+    }
+
+    @Test
+    void writesToAStoppedVolumeFailAndLeaveNothingBehind() throws IOException {
+        StorageVolumes volumes = mock(StorageVolumes.class);
+        ExecutorService io = Executors.newSingleThreadExecutor();
+        io.shutdown();
+        when(volumes.volumeOf(any())).thenReturn(new StorageVolumes.Volume("disk", directory, directory, io));
+        DurableFileWriter volumeWriter = new DurableFileWriter(new SimpleMeterRegistry(), volumes);
+        ReflectionTestUtils.setField(volumeWriter, "fsyncEnabled", true);
+        Path target = directory.resolve("late");
+
+        assertThatThrownBy(() -> volumeWriter.writeNow(target, new byte[] {1}))
+            .isInstanceOf(IOException.class)
+            .hasMessageContaining("shut down");
+
+        assertThat(target).doesNotExist();
+        assertThat(temporaryFiles()).isEmpty();
+        volumeWriter.stop();
+    }
+
+    @Test
+    void withoutFsyncTheFileIsRenamedImmediately() throws IOException {
+        ReflectionTestUtils.setField(writer, "fsyncEnabled", false);
+        Path target = directory.resolve("unsynced");
+
+        CompletableFuture<Void> write = writer.write(target, new byte[] {7});
+
+        assertThat(write).isCompleted();
+        assertThat(Files.readAllBytes(target)).containsExactly((byte) 7);
+        assertThat(temporaryFiles()).isEmpty();
+    }
+
+    private List<Path> temporaryFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(".tmp")).toList();
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.educhain.document_system.service;
+
+import com.educhain.document_system.model.VerificationResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Messages built from Gemini's verdict; a broken format string turns every verdict into the
+ * "could not parse" fallback.
+ */
+class GeminiVerificationServiceTest {
+
+    private GeminiVerificationService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new GeminiVerificationService();
+        ReflectionTestUtils.setField(service, "confidenceThreshold", 0.75);
+    }
+
+    @Test
+    void verifiedDocumentReportsItsConfidence() {
+        VerificationResult result = service.parseGeminiResponse(
+            apiResponse("```json\n{\"documentType\": \"Transcript\", \"isValid\": true, \"confidence\": 0.92, " +
+                        "\"reason\": \"Grades table\"}\n```"),
+            "Transcript");
+
+        assertThat(result.isVerified()).isTrue();
+        assertThat(result.getConfidenceScore()).isEqualTo(0.92);
+        assertThat(result.getMessage()).isEqualTo("✅ Document verified as Transcript with 92% confidence");
+    }
+
+    @Test
+    void lowConfidenceIsRejectedWithItsConfidence() {
+        VerificationResult result = service.parseGeminiResponse(
+            apiResponse("{\"documentType\": \"Transcript\", \"isValid\": true, \"confidence\": 0.4, " +
+                        "\"reason\": \"Blurry.\"}"),
+            "Transcript");
+
+        assertThat(result.isVerified()).isFalse();
+        assertThat(result.getMessage()).startsWith("⚠️ Low confidence (40%).");
+    }
+
+    // Wrap the model text the way generateContent returns it
+    private static String apiResponse(String text) {
+        String escaped = text.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+        return "{\"candidates\":[{\"content\":{\"parts\":[{\"text\":\"" + escaped + "\"}],\"role\":\"model\"}}]}";
+    }
+}
@@ -0,0 +1,180 @@
+package com.educhain.document_system.service;
+
+import com.educhain.document_system.model.Document;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Receipts are checked the way an outside verifier would: with only the published JWK, no
+ * access to the service's key objects.
+ */
+class ReceiptServiceTest {
+
+    private static final String FILE_HASH = "9f86d081884c7d659a2feaa0c55ad015a3bf4f1b2b0b822cd15d6c15b0f00a08";
+
+    // SubjectPublicKeyInfo header of an Ed25519 key, followed by the 32 raw key bytes
+    private static final byte[] ED25519_X509_PREFIX = HexFormat.of().parseHex("302a300506032b6570032100");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private DocumentService documentService;
+
+    @BeforeEach
+    void setUp() {
+        documentService = mock(DocumentService.class);
+        Document document = new Document("diploma.pdf", "uploads/diploma.pdf", FILE_HASH, null);
+        document.setDocumentType("Diploma");
+        document.setUploadDate(LocalDateTime.of(2026, 6, 1, 12, 30));
+        document.setBlockchainTxHash("0xabc");
+        when(documentService.getDocumentByFileHash(FILE_HASH)).thenReturn(document);
+    }
+
+    @Test
+    void receiptVerifiesAgainstThePublishedJwk() throws Exception {
+        ReceiptService receipts = receiptService("", "");
+
+        String[] parts = receipts.getReceipt(FILE_HASH).jws().split("\\.");
+
+        assertThat(parts).hasSize(3);
+        assertThat(verify(receipts, parts[0] + "." + parts[1], parts[2])).isTrue();
+
+        JsonNode header = objectMapper.readTree(Base64.getUrlDecoder().decode(parts[0]));
+        assertThat(header.path("alg").asText()).isEqualTo("EdDSA");
+        assertThat(header.path("kid").asText()).isEqualTo(receipts.getKeyId());
+
+        JsonNode payload = objectMapper.readTree(Base64.getUrlDecoder().decode(parts[1]));
+        assertThat(payload.path("fileHash").asText()).isEqualTo(FILE_HASH);
+        assertThat(payload.path("uploadDate").asText()).isEqualTo("2026-06-01T12:30:00");
+        assertThat(payload.path("status").asText()).isEqualTo("anchored");
+    }
+
+    @Test
+    void alteredPayloadDoesNotVerify() throws Exception {
+        ReceiptService receipts = receiptService("", "");
+        String[] parts = receipts.getReceipt(FILE_HASH).jws().split("\\.");
+
+        String forged = new String(Base64.getUrlDecoder().decode(parts[1]), StandardCharsets.UTF_8)
+            .replace("Diploma", "Transcript");
+        String forgedPayload = Base64.getUrlEncoder().withoutPadding().encodeToString(forged.getBytes(StandardCharsets.UTF_8));
+
+        assertThat(verify(receipts, parts[0] + "." + forgedPayload, parts[2])).isFalse();
+    }
+
+    @Test
+    void theSameReceiptAlwaysHasTheSameToken() throws Exception {
+        ReceiptService receipts = receiptService("", "");
+
+        assertThat(receipts.getReceipt(FILE_HASH).jws()).isEqualTo(receipts.getReceipt(FILE_HASH).jws());
+    }
+
+    @Test
+    void configuredKeysKeepTheirKeyIdAcrossRestarts() throws Exception {
+        KeyPair keyPair = KeyPairGenerator.getInstance("Ed25519").generateKeyPair();
+        String privatePem = pem("PRIVATE KEY", keyPair.getPrivate().getEncoded());
+        String publicPem = pem("PUBLIC KEY", keyPair.getPublic().getEncoded());
+
+        ReceiptService first = receiptService(privatePem, publicPem);
+        ReceiptService second = receiptService(privatePem, publicPem);
+
+        assertThat(second.getKeyId()).isEqualTo(first.getKeyId());
+        assertThat(second.getReceipt(FILE_HASH).jws()).isEqualTo(first.getReceipt(FILE_HASH).jws());
+    }
+
+    @Test
+    void receiptsOfARetiredKeyStillVerifyAgainstThePublishedKeys() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("Ed25519");
+        KeyPair retired = generator.generateKeyPair();
+        KeyPair current = generator.generateKeyPair();
+        ReceiptService before = receiptService(pem("PRIVATE KEY", retired.getPrivate().getEncoded()),
+            pem("PUBLIC KEY", retired.getPublic().getEncoded()));
+        String[] parts = before.getReceipt(FILE_HASH).jws().split("\\.");
+
+        ReceiptService after = receiptService(pem("PRIVATE KEY", current.getPrivate().getEncoded()),
+            pem("PUBLIC KEY", current.getPublic().getEncoded()),
+            pem("PUBLIC KEY", retired.getPublic().getEncoded()));
+
+        String kid = objectMapper.readTree(Base64.getUrlDecoder().decode(parts[0])).path("kid").asText();
+        Map<String, Object> jwk = after.getPublicJwks().stream()
+            .filter(key -> kid.equals(key.get("kid")))
+            .findFirst()
+            .orElseThrow();
+        assertThat(after.getPublicJwks()).hasSize(2);
+        assertThat(after.getKeyId()).isNotEqualTo(kid);
+        assertThat(verify(jwk, parts[0] + "." + parts[1], parts[2])).isTrue();
+    }
+
+    @Test
+    void onlyConfiguredKeysCountAsConfigured() throws Exception {
+        KeyPair keyPair = KeyPairGenerator.getInstance("Ed25519").generateKeyPair();
+
+        assertThat(receiptService("", "").isKeyConfigured()).isFalse();
+        assertThat(receiptService(pem("PRIVATE KEY", keyPair.getPrivate().getEncoded()),
+            pem("PUBLIC KEY", keyPair.getPublic().getEncoded())).isKeyConfigured()).isTrue();
+    }
+
+    @Test
+    void refusesKeysThatDoNotBelongTogether() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("Ed25519");
+        String privatePem = pem("PRIVATE KEY", generator.generateKeyPair().getPrivate().getEncoded());
+        String otherPublicPem = pem("PUBLIC KEY", generator.generateKeyPair().getPublic().getEncoded());
+
+        assertThatThrownBy(() -> receiptService(privatePem, otherPublicPem))
+            .isInstanceOf(IllegalStateException.class);
+    }
+
+    private ReceiptService receiptService(String privateKey, String publicKey) throws Exception {
+        return receiptService(privateKey, publicKey, "");
+    }
+
+    private ReceiptService receiptService(String privateKey, String publicKey, String previousPublicKeys) throws Exception {
+        ReceiptService receipts = new ReceiptService();
+        ReflectionTestUtils.setField(receipts, "documentService", documentService);
+        ReflectionTestUtils.setField(receipts, "issuer", "Test Issuer");
+        ReflectionTestUtils.setField(receipts, "privateKeyText", privateKey);
+        ReflectionTestUtils.setField(receipts, "publicKeyText", publicKey);
+        ReflectionTestUtils.setField(receipts, "previousPublicKeysText", previousPublicKeys);
+        receipts.loadKeys();
+        return receipts;
+    }
+
+    private boolean verify(ReceiptService receipts, String signingInput, String signature) throws Exception {
+        return verify(receipts.getPublicJwk(), signingInput, signature);
+    }
+
+    // Verify with a key rebuilt from the JWK's raw "x" value
+    private boolean verify(Map<String, Object> jwk, String signingInput, String signature) throws Exception {
+        byte[] raw = Base64.getUrlDecoder().decode((String) jwk.get("x"));
+        byte[] encoded = new byte[ED25519_X509_PREFIX.length + raw.length];
+        System.arraycopy(ED25519_X509_PREFIX, 0, encoded, 0, ED25519_X509_PREFIX.length);
+        System.arraycopy(raw, 0, encoded, ED25519_X509_PREFIX.length, raw.length);
+        PublicKey key = KeyFactory.getInstance("Ed25519").generatePublic(new X509EncodedKeySpec(encoded));
+
+        Signature verifier = Signature.getInstance("Ed25519");
+        verifier.initVerify(key);
+        verifier.update(signingInput.getBytes(StandardCharsets.US_ASCII));
+        return verifier.verify(Base64.getUrlDecoder().decode(signature));
+    }
+
+    private static String pem(String type, byte[] der) {
+        return "-----BEGIN " + type + "-----\n" + Base64.getMimeEncoder().encodeToString(der) + "\n-----END " + type + "-----\n";
+    }
+}
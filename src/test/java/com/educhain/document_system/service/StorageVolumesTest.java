@@ -0,0 +1,96 @@
+package com.educhain.document_system.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StorageVolumesTest {
+
+    private static final int KEYS = 20_000;
+
+    @TempDir
+    Path root;
+
+    private final List<StorageVolumes> started = new ArrayList<>();
+
+    @AfterEach
+    void stop() {
+        started.forEach(StorageVolumes::stop);
+    }
+
+    @Test
+    void addingAVolumeOnlyMovesTheKeysItTakesOver() {
+        StorageVolumes three = volumes("a", "b", "c");
+        StorageVolumes four = volumes("a", "b", "c", "d");
+        String added = root.resolve("d").toAbsolutePath().normalize().toString();
+
+        int moved = 0;
+        for (String key : keys()) {
+            String before = three.forHash(key).name();
+            String after = four.forHash(key).name();
+            if (!before.equals(after)) {
+                // Keys only ever move to the new volume
+                assertThat(after).isEqualTo(added);
+                moved++;
+            }
+        }
+        assertThat((double) moved / KEYS).isBetween(0.15, 0.35);
+    }
+
+    @Test
+    void keysAreSpreadEvenly() {
+        StorageVolumes volumes = volumes("a", "b", "c", "d");
+
+        Map<String, Long> counts = keys().stream()
+            .collect(Collectors.groupingBy(key -> volumes.forHash(key).name(), HashMap::new, Collectors.counting()));
+
+        assertThat(counts).hasSize(4);
+        counts.values().forEach(count -> assertThat(count).isBetween(KEYS / 4 * 7 / 10L, KEYS / 4 * 13 / 10L));
+    }
+
+    @Test
+    void withoutVolumesEverythingIsOnTheDefaultLocation() {
+        StorageVolumes volumes = volumes();
+
+        assertThat(volumes.getVolumes()).hasSize(1);
+        assertThat(volumes.forHash("abc").name()).isEqualTo("default");
+        assertThat(volumes.volumeOf(root.resolve("uploads").resolve("file.pdf")).name()).isEqualTo("default");
+    }
+
+    @Test
+    void theRetiredDefaultLocationIsStillSearched() {
+        StorageVolumes volumes = volumes("a", "b");
+
+        assertThat(volumes.getVolumes()).hasSize(2);
+        assertThat(volumes.getAllVolumes()).hasSize(3);
+        assertThat(volumes.volumeOf(root.resolve("uploads").resolve("file.pdf")).name()).isEqualTo("default");
+        assertThat(volumes.volumeOf(root.resolve("a").resolve("chunks").resolve("ab").resolve("abcd")).documents())
+            .isEqualTo(root.resolve("a"));
+    }
+
+    private StorageVolumes volumes(String... names) {
+        StorageVolumes volumes = new StorageVolumes();
+        ReflectionTestUtils.setField(volumes, "volumeList",
+            IntStream.range(0, names.length).mapToObj(i -> root.resolve(names[i]).toString()).collect(Collectors.joining(",")));
+        ReflectionTestUtils.setField(volumes, "uploadDir", root.resolve("uploads").toString());
+        ReflectionTestUtils.setField(volumes, "chunkDir", root.resolve("chunks").toString());
+        ReflectionTestUtils.setField(volumes, "ioThreads", 1);
+        volumes.start();
+        started.add(volumes);
+        return volumes;
+    }
+
+    private static List<String> keys() {
+        return IntStream.range(0, KEYS).mapToObj(i -> "document-" + i).toList();
+    }
+}